@@ -1,6 +1,7 @@
 package com.ninety8point6.droptoken;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
@@ -11,17 +12,34 @@ import android.util.Log;
 import android.widget.ImageButton;
 import android.widget.TextView;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.ninety8point6.droptoken.concepts.GameManager;
+import com.ninety8point6.droptoken.concepts.GameRules;
 import com.ninety8point6.droptoken.concepts.GameService;
 import com.ninety8point6.droptoken.concepts.GameStore;
 import com.ninety8point6.droptoken.concepts.TokenLocation;
+import com.ninety8point6.droptoken.engine.Tablebase;
 import com.ninety8point6.droptoken.game.SinglePlayerGameManager;
+import com.ninety8point6.droptoken.service.CachingGameService;
+import com.ninety8point6.droptoken.service.HedgingGameService;
+import com.ninety8point6.droptoken.service.LocalGameService;
+import com.ninety8point6.droptoken.service.MappedResponseCache;
 import com.ninety8point6.droptoken.service.SimpleGameService;
+import com.ninety8point6.droptoken.service.SingleFlightGameService;
+import com.ninety8point6.droptoken.service.TablebaseGameService;
 import com.ninety8point6.droptoken.store.SharedPreferencesGameStore;
 import com.ninety8point6.droptoken.view.GameView;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
 
@@ -36,10 +54,16 @@ public class GameActivity extends AppCompatActivity implements GameView.Delegate
 
     private static final String TAG = "GameActivity";
 
-    private static final String ENDPOINT = "https://w0ayb2ph1k.execute-api.us-west-2.amazonaws.com/production";
     private static final String SHARED_PREFERENCES_NAME = "GameStore";
+    private static final String RESPONSE_CACHE_NAME = "responses.cache";
+    private static final int RESPONSE_CACHE_CAPACITY = 4096;
+    private static final long SERVICE_DEADLINE_MILLIS = 2000;
+    private static final String TABLEBASE_ASSET = "tablebase_4x4.bin";
 
     private GameManager mManager;
+    private MappedResponseCache mResponseCache;
+    private ScheduledExecutorService mServiceTimers;
+    private ExecutorService mFallbackExecutor;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -50,14 +74,34 @@ public class GameActivity extends AppCompatActivity implements GameView.Delegate
 
         final URL serviceUrl;
         try {
-            serviceUrl = new URL(ENDPOINT);
+            serviceUrl = new URL(BuildConfig.GAME_SERVICE_ENDPOINT);
         } catch (final MalformedURLException ex) {
             Log.e(TAG, "[onCreate] Unable create service endpoint... closing Activity.", ex);
             finish();
             return;
         }
 
-        final GameService service = new SimpleGameService(new OkHttpClient(), serviceUrl);
+        // Only the 9dt service's own replies are cached; repeat positions are answered without a call
+        GameService remote = new SimpleGameService(new OkHttpClient(), serviceUrl);
+        try {
+            mResponseCache = MappedResponseCache.open(new File(getCacheDir(), RESPONSE_CACHE_NAME), RESPONSE_CACHE_CAPACITY);
+            remote = new CachingGameService(remote, mResponseCache);
+        } catch (final IOException ex) {
+            Log.w(TAG, "[onCreate] Unable to open the response cache... continuing without it.", ex);
+        }
+
+        // Slow or failing calls to the 9dt service are hedged, then played on the device after the deadline
+        mServiceTimers = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("service-timer-%d")
+                .setDaemon(true)
+                .build());
+        final GameService service = new SingleFlightGameService(new HedgingGameService(remote,
+                createFallbackService(),
+                mServiceTimers,
+                SERVICE_DEADLINE_MILLIS,
+                TimeUnit.MILLISECONDS,
+                true));
+
         final GameStore store = new SharedPreferencesGameStore(getApplicationContext().getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE));
         final GameView view = new GameView(getApplicationContext(),
                     getSupportFragmentManager(),
@@ -74,12 +118,55 @@ public class GameActivity extends AppCompatActivity implements GameView.Delegate
                 new Handler(Looper.getMainLooper()));
     }
 
+    /**
+     * Build the {@link GameService} which plays moves on the device when the 9dt service is slow or
+     * unavailable: the bundled tablebase, memory-mapped straight out of the APK, or a search if the
+     * tablebase cannot be mapped.
+     *
+     * @return the fallback {@link GameService}
+     */
+    private GameService createFallbackService() {
+
+        try (AssetFileDescriptor asset = getAssets().openFd(TABLEBASE_ASSET);
+             FileInputStream input = new FileInputStream(asset.getFileDescriptor())) {
+            // The mapping stays valid once the asset is closed
+            final ByteBuffer table = Tablebase.map(input.getChannel(), asset.getStartOffset(), asset.getLength());
+            return new TablebaseGameService(new Tablebase(GameRules.DEFAULT, table));
+        } catch (final IOException | IllegalArgumentException ex) {
+            Log.w(TAG, "[createFallbackService] Unable to map the tablebase... searching instead.", ex);
+        }
+
+        mFallbackExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("service-fallback-%d")
+                .setDaemon(true)
+                .build());
+        return new LocalGameService(GameRules.DEFAULT, mFallbackExecutor);
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
         mManager.loadGame();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (mResponseCache != null) {
+            try {
+                mResponseCache.close();
+            } catch (final IOException ex) {
+                Log.w(TAG, "[onDestroy] Unable to close the response cache.", ex);
+            }
+        }
+        if (mServiceTimers != null) {
+            mServiceTimers.shutdownNow();
+        }
+        if (mFallbackExecutor != null) {
+            mFallbackExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public void onNewGame() {
         mManager.newGame();
@@ -7,6 +7,7 @@ import android.util.Log;
 
 import com.google.common.base.Preconditions;
 import com.ninety8point6.droptoken.R;
+import com.ninety8point6.droptoken.concepts.Cancellable;
 import com.ninety8point6.droptoken.concepts.GameBoard;
 import com.ninety8point6.droptoken.concepts.GameManager;
 import com.ninety8point6.droptoken.concepts.GameService;
@@ -17,8 +18,8 @@ import com.ninety8point6.droptoken.concepts.ResponseCallback;
 import com.ninety8point6.droptoken.concepts.TokenLocation;
 import com.ninety8point6.droptoken.view.GameView;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.ninety8point6.droptoken.concepts.GameState.PLAYER_1;
 
@@ -26,6 +27,10 @@ import static com.ninety8point6.droptoken.concepts.GameState.PLAYER_1;
  * A {@link GameManager} implementation for a single player version of Drop Token. The user swaps
  * moves with the service until a win occurs or if the board is full, resulting in a draw.
  * <p/>
+ * While it is the user's turn, the service's reply to each of the user's possible moves is requested
+ * speculatively, so a tap is usually answered straight from these prefetched replies instead of a
+ * full round trip; the replies to the moves not taken are cancelled.
+ * <p/>
  * All public APIs are assumed to have been invoked from the main UI thread.
  *
  * TODO: Remove GameView dependency - Presenter with full delegation OR register observables
@@ -37,6 +42,11 @@ public class SinglePlayerGameManager implements GameManager {
 
     private static final String GAME_KEY = "SinglePlayerGameManager";
 
+    /**
+     * The default upper bound on how long the {@link GameService} may take to play a move.
+     */
+    public static final long DEFAULT_MOVE_TIMEOUT_MILLIS = 10_000;
+
     private final Resources mResources;
     private final GameStore mStore;
     private final GameService mService;
@@ -53,6 +63,17 @@ public class SinglePlayerGameManager implements GameManager {
      */
     private final Handler mMainThreadHandler;
 
+    /**
+     * How long to wait for the {@link GameService} to play a move before giving up on it. The request
+     * is cancelled, and a response arriving after the timeout is ignored.
+     */
+    private final long mMoveTimeoutMillis;
+
+    /**
+     * Whether to prefetch the service's replies while it is the user's turn.
+     */
+    private final boolean mPrefetch;
+
     /**
      * The current {@link GameState} for which the {@link GameManager} acts upon. This implementation
      * is immutable and so we create new instances each time it needs to be modified
@@ -64,14 +85,24 @@ public class SinglePlayerGameManager implements GameManager {
 
     /**
      * The current {@link GameBoard} for which the {@link GameManager} applies validation. This
-     * implementation is immutable and so we create new instances each time it needs to be modified
-     * (using the {@link GameState}). This could eventually be updated with mutable operations, but
-     * opting to keep things simple since it is just used for validating moves and it is lightweight.
+     * implementation is immutable, so each move derives the next instance via
+     * {@link GameBoard#withMove(int)} and the derived board is carried through the rest of the turn
+     * alongside its {@link GameState}. A board is only rebuilt from a {@link GameState} when a game
+     * is loaded or started.
      * <p/>
      * Access is not synchronized as this should only be accessed/modified from the main thread.
      */
     private GameBoard mBoard;
 
+    /**
+     * The prefetched replies for the current turn, indexed by the user's column (null where a
+     * column is full or ends the game), or null when nothing is prefetched. Replaced each turn, so
+     * it never holds more than one entry per column.
+     * <p/>
+     * Access is not synchronized as this should only be accessed/modified from the main thread.
+     */
+    private Speculation[] mSpeculations;
+
     /**
      * Builds the {@link GameManager} with the provided dependencies.
      *
@@ -87,6 +118,51 @@ public class SinglePlayerGameManager implements GameManager {
                                    final GameStore store,
                                    final GameView view,
                                    final Handler mainThreadHandler) {
+        this(resources, service, store, view, mainThreadHandler, DEFAULT_MOVE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Builds the {@link GameManager} with the provided dependencies.
+     *
+     * @param resources the {@link Resources} for accessing strings
+     * @param service the {@link GameService} for communication with the 9dt service
+     * @param store the {@link GameStore} for persisting {@link GameState}
+     * @param view the {@link GameView} for pushing state changes to the view layer
+     * @param mainThreadHandler the main thread {@link Handler} for ensuring mutable field consistency
+     *                          and for updating the {@link GameView}
+     * @param moveTimeoutMillis the upper bound on how long the service may take to play a move
+     */
+    public SinglePlayerGameManager(final Resources resources,
+                                   final GameService service,
+                                   final GameStore store,
+                                   final GameView view,
+                                   final Handler mainThreadHandler,
+                                   final long moveTimeoutMillis) {
+        this(resources, service, store, view, mainThreadHandler, moveTimeoutMillis, true);
+    }
+
+    /**
+     * Builds the {@link GameManager} with the provided dependencies.
+     *
+     * @param resources the {@link Resources} for accessing strings
+     * @param service the {@link GameService} for communication with the 9dt service
+     * @param store the {@link GameStore} for persisting {@link GameState}
+     * @param view the {@link GameView} for pushing state changes to the view layer
+     * @param mainThreadHandler the main thread {@link Handler} for ensuring mutable field consistency
+     *                          and for updating the {@link GameView}
+     * @param moveTimeoutMillis the upper bound on how long the service may take to play a move
+     * @param prefetch whether to request the service's replies to each possible move in advance
+     */
+    public SinglePlayerGameManager(final Resources resources,
+                                   final GameService service,
+                                   final GameStore store,
+                                   final GameView view,
+                                   final Handler mainThreadHandler,
+                                   final long moveTimeoutMillis,
+                                   final boolean prefetch) {
+        Preconditions.checkArgument(moveTimeoutMillis > 0);
+        mMoveTimeoutMillis = moveTimeoutMillis;
+        mPrefetch = prefetch;
         mResources = Preconditions.checkNotNull(resources);
         mService = Preconditions.checkNotNull(service);
         mStore = Preconditions.checkNotNull(store);
@@ -99,11 +175,13 @@ public class SinglePlayerGameManager implements GameManager {
 
     @Override
     public void loadGame() {
+        cancelSpeculations();
         mStore.get(GAME_KEY, new OnGameLoaded());
     }
 
     @Override
     public void newGame() {
+        cancelSpeculations();
         mView.promptPlayerSelection(new OnPlayerSelected());
     }
 
@@ -117,44 +195,153 @@ public class SinglePlayerGameManager implements GameManager {
             return;
         }
 
-        final List<Integer> currentMoves = new LinkedList<>(mState.moves());
-        currentMoves.add(location.column());
-        final GameState newState = new GameState(mState.key(),
-                currentMoves,
-                mState.initialPlayer());
+        final GameState newState = mState.withMove(location.column());
+        final GameBoard newBoard = mBoard.withMove(location.column());
 
         // If we've reached a game over, save the state and notify the view; otherwise we can safely
         // play the token and ping the service for the computer's turn.
-        switch (new GameBoard(newState).isGameOver(PLAYER_1)) {
+        switch (newBoard.isGameOver(PLAYER_1)) {
             case DRAW:
             case WIN:
-                mStore.put(newState, new OnGameSaved(newState));
+                mStore.put(newState, new OnGameSaved(newState, newBoard));
                 break;
             case NONE:
-                mService.play(new Move(currentMoves), new OnMovePlayed(newState));
+                final Speculation speculation = takeSpeculation(location.column(), newState);
+                if (speculation == null) {
+                    requestMove(newState, newBoard);
+                } else {
+                    answerFromSpeculation(speculation);
+                }
                 break;
             default:
                 throw new RuntimeException("Unknown game over type");
         }
     }
 
+    /**
+     * Ask the {@link GameService} for the opponent's move, giving up on (and cancelling) the request
+     * if it has not responded within {@link #mMoveTimeoutMillis}.
+     *
+     * @param state the game state
+     * @param board the {@link GameBoard} for the provided state
+     */
+    private void requestMove(final GameState state, final GameBoard board) {
+        final OnMovePlayed callback = new OnMovePlayed(state, board);
+        mMainThreadHandler.postDelayed(callback.mTimeout, mMoveTimeoutMillis);
+        callback.mRequest = mService.request(new Move(state.sequence()), callback);
+    }
+
+    /**
+     * Request the service's reply to each of the user's possible moves which does not end the game.
+     * Must be called on the main thread.
+     *
+     * @param state the game state, with the user to move
+     * @param board the {@link GameBoard} for the provided state
+     */
+    private void prefetch(final GameState state, final GameBoard board) {
+
+        final Speculation[] speculations = new Speculation[board.rules().columns()];
+        for (int column = 0; column < speculations.length; column++) {
+
+            if (!board.isLocationValid(new TokenLocation(column))) {
+                continue;
+            }
+
+            final GameBoard nextBoard = board.withMove(column);
+            if (nextBoard.isGameOver(PLAYER_1) != GameBoard.GameOverType.NONE) {
+                continue;
+            }
+
+            final Speculation speculation = new Speculation(state.withMove(column), nextBoard);
+            speculations[column] = speculation;
+            speculation.mRequest = mService.request(new Move(speculation.mState.sequence()), speculation);
+        }
+        mSpeculations = speculations;
+    }
+
+    /**
+     * Take the prefetched reply to the provided move, cancelling the others. Must be called on the
+     * main thread.
+     *
+     * @param column the user's column
+     * @param state the state after the user's move
+     *
+     * @return the {@link Speculation} for the move, or null if there is none
+     */
+    private Speculation takeSpeculation(final int column, final GameState state) {
+
+        if (mSpeculations == null || column >= mSpeculations.length) {
+            cancelSpeculations();
+            return null;
+        }
+
+        final Speculation speculation = mSpeculations[column];
+        mSpeculations[column] = null;
+        cancelSpeculations();
+        return speculation != null && speculation.mState.moves().equals(state.moves()) ? speculation : null;
+    }
+
+    /**
+     * Cancel any outstanding prefetched replies. Must be called on the main thread.
+     */
+    private void cancelSpeculations() {
+
+        if (mSpeculations == null) {
+            return;
+        }
+
+        for (final Speculation speculation : mSpeculations) {
+            if (speculation != null && speculation.mRequest != null) {
+                speculation.mRequest.cancel();
+            }
+        }
+        mSpeculations = null;
+    }
+
+    /**
+     * Answer the user's move from its prefetched reply: straight away if the reply has arrived,
+     * otherwise once it does, with the usual move timeout from now (which cancels the prefetch). A
+     * prefetch which failed, before or after the user's move, is retried as a regular request. Must
+     * be called on the main thread.
+     *
+     * @param speculation the {@link Speculation} for the user's move
+     */
+    private void answerFromSpeculation(final Speculation speculation) {
+
+        if (speculation.mDone && speculation.mError != null) {
+            requestMove(speculation.mState, speculation.mBoard);
+            return;
+        }
+
+        final OnMovePlayed callback = new OnMovePlayed(speculation.mState, speculation.mBoard);
+        if (speculation.mDone) {
+            callback.onSuccess(speculation.mResponse);
+            return;
+        }
+
+        callback.mRequest = speculation.mRequest;
+        mMainThreadHandler.postDelayed(callback.mTimeout, mMoveTimeoutMillis);
+        speculation.mWaiter = callback;
+    }
+
     /**
      * Handle when the {@link GameState} becomes available. We need to check for whether it is in a
      * "game over" state before proceeding.
      *
      * @param state the game state
+     * @param board the {@link GameBoard} for the provided state
      */
-    private void handleGameStateAvailable(final GameState state) {
+    private void handleGameStateAvailable(final GameState state, final GameBoard board) {
         final int player = state.lastPlayer();
-        switch (new GameBoard(state).isGameOver(player)) {
+        switch (board.isGameOver(player)) {
             case DRAW:
-                handleGameOver(state, mResources.getString(R.string.draw_message));
+                handleGameOver(state, board, mResources.getString(R.string.draw_message));
                 break;
             case NONE:
-                handleGameLoaded(state);
+                handleGameLoaded(state, board);
                 break;
             case WIN:
-                handleGameOver(state, player == 0
+                handleGameOver(state, board, player == 0
                         ? mResources.getString(R.string.player_win_message)
                         : mResources.getString(R.string.computer_win_message));
                 break;
@@ -169,12 +356,17 @@ public class SinglePlayerGameManager implements GameManager {
      * rendering.
      *
      * @param state the game state
+     * @param board the {@link GameBoard} for the provided state
      */
-    private void handleGameLoaded(final GameState state) {
+    private void handleGameLoaded(final GameState state, final GameBoard board) {
         mMainThreadHandler.post(() -> {
             mState = state;
-            mBoard = new GameBoard(mState);
+            mBoard = board;
             mView.updateGameView(mState, false);
+            cancelSpeculations();
+            if (mPrefetch) {
+                prefetch(state, board);
+            }
         });
     }
 
@@ -183,12 +375,14 @@ public class SinglePlayerGameManager implements GameManager {
      * app is launched before starting a new game we end up in a consistent state.
      *
      * @param state the game state
+     * @param board the {@link GameBoard} for the provided state
      * @param message the message to be displayed
      */
-    private void handleGameOver(final GameState state, final String message) {
+    private void handleGameOver(final GameState state, final GameBoard board, final String message) {
         mMainThreadHandler.post(() -> {
             mState = state;
-            mBoard = new GameBoard(mState);
+            mBoard = board;
+            cancelSpeculations();
             mView.updateGameView(mState, true);
             mView.setMessage(message);
         });
@@ -241,7 +435,7 @@ public class SinglePlayerGameManager implements GameManager {
         public void onSuccess(final GameState response) {
 
             if (response != null) {
-                handleGameStateAvailable(response);
+                handleGameStateAvailable(response, new GameBoard(response));
                 return;
             }
 
@@ -263,14 +457,17 @@ public class SinglePlayerGameManager implements GameManager {
     private class OnGameSaved implements ResponseCallback<Boolean, Throwable> {
 
         private final GameState mState;
+        private final GameBoard mBoard;
 
         /**
          * Builds the {@link OnGameSaved} callback.
          *
          * @param state the state that has been saved
+         * @param board the {@link GameBoard} for the saved state
          */
-        OnGameSaved(final GameState state) {
+        OnGameSaved(final GameState state, final GameBoard board) {
             mState = state;
+            mBoard = board;
         }
 
         @Override
@@ -281,7 +478,7 @@ public class SinglePlayerGameManager implements GameManager {
                 return;
             }
 
-            handleGameStateAvailable(mState);
+            handleGameStateAvailable(mState, mBoard);
         }
 
         @Override
@@ -295,42 +492,154 @@ public class SinglePlayerGameManager implements GameManager {
     /**
      * A {@link ResponseCallback} for handling when a move has been played against the
      * {@link GameService}. The response includes the latest move from the opponent.
+     * <p/>
+     * Only the first of the response, the error and the timeout is handled; the others are ignored.
      */
     private class OnMovePlayed implements ResponseCallback<List<Integer>, Throwable> {
 
         private final GameState mState;
+        private final GameBoard mBoard;
+        private final AtomicBoolean mSettled = new AtomicBoolean();
+
+        /**
+         * The request to the service, cancelled on timeout. Only accessed from the main thread.
+         */
+        private Cancellable mRequest;
+
+        /**
+         * Posted to the main thread to give up on the service once the move timeout has elapsed.
+         */
+        private final Runnable mTimeout = () -> {
+            if (settle()) {
+                if (mRequest != null) {
+                    mRequest.cancel();
+                }
+                handleError("Timed out waiting for a move.", mResources.getString(R.string.move_timeout_message));
+            }
+        };
 
         /**
          * Builds the {@link OnMovePlayed} callback.
          *
          * @param state the current state to be updated
+         * @param board the {@link GameBoard} for the current state
          */
-        OnMovePlayed(final GameState state) {
+        OnMovePlayed(final GameState state, final GameBoard board) {
             mState = state;
+            mBoard = board;
+        }
+
+        /**
+         * @return {@code true} if this is the first outcome of the request; otherwise {@code false}
+         */
+        private boolean settle() {
+            if (!mSettled.compareAndSet(false, true)) {
+                return false;
+            }
+            mMainThreadHandler.removeCallbacks(mTimeout);
+            return true;
         }
 
         @Override
         public void onSuccess(final List<Integer> response) {
 
+            if (!settle()) {
+                return;
+            }
+
             if (response.isEmpty()) {
                 handleError("Attempted to play an invalid move.", mResources.getString(R.string.unexpected_error_message));
                 return;
             }
 
-            final GameState newState = new GameState(mState.key(),
-                    response,
-                    mState.initialPlayer());
-            mStore.put(newState, new OnGameSaved(newState));
+            // The service extends our moves by a single token, so the next board is derived from
+            // the current one; a reply which rewrites or skips moves does not match either.
+            final int size = mState.moves().size();
+            if (response.size() != size + 1 || !response.subList(0, size).equals(mState.moves())) {
+                handleError("The service replied with an unexpected move list.", mResources.getString(R.string.unexpected_error_message));
+                return;
+            }
+
+            final Integer column = response.get(size);
+            if (column == null || column < 0 || !mBoard.isLocationValid(new TokenLocation(column))) {
+                handleError("The service replied with an invalid move.", mResources.getString(R.string.unexpected_error_message));
+                return;
+            }
+
+            final GameState newState = mState.withMove(column);
+            mStore.put(newState, new OnGameSaved(newState, mBoard.withMove(column)));
         }
 
         @Override
         public void onError(final Throwable reason) {
+
+            if (!settle()) {
+                return;
+            }
+
             handleError("Unable to play a move.",
                     mResources.getString(R.string.unexpected_error_message),
                     reason);
         }
     }
 
+    /**
+     * A {@link ResponseCallback} for a prefetched reply to one of the user's possible moves. The
+     * outcome is handed to the main thread and held until the user makes that move, or passed on
+     * straight away if the user already has; a failure after the move is retried as a regular
+     * request.
+     */
+    private class Speculation implements ResponseCallback<List<Integer>, Throwable> {
+
+        private final GameState mState;
+        private final GameBoard mBoard;
+
+        // Only accessed from the main thread
+        private Cancellable mRequest;
+        private boolean mDone;
+        private List<Integer> mResponse;
+        private Throwable mError;
+        private OnMovePlayed mWaiter;
+
+        /**
+         * Builds the {@link Speculation} callback.
+         *
+         * @param state the state after the user's possible move
+         * @param board the {@link GameBoard} for that state
+         */
+        Speculation(final GameState state, final GameBoard board) {
+            mState = state;
+            mBoard = board;
+        }
+
+        @Override
+        public void onSuccess(final List<Integer> response) {
+            mMainThreadHandler.post(() -> complete(response, null));
+        }
+
+        @Override
+        public void onError(final Throwable reason) {
+            mMainThreadHandler.post(() -> complete(null, reason));
+        }
+
+        private void complete(final List<Integer> response, final Throwable reason) {
+
+            mDone = true;
+            mResponse = response;
+            mError = reason;
+
+            if (mWaiter == null) {
+                return;
+            }
+
+            if (reason == null) {
+                mWaiter.onSuccess(response);
+            } else if (mWaiter.settle()) {
+                requestMove(mState, mBoard);
+            }
+        }
+    }
+
     /**
      * A {@link ResponseCallback} for handling when an initial player has been selected.
      */
@@ -340,12 +649,13 @@ public class SinglePlayerGameManager implements GameManager {
         public void onSuccess(final Integer response) {
 
             final GameState state = new GameState(GAME_KEY, response);
+            final GameBoard board = new GameBoard(state);
             if (response != PLAYER_1) {
-                mService.play(new Move(state.moves()), new OnMovePlayed(state));
+                requestMove(state, board);
                 return;
             }
 
-            mStore.put(state, new OnGameSaved(state));
+            mStore.put(state, new OnGameSaved(state, board));
         }
 
         @Override
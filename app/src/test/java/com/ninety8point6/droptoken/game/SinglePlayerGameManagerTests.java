@@ -1,83 +1,498 @@
 package com.ninety8point6.droptoken.game;
 
+import android.content.res.Resources;
+import android.os.Handler;
+import android.os.Looper;
+
 import com.ninety8point6.droptoken.BuildConfig;
+import com.ninety8point6.droptoken.R;
+import com.ninety8point6.droptoken.concepts.Cancellable;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.concepts.TokenLocation;
+import com.ninety8point6.droptoken.store.InMemoryGameStore;
+import com.ninety8point6.droptoken.view.GameView;
 
-import org.junit.Ignore;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  * A suite of tests to verify the {@link SinglePlayerGameManager} has the expected behavior.
  *
- * TODO: Implement tests!!! Handling error states for operations + various outcomes upon game loaded
- * TODO: and after moves are played by the service
- *
  * @see SinglePlayerGameManager
  */
 @RunWith(RobolectricTestRunner.class)
 @Config(constants = BuildConfig.class, sdk = 25)
-@Ignore
 public class SinglePlayerGameManagerTests {
 
+    private static final String GAME_KEY = "SinglePlayerGameManager";
+    private static final long MOVE_TIMEOUT_MILLIS = 1_000;
+
+    @Mock
+    private Resources mockResources;
+
+    @Mock
+    private GameView mockView;
+
+    private FakeGameService mService;
+    private InMemoryGameStore mStore;
+    private Handler mHandler;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(mockResources.getString(anyInt())).thenAnswer(invocation -> "message-" + invocation.getArgument(0));
+        mService = new FakeGameService();
+        mStore = new InMemoryGameStore();
+        mHandler = new Handler(Looper.getMainLooper());
+    }
+
     @Test(expected = NullPointerException.class)
     public void testManagerChecksResources() {
-
+        new SinglePlayerGameManager(null, mService, mStore, mockView, mHandler);
     }
 
     @Test(expected = NullPointerException.class)
     public void testManagerChecksService() {
-
+        new SinglePlayerGameManager(mockResources, null, mStore, mockView, mHandler);
     }
 
     @Test(expected = NullPointerException.class)
     public void testManagerChecksStore() {
-
+        new SinglePlayerGameManager(mockResources, mService, null, mockView, mHandler);
     }
 
     @Test(expected = NullPointerException.class)
     public void testManagerChecksView() {
-
+        new SinglePlayerGameManager(mockResources, mService, mStore, null, mHandler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testManagerChecksHandlerIsMainHandler() {
-
+        new SinglePlayerGameManager(mockResources, mService, mStore, mockView, mock(Handler.class));
     }
 
     @Test(expected = NullPointerException.class)
     public void testManagerChecksHandler() {
+        new SinglePlayerGameManager(mockResources, mService, mStore, mockView, null);
+    }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testManagerChecksMoveTimeout() {
+        new SinglePlayerGameManager(mockResources, mService, mStore, mockView, mHandler, 0);
     }
 
     @Test
     public void testManagerLoadsGame() {
+        save(0, 1);
+        manager(false).loadGame();
 
+        verify(mockView).updateGameView(argThat(state -> state.moves().equals(Arrays.asList(0, 1))), eq(false));
+        verify(mockView, never()).promptPlayerSelection(any());
+    }
+
+    @Test
+    public void testManagerLoadPromptsWithoutGame() {
+        manager(false).loadGame();
+        verify(mockView).promptPlayerSelection(any());
     }
 
     @Test
     public void testManagerNewGame() {
+        manager(false).newGame();
+        selectPlayer(GameState.PLAYER_1);
 
+        assertEquals(Collections.emptyList(), saved().moves());
+        verify(mockView).updateGameView(any(GameState.class), eq(false));
+        assertTrue(mService.mRequests.isEmpty());
     }
 
-    @Test(expected = NullPointerException.class)
+    @Test(expected = IllegalArgumentException.class)
     public void testManagerPlayChecksLocation() {
-
+        save();
+        final SinglePlayerGameManager manager = manager(false);
+        manager.loadGame();
+        manager.play(null);
     }
 
     @Test
     public void testManagerPlayChecksValidLocation() {
+        save(0, 0, 0, 0);
+        final SinglePlayerGameManager manager = manager(false);
+        manager.loadGame();
+        manager.play(new TokenLocation(0));
 
+        verify(mockView).setMessage("message-" + R.string.invalid_move_message);
+        assertTrue(mService.mRequests.isEmpty());
     }
 
     @Test
     public void testManagerPlayChecksIsGameOver() {
+        save(0, 1, 0, 1, 0, 1);
+        final SinglePlayerGameManager manager = manager(false);
+        manager.loadGame();
+        manager.play(new TokenLocation(0));
 
+        verify(mockView).updateGameView(any(GameState.class), eq(true));
+        verify(mockView).setMessage("message-" + R.string.player_win_message);
+        assertTrue(mService.mRequests.isEmpty());
     }
 
     @Test
     public void testManagerPlays() {
+        save();
+        final SinglePlayerGameManager manager = manager(false);
+        manager.loadGame();
+        manager.play(new TokenLocation(0));
+
+        assertEquals(1, mService.mRequests.size());
+        mService.mRequests.get(0).reply(2);
+
+        assertEquals(Arrays.asList(0, 2), saved().moves());
+        verify(mockView).updateGameView(argThat(state -> state.moves().equals(Arrays.asList(0, 2))), eq(false));
+    }
+
+    @Test
+    public void testManagerRejectsRewrittenMoves() {
+        save(0, 1);
+        final SinglePlayerGameManager manager = manager(false);
+        manager.loadGame();
+        manager.play(new TokenLocation(2));
+        mService.mRequests.get(0).reply(Arrays.asList(3, 1, 2, 0));
+
+        assertEquals(Arrays.asList(0, 1), saved().moves());
+        verify(mockView).setMessage("message-" + R.string.unexpected_error_message);
+    }
+
+    @Test
+    public void testManagerRejectsInvalidReplyColumn() {
+        save(0, 0, 0, 0);
+        final SinglePlayerGameManager manager = manager(false);
+        manager.loadGame();
+        manager.play(new TokenLocation(1));
+        mService.mRequests.get(0).reply(0);
+
+        assertEquals(Arrays.asList(0, 0, 0, 0), saved().moves());
+        verify(mockView).setMessage("message-" + R.string.unexpected_error_message);
+    }
+
+    @Test
+    public void testMoveTimeoutCancelsRequest() {
+        manager(false).newGame();
+        selectPlayer(GameState.PLAYER_2);
+
+        final Request request = mService.mRequests.get(0);
+        ShadowLooper.idleMainLooper(MOVE_TIMEOUT_MILLIS - 1, TimeUnit.MILLISECONDS);
+        assertFalse(request.mCancelled);
+
+        ShadowLooper.idleMainLooper(1, TimeUnit.MILLISECONDS);
+        assertTrue(request.mCancelled);
+        verify(mockView).setMessage("message-" + R.string.move_timeout_message);
+    }
+
+    @Test
+    public void testMoveTimeoutIgnoresLateReply() {
+        manager(false).newGame();
+        selectPlayer(GameState.PLAYER_2);
+
+        ShadowLooper.idleMainLooper(MOVE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        mService.mRequests.get(0).reply(1);
+
+        assertNull(saved());
+        verify(mockView, never()).updateGameView(any(GameState.class), anyBoolean());
+    }
+
+    @Test
+    public void testReplyClearsMoveTimeout() {
+        manager(false).newGame();
+        selectPlayer(GameState.PLAYER_2);
+
+        final Request request = mService.mRequests.get(0);
+        request.reply(1);
+        ShadowLooper.idleMainLooper(MOVE_TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+
+        assertFalse(request.mCancelled);
+        assertEquals(Collections.singletonList(1), saved().moves());
+        verify(mockView, never()).setMessage("message-" + R.string.move_timeout_message);
+    }
+
+    @Test
+    public void testPrefetchRequestsEachMove() {
+        save(0, 0, 0, 0);
+        manager(true).loadGame();
+
+        // The full column is skipped
+        assertEquals(3, mService.mRequests.size());
+        assertNull(mService.find(0, 0, 0, 0, 0));
+        for (int column = 1; column < 4; column++) {
+            assertFalse(mService.find(0, 0, 0, 0, column).mCancelled);
+        }
+    }
+
+    @Test
+    public void testPrefetchSkipsWinningMoves() {
+        save(0, 1, 0, 1, 0, 1);
+        manager(true).loadGame();
+
+        assertNull(mService.find(0, 1, 0, 1, 0, 1, 0));
+        assertEquals(3, mService.mRequests.size());
+    }
+
+    @Test
+    public void testPrefetchHitAnswersMove() {
+        save();
+        final SinglePlayerGameManager manager = manager(true);
+        manager.loadGame();
+        mService.find(1).reply(2);
+        manager.play(new TokenLocation(1));
+
+        assertEquals(Arrays.asList(1, 2), saved().moves());
+        assertEquals(1, mService.count(1));
+        assertFalse(mService.find(1).mCancelled);
+    }
+
+    @Test
+    public void testPrefetchCancelsUnusedMoves() {
+        save();
+        final SinglePlayerGameManager manager = manager(true);
+        manager.loadGame();
+        manager.play(new TokenLocation(1));
+
+        assertTrue(mService.find(0).mCancelled);
+        assertFalse(mService.find(1).mCancelled);
+        assertTrue(mService.find(2).mCancelled);
+        assertTrue(mService.find(3).mCancelled);
+    }
+
+    @Test
+    public void testPrefetchLateArrivalAnswersMove() {
+        save();
+        final SinglePlayerGameManager manager = manager(true);
+        manager.loadGame();
+        manager.play(new TokenLocation(1));
+        assertEquals(Collections.emptyList(), saved().moves());
+
+        mService.find(1).reply(3);
+        assertEquals(Arrays.asList(1, 3), saved().moves());
+        assertEquals(1, mService.count(1));
+    }
+
+    @Test
+    public void testNewGameCancelsPrefetch() {
+        save();
+        final SinglePlayerGameManager manager = manager(true);
+        manager.loadGame();
+        manager.newGame();
+
+        for (int column = 0; column < 4; column++) {
+            assertTrue(mService.find(column).mCancelled);
+        }
+    }
+
+    @Test
+    public void testPrefetchFailureBeforeMoveIsRetried() {
+        save();
+        final SinglePlayerGameManager manager = manager(true);
+        manager.loadGame();
+        mService.find(1).fail(new RuntimeException("Unavailable!"));
+        manager.play(new TokenLocation(1));
+
+        assertEquals(2, mService.count(1));
+        mService.find(1).reply(2);
+        assertEquals(Arrays.asList(1, 2), saved().moves());
+        verify(mockView, never()).setMessage(anyString());
+    }
+
+    @Test
+    public void testPrefetchFailureAfterMoveIsRetried() {
+        save();
+        final SinglePlayerGameManager manager = manager(true);
+        manager.loadGame();
+        manager.play(new TokenLocation(1));
+        mService.find(1).fail(new RuntimeException("Unavailable!"));
+
+        assertEquals(2, mService.count(1));
+        mService.find(1).reply(2);
+        assertEquals(Arrays.asList(1, 2), saved().moves());
+        verify(mockView, never()).setMessage(anyString());
+    }
+
+    @Test
+    public void testPrefetchTimeoutCancelsRequest() {
+        save();
+        final SinglePlayerGameManager manager = manager(true);
+        manager.loadGame();
+        manager.play(new TokenLocation(1));
+
+        final Request request = mService.find(1);
+        ShadowLooper.idleMainLooper(MOVE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertTrue(request.mCancelled);
+        verify(mockView).setMessage("message-" + R.string.move_timeout_message);
+
+        request.reply(2);
+        assertEquals(Collections.emptyList(), saved().moves());
+    }
+
+    private SinglePlayerGameManager manager(final boolean prefetch) {
+        return new SinglePlayerGameManager(mockResources,
+                mService,
+                mStore,
+                mockView,
+                mHandler,
+                MOVE_TIMEOUT_MILLIS,
+                prefetch);
+    }
+
+    /**
+     * Store a game started by the user with the provided moves.
+     */
+    private void save(final Integer... moves) {
+        mStore.put(new GameState(GAME_KEY, Arrays.asList(moves), GameState.PLAYER_1), new Ignored<>());
+    }
+
+    /**
+     * @return the stored game, or null if there is none
+     */
+    private GameState saved() {
+        final GameState[] state = new GameState[1];
+        mStore.get(GAME_KEY, new Ignored<GameState>() {
+            @Override
+            public void onSuccess(final GameState response) {
+                state[0] = response;
+            }
+        });
+        return state[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private void selectPlayer(final int player) {
+        final ArgumentCaptor<ResponseCallback<Integer, Throwable>> captor = ArgumentCaptor.forClass(ResponseCallback.class);
+        verify(mockView).promptPlayerSelection(captor.capture());
+        captor.getValue().onSuccess(player);
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * A {@link GameService} which records each request and replies only when the test says so.
+     */
+    private static class FakeGameService implements GameService {
+
+        private final List<Request> mRequests = new ArrayList<>();
+
+        /**
+         * @return the latest request for the provided moves, or null if there is none
+         */
+        Request find(final Integer... moves) {
+            final List<Integer> expected = Arrays.asList(moves);
+            for (int i = mRequests.size() - 1; i >= 0; i--) {
+                if (mRequests.get(i).mMoves.equals(expected)) {
+                    return mRequests.get(i);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the number of requests for the provided moves
+         */
+        int count(final Integer... moves) {
+            final List<Integer> expected = Arrays.asList(moves);
+            int count = 0;
+            for (final Request request : mRequests) {
+                if (request.mMoves.equals(expected)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+            request(move, callback);
+        }
+
+        @Override
+        public Cancellable request(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+            final Request request = new Request(move.sequence(), callback);
+            mRequests.add(request);
+            return request;
+        }
+    }
+
+    /**
+     * A request made to the {@link FakeGameService}.
+     */
+    private static class Request implements Cancellable {
+
+        private final MoveSequence mMoves;
+        private final ResponseCallback<List<Integer>, Throwable> mCallback;
+        private boolean mCancelled;
+
+        Request(final MoveSequence moves, final ResponseCallback<List<Integer>, Throwable> callback) {
+            mMoves = moves;
+            mCallback = callback;
+        }
+
+        void reply(final int column) {
+            mCallback.onSuccess(mMoves.append(column));
+        }
+
+        void reply(final List<Integer> response) {
+            mCallback.onSuccess(response);
+        }
+
+        void fail(final Throwable reason) {
+            mCallback.onError(reason);
+        }
+
+        @Override
+        public void cancel() {
+            mCancelled = true;
+        }
+    }
+
+    /**
+     * A {@link ResponseCallback} which ignores the outcome.
+     */
+    private static class Ignored<T> implements ResponseCallback<T, Throwable> {
+
+        @Override
+        public void onSuccess(final T response) {
+        }
 
+        @Override
+        public void onError(final Throwable reason) {
+        }
     }
 }
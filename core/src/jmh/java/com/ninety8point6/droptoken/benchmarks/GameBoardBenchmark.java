@@ -0,0 +1,107 @@
+package com.ninety8point6.droptoken.benchmarks;
+
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.TokenLocation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link GameBoard} operations on the per-move path of the app's
+ * {@code SinglePlayerGameManager}, over early, mid and late game positions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBoardBenchmark {
+
+    @Param({ "EARLY", "MID", "LATE" })
+    public Phase mPhase;
+
+    private GameState mState;
+    private GameBoard mBoard;
+    private TokenLocation mLocation;
+    private int mColumn;
+
+    @Setup
+    public void setUp() {
+        mState = mPhase.state();
+        mBoard = new GameBoard(mState);
+        mColumn = mPhase.mNextColumn;
+        mLocation = new TokenLocation(mColumn);
+    }
+
+    @Benchmark
+    public GameBoard construct() {
+        return new GameBoard(mState);
+    }
+
+    @Benchmark
+    public GameBoard.GameOverType isGameOver() {
+        return mBoard.isGameOver(mState.lastPlayer());
+    }
+
+    @Benchmark
+    public boolean isLocationValid() {
+        return mBoard.isLocationValid(mLocation);
+    }
+
+    /**
+     * The copy-and-append of {@code SinglePlayerGameManager.play}: validate the location, then
+     * derive the next state and board.
+     */
+    @Benchmark
+    public GameBoard.GameOverType play() {
+        if (!mBoard.isLocationValid(mLocation)) {
+            return null;
+        }
+        final GameState state = mState.withMove(mColumn);
+        final GameBoard board = mBoard.withMove(mColumn);
+        return board.isGameOver(state.lastPlayer());
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * Positions from the start, the middle and the end of a 4 x 4 game, each with a playable column.
+     */
+    public enum Phase {
+
+        EARLY(new int[] { 1 }, 2),
+        MID(new int[] { 1, 2, 2, 1, 0, 3, 3 }, 0),
+        LATE(new int[] { 1, 2, 2, 1, 0, 3, 3, 0, 1, 2, 0, 3, 3 }, 1);
+
+        private final int[] mMoves;
+        private final int mNextColumn;
+
+        Phase(final int[] moves, final int nextColumn) {
+            mMoves = moves;
+            mNextColumn = nextColumn;
+        }
+
+        GameState state() {
+            GameState state = new GameState("benchmark", GameState.PLAYER_1);
+            for (final int column : mMoves) {
+                state = state.withMove(column);
+            }
+            return state;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ninety8point6.droptoken.benchmarks;
+
+import com.google.gson.Gson;
+import com.ninety8point6.droptoken.concepts.GameState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the Gson round trip of a {@link GameState}, as done by the game store on every
+ * saved move.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateSerializationBenchmark {
+
+    @Param({ "EARLY", "MID", "LATE" })
+    public GameBoardBenchmark.Phase mPhase;
+
+    private final Gson mGson = new Gson();
+
+    private GameState mState;
+    private String mJson;
+
+    @Setup
+    public void setUp() {
+        mState = mPhase.state();
+        mJson = mGson.toJson(mState);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return mGson.toJson(mState);
+    }
+
+    @Benchmark
+    public GameState fromJson() {
+        return mGson.fromJson(mJson, GameState.class);
+    }
+
+    @Benchmark
+    public GameState roundTrip() {
+        return mGson.fromJson(mGson.toJson(mState), GameState.class);
+    }
+}
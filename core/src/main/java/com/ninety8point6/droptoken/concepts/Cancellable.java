@@ -0,0 +1,15 @@
+package com.ninety8point6.droptoken.concepts;
+
+/**
+ * A handle on an outstanding request which the caller no longer needs.
+ */
+public interface Cancellable {
+
+    /**
+     * Abandon the request. Its callback is not invoked once this returns, unless delivery had
+     * already begun; implementations may also stop the work behind it. Cancelling more than once,
+     * or after completion, has no effect.
+     */
+    void cancel();
+
+}
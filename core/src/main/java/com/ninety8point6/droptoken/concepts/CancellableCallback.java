@@ -0,0 +1,55 @@
+package com.ninety8point6.droptoken.concepts;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link ResponseCallback} which forwards to another until it is cancelled, after which the
+ * response or error is dropped.
+ *
+ * @param <T> the response type
+ * @param <U> the error type
+ */
+@ThreadSafe
+public final class CancellableCallback<T, U extends Throwable> implements ResponseCallback<T, U>, Cancellable {
+
+    private final ResponseCallback<T, U> mCallback;
+
+    private volatile boolean mCancelled;
+
+    /**
+     * Builds the {@link CancellableCallback}.
+     *
+     * @param callback the {@link ResponseCallback} to forward to
+     */
+    public CancellableCallback(final ResponseCallback<T, U> callback) {
+        mCallback = Preconditions.checkNotNull(callback);
+    }
+
+    @Override
+    public void onSuccess(final T response) {
+        if (!mCancelled) {
+            mCallback.onSuccess(response);
+        }
+    }
+
+    @Override
+    public void onError(final U reason) {
+        if (!mCancelled) {
+            mCallback.onError(reason);
+        }
+    }
+
+    @Override
+    public void cancel() {
+        mCancelled = true;
+    }
+
+    /**
+     * @return whether {@link #cancel()} has been called
+     */
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+}
@@ -0,0 +1,272 @@
+package com.ninety8point6.droptoken.concepts;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable container for storing the current state of the Game's board, whose dimensions and
+ * win length are described by its {@link GameRules} (a 4 x 4 matrix by default).
+ * <p/>
+ * The board is stored as a pair of bitboards, one per player, where each cell maps to a single bit
+ * (see {@link GameRules}). This allows the win, draw and full column checks to be resolved with a
+ * handful of mask comparisons against the precomputed win lines through the last played cell,
+ * without any allocation.
+ * <p/>
+ * Each board also carries a Zobrist hash of its position, along with the hash of its left-right
+ * mirror image, both maintained incrementally as tokens are dropped. Boards reached through
+ * different move orders share a {@link #hash()}, and mirror images share a {@link #canonicalHash()}.
+ */
+@Immutable
+public final class GameBoard {
+
+    /**
+     * An enumeration to track the possible outcomes of a "game over" check. This allows us to scan
+     * the board's contents once and determine whether the game is over.
+     */
+    public enum GameOverType {
+        NONE,
+        DRAW,
+        WIN
+    }
+
+    private final GameRules mRules;
+    private final long mPlayerOneTokens;
+    private final long mPlayerTwoTokens;
+    private final int mLastCell;
+    private final int mCurrentPlayer;
+    private final long mHash;
+    private final long mMirroredHash;
+
+    /**
+     * Builds a new {@link GameBoard} using the {@link GameRules#DEFAULT} rules.
+     *
+     * @param state the current {@link GameState}
+     */
+    public GameBoard(final GameState state) {
+        this(state, GameRules.DEFAULT);
+    }
+
+    /**
+     * Builds a new {@link GameBoard}.
+     *
+     * @param state the current {@link GameState}
+     * @param rules the {@link GameRules} describing the board
+     */
+    public GameBoard(final GameState state, final GameRules rules) {
+
+        Preconditions.checkArgument(state != null);
+        Preconditions.checkArgument(rules != null);
+
+        long playerOneTokens = 0L;
+        long playerTwoTokens = 0L;
+        int lastCell = -1;
+
+        int currentPlayer = state.initialPlayer();
+        long hash = currentPlayer == GameState.PLAYER_2 ? rules.sideKey() : 0L;
+        long mirroredHash = hash;
+        final MoveSequence moves = state.sequence();
+        for (int i = 0; i < moves.size(); i++) {
+
+            final int col = moves.column(i);
+            final long occupied = playerOneTokens | playerTwoTokens;
+            Preconditions.checkArgument(rules.isColumn(col)
+                    && (occupied & rules.topRowMask() & rules.columnMask(col)) == 0);
+
+            lastCell = rules.cell(Long.bitCount(occupied & rules.columnMask(col)), col);
+            if (currentPlayer == GameState.PLAYER_1) {
+                playerOneTokens |= 1L << lastCell;
+            } else {
+                playerTwoTokens |= 1L << lastCell;
+            }
+
+            hash ^= rules.zobristKey(currentPlayer, lastCell) ^ rules.sideKey();
+            mirroredHash ^= rules.mirroredZobristKey(currentPlayer, lastCell) ^ rules.sideKey();
+            currentPlayer = GameState.nextPlayer(currentPlayer);
+        }
+
+        mRules = rules;
+        mPlayerOneTokens = playerOneTokens;
+        mPlayerTwoTokens = playerTwoTokens;
+        mLastCell = lastCell;
+        mCurrentPlayer = currentPlayer;
+        mHash = hash;
+        mMirroredHash = mirroredHash;
+    }
+
+    /**
+     * Builds a new {@link GameBoard} from precomputed values; used when deriving a board from its
+     * predecessor.
+     */
+    private GameBoard(final GameRules rules,
+                      final long playerOneTokens,
+                      final long playerTwoTokens,
+                      final int lastCell,
+                      final int currentPlayer,
+                      final long hash,
+                      final long mirroredHash) {
+        mRules = rules;
+        mPlayerOneTokens = playerOneTokens;
+        mPlayerTwoTokens = playerTwoTokens;
+        mLastCell = lastCell;
+        mCurrentPlayer = currentPlayer;
+        mHash = hash;
+        mMirroredHash = mirroredHash;
+    }
+
+    /**
+     * Derive the {@link GameBoard} that results from the current player dropping a token in the
+     * provided column. This is constant time, so callers holding a board should prefer it over
+     * rebuilding a board from the next {@link GameState}.
+     *
+     * @param column the column to drop the token
+     *
+     * @return the next {@link GameBoard}
+     */
+    public GameBoard withMove(final int column) {
+
+        Preconditions.checkArgument(isColumnAvailable(column));
+
+        final int cell = mRules.cell(height(column), column);
+        final long hash = mHash ^ mRules.zobristKey(mCurrentPlayer, cell) ^ mRules.sideKey();
+        final long mirroredHash = mMirroredHash ^ mRules.mirroredZobristKey(mCurrentPlayer, cell) ^ mRules.sideKey();
+        return mCurrentPlayer == GameState.PLAYER_1
+                ? new GameBoard(mRules, mPlayerOneTokens | (1L << cell), mPlayerTwoTokens, cell, GameState.PLAYER_2, hash, mirroredHash)
+                : new GameBoard(mRules, mPlayerOneTokens, mPlayerTwoTokens | (1L << cell), cell, GameState.PLAYER_1, hash, mirroredHash);
+    }
+
+    /**
+     * @return the Zobrist hash of this position (token ownership and player to move); independent
+     *         of the order in which the moves were played
+     */
+    public long hash() {
+        return mHash;
+    }
+
+    /**
+     * @return a hash shared by this position and its left-right mirror image, suitable as a key for
+     *         caches and transposition tables which fold symmetric positions together
+     */
+    public long canonicalHash() {
+        return Math.min(mHash, mMirroredHash);
+    }
+
+    /**
+     * @return {@code true} if the {@link #canonicalHash()} was taken from the mirror image of this
+     *         position, in which case columns looked up against it need to be mapped through
+     *         {@link GameRules#mirrorColumn(int)}; otherwise {@code false}
+     */
+    public boolean isMirrored() {
+        return mMirroredHash < mHash;
+    }
+
+    /**
+     * @return the {@link GameRules} describing this board
+     */
+    public GameRules rules() {
+        return mRules;
+    }
+
+    /**
+     * @param player the player
+     *
+     * @return a mask of the cells owned by the provided player
+     */
+    public long tokens(final int player) {
+        return player == GameState.PLAYER_1 ? mPlayerOneTokens : mPlayerTwoTokens;
+    }
+
+    /**
+     * @param column the column index
+     *
+     * @return the number of tokens that have been dropped in the provided column
+     */
+    public int height(final int column) {
+        return Long.bitCount((mPlayerOneTokens | mPlayerTwoTokens) & mRules.columnMask(column));
+    }
+
+    /**
+     * @return the column of the last move, or -1 if no moves have been played
+     */
+    public int lastColumn() {
+        return mLastCell < 0 ? -1 : mLastCell % mRules.columns();
+    }
+
+    /**
+     * @return the row of the last move counted from the bottom of the board, or -1 if no moves have
+     *         been played
+     */
+    public int lastRow() {
+        return mLastCell < 0 ? -1 : mLastCell / mRules.columns();
+    }
+
+    /**
+     * @return the player who will drop the next token
+     */
+    public int currentPlayer() {
+        return mCurrentPlayer;
+    }
+
+    /**
+     * @return the number of tokens on the board
+     */
+    public int moveCount() {
+        return Long.bitCount(mPlayerOneTokens | mPlayerTwoTokens);
+    }
+
+    /**
+     * Determine whether the provided {@link TokenLocation} is a valid move. This checks whether the
+     * column exists and whether it is full.
+     *
+     * @param location the {@link TokenLocation} to check
+     *
+     * @return {@code true} if the location is valid; otherwise {@code false}
+     */
+    public boolean isLocationValid(final TokenLocation location) {
+
+        Preconditions.checkArgument(location != null);
+
+        return isColumnAvailable(location.column());
+    }
+
+    /**
+     * Determine whether the last move constitutes a "game over" scenario. Only the winning lines
+     * which pass through the last played cell are checked, since any other line would have ended
+     * the game on an earlier move.
+     *
+     * @param player the last player to take a turn
+     *
+     * @return a {@link GameOverType} which indicates the outcome of the check
+     */
+    public GameOverType isGameOver(final int player) {
+
+        if (mLastCell < 0) {
+            return GameOverType.NONE;
+        }
+
+        if (mRules.isWin(tokens(player), mLastCell)) {
+            return GameOverType.WIN;
+        }
+
+        /*
+         * If we haven't encountered a winning scenario and the board is full then its has to result
+         * in a draw; otherwise the game is still in play and may continue.
+         */
+
+        if ((mPlayerOneTokens | mPlayerTwoTokens) == mRules.fullMask()) {
+            return GameOverType.DRAW;
+        }
+
+        return GameOverType.NONE;
+    }
+
+    /**
+     * @param col the column index
+     *
+     * @return {@code true} if the column exists and its top cell is empty; otherwise {@code false}
+     */
+    private boolean isColumnAvailable(final int col) {
+        return mRules.isColumn(col)
+                && ((mPlayerOneTokens | mPlayerTwoTokens) & mRules.topRowMask() & mRules.columnMask(col)) == 0;
+    }
+}
@@ -0,0 +1,353 @@
+package com.ninety8point6.droptoken.concepts;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable description of a board configuration: the number of rows and columns and the number
+ * of tokens in a row required to win. The winning lines are precomputed once per instance and
+ * indexed by cell, so instances should be created once and shared.
+ * <p/>
+ * Cells are mapped to bits of a {@code long} as {@code row * columns + column}, with row 0 at the
+ * bottom of the board, which limits a board to 64 cells. Moves are packed into a
+ * {@link MoveSequence}, which limits a board to 16 columns.
+ * <p/>
+ * Each instance also holds a table of Zobrist keys (one random {@code long} per player and cell)
+ * for hashing positions. The keys are derived from a fixed seed, so hashes are stable across
+ * processes and can be persisted.
+ */
+@Immutable
+public final class GameRules {
+
+    /**
+     * The (row, column) steps for each line direction. Declared ahead of the shared instances below
+     * as they are built during static initialization.
+     */
+    private static final int[][] DIRECTIONS = new int[][] {
+            { 0, 1 },   // Rows
+            { 1, 0 },   // Columns
+            { 1, 1 },   // Diagonals
+            { 1, -1 }   // Anti-diagonals
+    };
+
+    /**
+     * The classic 4 x 4 board where a win requires a full row, column or diagonal.
+     */
+    public static final GameRules DEFAULT = new GameRules(4, 4, 4);
+
+    /**
+     * The 6 row x 7 column Connect Four board.
+     */
+    public static final GameRules CONNECT_FOUR = new GameRules(6, 7, 4);
+
+    private static final long ZOBRIST_SEED = 0x44524f50544f4b4eL;
+    private static final long ZOBRIST_INCREMENT = 0x9e3779b97f4a7c15L;
+
+    private final int mRows;
+    private final int mColumns;
+    private final int mWinLength;
+
+    private final long mFullMask;
+    private final long mTopRowMask;
+    private final long[] mColumnMasks;
+    private final long[] mLines;
+    private final long[][] mLinesByCell;
+    private final long[] mNeighborhoods;
+
+    private final long mSideKey;
+    private final long[] mZobristKeys;
+    private final long[] mMirroredZobristKeys;
+
+    /**
+     * Builds the {@link GameRules} and precomputes its winning lines.
+     *
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param winLength the number of tokens in a row required to win
+     */
+    public GameRules(final int rows, final int columns, final int winLength) {
+
+        Preconditions.checkArgument(rows > 0 && columns > 0);
+        Preconditions.checkArgument(rows * columns <= Long.SIZE);
+        Preconditions.checkArgument(columns <= MoveSequence.COLUMN_LIMIT);
+        Preconditions.checkArgument(winLength > 1 && winLength <= Math.max(rows, columns));
+
+        mRows = rows;
+        mColumns = columns;
+        mWinLength = winLength;
+
+        final int cells = rows * columns;
+        mFullMask = cells == Long.SIZE ? -1L : (1L << cells) - 1;
+        mTopRowMask = mFullMask & ~(mFullMask >>> columns);
+
+        mColumnMasks = new long[columns];
+        for (int col = 0; col < columns; col++) {
+            for (int row = 0; row < rows; row++) {
+                mColumnMasks[col] |= 1L << (row * columns + col);
+            }
+        }
+
+        mLines = buildLines(rows, columns, winLength);
+        mLinesByCell = new long[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+
+            int matches = 0;
+            for (final long line : mLines) {
+                if ((line & (1L << cell)) != 0) {
+                    matches++;
+                }
+            }
+
+            mLinesByCell[cell] = new long[matches];
+            for (final long line : mLines) {
+                if ((line & (1L << cell)) != 0) {
+                    mLinesByCell[cell][--matches] = line;
+                }
+            }
+        }
+
+        mNeighborhoods = new long[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            for (final long line : mLinesByCell[cell]) {
+                mNeighborhoods[cell] |= line;
+            }
+        }
+
+        long seed = ZOBRIST_SEED;
+        mSideKey = mix(seed += ZOBRIST_INCREMENT);
+        mZobristKeys = new long[2 * cells];
+        for (int i = 0; i < mZobristKeys.length; i++) {
+            mZobristKeys[i] = mix(seed += ZOBRIST_INCREMENT);
+        }
+
+        mMirroredZobristKeys = new long[2 * cells];
+        for (int player = 0; player < 2; player++) {
+            for (int cell = 0; cell < cells; cell++) {
+                mMirroredZobristKeys[player * cells + cell] = mZobristKeys[player * cells + mirror(cell)];
+            }
+        }
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int rows() {
+        return mRows;
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int columns() {
+        return mColumns;
+    }
+
+    /**
+     * @return the number of tokens in a row required to win
+     */
+    public int winLength() {
+        return mWinLength;
+    }
+
+    /**
+     * @return the number of cells on the board
+     */
+    public int cells() {
+        return mRows * mColumns;
+    }
+
+    /**
+     * @param row the row, counted from the bottom of the board
+     * @param column the column
+     *
+     * @return the cell index (and bit position) of the provided location
+     */
+    public int cell(final int row, final int column) {
+        return row * mColumns + column;
+    }
+
+    /**
+     * @return a mask with every cell of the board set
+     */
+    public long fullMask() {
+        return mFullMask;
+    }
+
+    /**
+     * @return a mask with every cell of the top row set
+     */
+    public long topRowMask() {
+        return mTopRowMask;
+    }
+
+    /**
+     * @param column the column
+     *
+     * @return a mask with every cell of the provided column set
+     */
+    public long columnMask(final int column) {
+        return mColumnMasks[column];
+    }
+
+    /**
+     * @return the number of winning lines on the board
+     */
+    public int lineCount() {
+        return mLines.length;
+    }
+
+    /**
+     * @param index the line index, between 0 and {@link #lineCount()}
+     *
+     * @return the mask of the winning line
+     */
+    public long line(final int index) {
+        return mLines[index];
+    }
+
+    /**
+     * @param cell the cell
+     *
+     * @return the number of winning lines through the cell
+     */
+    public int lineCount(final int cell) {
+        return mLinesByCell[cell].length;
+    }
+
+    /**
+     * @param cell the cell
+     * @param index the line index, between 0 and {@link #lineCount(int)}
+     *
+     * @return the mask of a winning line through the cell
+     */
+    public long line(final int cell, final int index) {
+        return mLinesByCell[cell][index];
+    }
+
+    /**
+     * @param cell the cell
+     *
+     * @return the union of every winning line through the cell: the only cells whose lines can be
+     *         affected by a token dropped there
+     */
+    public long neighborhood(final int cell) {
+        return mNeighborhoods[cell];
+    }
+
+    /**
+     * @param column the column
+     *
+     * @return {@code true} if the column exists on this board; otherwise {@code false}
+     */
+    public boolean isColumn(final int column) {
+        return column >= 0 && column < mColumns;
+    }
+
+    /**
+     * @param column the column
+     *
+     * @return the column which the provided column maps to when the board is mirrored left to right
+     */
+    public int mirrorColumn(final int column) {
+        return mColumns - 1 - column;
+    }
+
+    /**
+     * @param cell the cell
+     *
+     * @return the cell which the provided cell maps to when the board is mirrored left to right
+     */
+    public int mirror(final int cell) {
+        return cell - 2 * (cell % mColumns) + mColumns - 1;
+    }
+
+    /**
+     * @param player the player owning the token
+     * @param cell the cell holding the token
+     *
+     * @return the Zobrist key for a token of the provided player in the provided cell
+     */
+    public long zobristKey(final int player, final int cell) {
+        return mZobristKeys[player * cells() + cell];
+    }
+
+    /**
+     * @param player the player owning the token
+     * @param cell the cell holding the token
+     *
+     * @return the Zobrist key for a token of the provided player in the mirror image of the
+     *         provided cell
+     */
+    public long mirroredZobristKey(final int player, final int cell) {
+        return mMirroredZobristKeys[player * cells() + cell];
+    }
+
+    /**
+     * @return the Zobrist key toggled whenever the player to move changes
+     */
+    public long sideKey() {
+        return mSideKey;
+    }
+
+    /**
+     * Determine whether the provided tokens complete any of the winning lines through a cell. Only
+     * the lines through the cell are checked, which is what makes checking the last move cheap.
+     *
+     * @param tokens the tokens owned by a single player
+     * @param cell the cell to check
+     *
+     * @return {@code true} if a line through the cell is complete; otherwise {@code false}
+     */
+    public boolean isWin(final long tokens, final int cell) {
+        for (final long line : mLinesByCell[cell]) {
+            if ((tokens & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The SplitMix64 finalizer; spreads a sequence of seeds into well distributed keys.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Enumerate every line of {@code winLength} consecutive cells in each of the four directions.
+     *
+     * @return the winning line masks
+     */
+    private static long[] buildLines(final int rows, final int columns, final int winLength) {
+
+        int count = 0;
+        final long[] lines = new long[4 * rows * columns];
+
+        for (final int[] direction : DIRECTIONS) {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < columns; col++) {
+
+                    final int endRow = row + direction[0] * (winLength - 1);
+                    final int endCol = col + direction[1] * (winLength - 1);
+                    if (endRow < 0 || endRow >= rows || endCol < 0 || endCol >= columns) {
+                        continue;
+                    }
+
+                    long line = 0;
+                    for (int i = 0; i < winLength; i++) {
+                        line |= 1L << ((row + direction[0] * i) * columns + col + direction[1] * i);
+                    }
+                    lines[count++] = line;
+                }
+            }
+        }
+
+        final long[] result = new long[count];
+        System.arraycopy(lines, 0, result, 0, count);
+        return result;
+    }
+}
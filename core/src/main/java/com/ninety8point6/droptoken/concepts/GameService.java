@@ -0,0 +1,38 @@
+package com.ninety8point6.droptoken.concepts;
+
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+
+/**
+ * A {@link GameService} interacts with the remote 9dt service to validate moves.
+ */
+public interface GameService {
+
+    /**
+     * Sends a {@link Move} to the 9dt service for validation.
+     *
+     * @param move the {@link Move} to validate
+     * @param callback a {@link ResponseCallback} which will indicate success/failure for the operation
+     */
+    void play(Move move, ResponseCallback<List<Integer>, Throwable> callback);
+
+    /**
+     * Sends a {@link Move} to the 9dt service as {@link #play} does, returning a {@link Cancellable}
+     * for abandoning the request, such as a speculative request whose answer is no longer needed.
+     * By default cancelling only drops the callback; implementations which can stop the work behind
+     * a request override this.
+     *
+     * @param move the {@link Move} to validate
+     * @param callback a {@link ResponseCallback} which will indicate success/failure for the operation
+     *
+     * @return a {@link Cancellable} for the request
+     */
+    default Cancellable request(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+        Preconditions.checkArgument(callback != null);
+        final CancellableCallback<List<Integer>, Throwable> cancellable = new CancellableCallback<>(callback);
+        play(move, cancellable);
+        return cancellable;
+    }
+
+}
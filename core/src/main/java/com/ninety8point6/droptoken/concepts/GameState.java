@@ -1,13 +1,11 @@
 package com.ninety8point6.droptoken.concepts;
 
-import android.text.TextUtils;
-
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -33,7 +31,8 @@ public final class GameState {
     private final String mKey;
 
     @SerializedName("moves")
-    private final List<Integer> mMoves;
+    @JsonAdapter(MoveSequence.GsonAdapter.class)
+    private final MoveSequence mMoves;
 
     @SerializedName("player")
     private int mPlayer;
@@ -46,7 +45,7 @@ public final class GameState {
      * @param player the inital player for this {@link GameState}
      */
     public GameState(final String key, final int player) {
-        this(key, Collections.emptyList(), player);
+        this(key, MoveSequence.EMPTY, player);
     }
 
     /**
@@ -58,14 +57,35 @@ public final class GameState {
      */
     public GameState(final String key, final List<Integer> moves, final int player) {
 
-        Preconditions.checkArgument(!TextUtils.isEmpty(key));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
         Preconditions.checkArgument(VALID_PLAYERS.contains(player));
 
         mKey = key;
-        mMoves = ImmutableList.copyOf(Preconditions.checkNotNull(moves));
+        mMoves = MoveSequence.copyOf(Preconditions.checkNotNull(moves));
         mPlayer = Preconditions.checkNotNull(player);
     }
 
+    /**
+     * Builds the {@link GameState} from an already validated {@link GameState}.
+     */
+    private GameState(final GameState state, final MoveSequence moves) {
+        mKey = state.mKey;
+        mMoves = moves;
+        mPlayer = state.mPlayer;
+    }
+
+    /**
+     * Get a new {@link GameState} with the provided move appended to the current moves. This does
+     * not copy the existing moves.
+     *
+     * @param column the column of the move to append
+     *
+     * @return the new {@link GameState}
+     */
+    public GameState withMove(final int column) {
+        return new GameState(this, mMoves.append(column));
+    }
+
     /**
      * @return an identifier for this {@link GameState}
      */
@@ -80,6 +100,13 @@ public final class GameState {
         return mMoves;
     }
 
+    /**
+     * @return the current moves as a packed {@link MoveSequence}, for access without boxing
+     */
+    public MoveSequence sequence() {
+        return mMoves;
+    }
+
     /**
      * @return the current player based on the list of moves and the initial palter
      */
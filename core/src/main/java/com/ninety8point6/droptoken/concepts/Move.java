@@ -1,7 +1,6 @@
 package com.ninety8point6.droptoken.concepts;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
 
 import java.util.List;
 
@@ -15,15 +14,15 @@ import javax.annotation.concurrent.Immutable;
 @Immutable
 public final class Move {
 
-    private final List<Integer> mMoves;
+    private final MoveSequence mMoves;
 
     /**
      * Builds the {@link Move} with the provided inputs.
      *
-     * @param moves the current {@link List} of moves
+     * @param moves the current {@link List} of moves (not copied if already a {@link MoveSequence})
      */
     public Move(final List<Integer> moves) {
-        mMoves = ImmutableList.copyOf(Preconditions.checkNotNull(moves));
+        mMoves = MoveSequence.copyOf(Preconditions.checkNotNull(moves));
     }
 
     /**
@@ -32,4 +31,11 @@ public final class Move {
     public List<Integer> moves() {
         return mMoves;
     }
+
+    /**
+     * @return the moves as a packed {@link MoveSequence}, for access without boxing
+     */
+    public MoveSequence sequence() {
+        return mMoves;
+    }
 }
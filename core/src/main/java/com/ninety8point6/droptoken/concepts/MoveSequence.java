@@ -0,0 +1,286 @@
+package com.ninety8point6.droptoken.concepts;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable, packed sequence of moves (column indexes). Each move is stored in 4 bits, so the
+ * first 16 moves (an entire 4 x 4 game) live in a single {@code long} and longer games spill into a
+ * small overflow array.
+ * <p/>
+ * This is a read-only {@link List} of columns so that it can be handed to existing callers of
+ * {@link GameState#moves()} and {@link Move#moves()} as-is, while the primitive accessors
+ * ({@link #column(int)}, {@link #append(int)}, {@link #intStream()}) avoid boxing altogether.
+ */
+@Immutable
+public final class MoveSequence extends AbstractList<Integer> implements RandomAccess {
+
+    /**
+     * The number of distinct columns that can be encoded in a single move.
+     */
+    public static final int COLUMN_LIMIT = 16;
+
+    private static final int BITS_PER_MOVE = 4;
+    private static final int MOVES_PER_WORD = Long.SIZE / BITS_PER_MOVE;
+    private static final long MOVE_MASK = COLUMN_LIMIT - 1;
+
+    private static final long[] NO_OVERFLOW = new long[0];
+
+    public static final MoveSequence EMPTY = new MoveSequence(0L, null, 0);
+
+    /**
+     * The first {@link #MOVES_PER_WORD} moves, with move {@code i} in bits {@code [4i, 4i + 4)}.
+     */
+    private final long mHead;
+
+    /**
+     * Any subsequent moves, packed in the same way as {@link #mHead}; never mutated once published.
+     */
+    private final long[] mOverflow;
+
+    private final int mSize;
+
+    /**
+     * Builds the {@link MoveSequence} from its packed representation.
+     */
+    private MoveSequence(final long head, final long[] overflow, final int size) {
+        mHead = head;
+        mOverflow = overflow == null ? NO_OVERFLOW : overflow;
+        mSize = size;
+    }
+
+    /**
+     * Get a {@link MoveSequence} with the provided moves.
+     *
+     * @param moves the {@link List} of moves; returned as-is if it is already a {@link MoveSequence}
+     *
+     * @return the {@link MoveSequence}
+     */
+    public static MoveSequence copyOf(final List<Integer> moves) {
+
+        Preconditions.checkNotNull(moves);
+
+        if (moves instanceof MoveSequence) {
+            return (MoveSequence) moves;
+        }
+
+        final Builder builder = new Builder();
+        for (int i = 0; i < moves.size(); i++) {
+            builder.add(moves.get(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get a {@link MoveSequence} with the provided moves.
+     *
+     * @param moves the moves
+     *
+     * @return the {@link MoveSequence}
+     */
+    public static MoveSequence of(final int... moves) {
+        final Builder builder = new Builder();
+        for (final int move : moves) {
+            builder.add(move);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get a new {@link MoveSequence} with the provided move appended. This is constant time for the
+     * first 16 moves, and only copies the small overflow array after that.
+     *
+     * @param column the column of the move to append
+     *
+     * @return the extended {@link MoveSequence}
+     */
+    public MoveSequence append(final int column) {
+
+        checkColumn(column);
+
+        if (mSize < MOVES_PER_WORD) {
+            return new MoveSequence(mHead | ((long) column << (mSize * BITS_PER_MOVE)), null, mSize + 1);
+        }
+
+        final int word = mSize / MOVES_PER_WORD - 1;
+        final long[] overflow = Arrays.copyOf(mOverflow, word + 1);
+        overflow[word] |= (long) column << ((mSize % MOVES_PER_WORD) * BITS_PER_MOVE);
+        return new MoveSequence(mHead, overflow, mSize + 1);
+    }
+
+    /**
+     * @param index the index of the move
+     *
+     * @return the column of the move at the provided index, without boxing
+     */
+    public int column(final int index) {
+        Preconditions.checkElementIndex(index, mSize);
+        final long word = index < MOVES_PER_WORD ? mHead : mOverflow[index / MOVES_PER_WORD - 1];
+        return (int) ((word >>> ((index % MOVES_PER_WORD) * BITS_PER_MOVE)) & MOVE_MASK);
+    }
+
+    /**
+     * @return the column of the last move
+     */
+    public int last() {
+        return column(mSize - 1);
+    }
+
+    /**
+     * @return an {@link IntStream} over the columns of this sequence
+     */
+    public IntStream intStream() {
+        return IntStream.range(0, mSize).map(this::column);
+    }
+
+    @Override
+    public Integer get(final int index) {
+        return column(index);
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Computed as specified by {@link List#hashCode()}, but without boxing.
+     * <p/>
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < mSize; i++) {
+            hash = 31 * hash + column(i);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+
+        if (other instanceof MoveSequence) {
+            final MoveSequence sequence = (MoveSequence) other;
+            return mSize == sequence.mSize
+                    && mHead == sequence.mHead
+                    && Arrays.equals(mOverflow, sequence.mOverflow);
+        }
+
+        return super.equals(other);
+    }
+
+    /**
+     * @param column the column to validate
+     */
+    private static void checkColumn(final int column) {
+        Preconditions.checkArgument(column >= 0 && column < COLUMN_LIMIT);
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * A mutable builder for assembling a {@link MoveSequence} one move at a time without creating
+     * intermediate instances.
+     */
+    public static final class Builder {
+
+        private long mHead;
+        private long[] mOverflow = NO_OVERFLOW;
+        private int mSize;
+
+        /**
+         * Append a move to the sequence being built.
+         *
+         * @param column the column of the move
+         *
+         * @return this {@link Builder}
+         */
+        public Builder add(final int column) {
+
+            checkColumn(column);
+
+            if (mSize < MOVES_PER_WORD) {
+                mHead |= (long) column << (mSize * BITS_PER_MOVE);
+            } else {
+                final int word = mSize / MOVES_PER_WORD - 1;
+                if (word == mOverflow.length) {
+                    mOverflow = Arrays.copyOf(mOverflow, Math.max(1, mOverflow.length * 2));
+                }
+                mOverflow[word] |= (long) column << ((mSize % MOVES_PER_WORD) * BITS_PER_MOVE);
+            }
+
+            mSize++;
+            return this;
+        }
+
+        /**
+         * @return the {@link MoveSequence} containing every move added so far
+         */
+        public MoveSequence build() {
+
+            if (mSize == 0) {
+                return EMPTY;
+            }
+
+            final int words = (mSize - 1) / MOVES_PER_WORD;
+            return new MoveSequence(mHead,
+                    words == 0 ? null : Arrays.copyOf(mOverflow, words),
+                    mSize);
+        }
+    }
+
+    /**
+     * A Gson {@link TypeAdapter} which reads and writes a {@link MoveSequence} as a plain JSON
+     * array of columns, matching the format used by the 9dt service and by previously saved
+     * {@link GameState}s.
+     */
+    public static final class GsonAdapter extends TypeAdapter<MoveSequence> {
+
+        @Override
+        public void write(final JsonWriter out, final MoveSequence sequence) throws IOException {
+
+            if (sequence == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginArray();
+            for (int i = 0; i < sequence.size(); i++) {
+                out.value(sequence.column(i));
+            }
+            out.endArray();
+        }
+
+        @Override
+        public MoveSequence read(final JsonReader in) throws IOException {
+
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            final Builder builder = new Builder();
+            in.beginArray();
+            while (in.hasNext()) {
+                builder.add(in.nextInt());
+            }
+            in.endArray();
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.ninety8point6.droptoken.concepts;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable analysis overlay for a {@link GameBoard}: the winning lines each player can still
+ * complete, and the empty cells which would complete one of them ("threats").
+ * <p/>
+ * Like the board itself, each move derives the next instance in constant time via
+ * {@link #withMove(int)}. A dropped token can only create or remove threats on the lines through its
+ * cell, so only the empty cells of {@link GameRules#neighborhood(int)} are re-examined, and only the
+ * lines through the cell are counted when they close.
+ * <p/>
+ * Three kinds of threat are reported, each as a mask of cells:
+ * <ul>
+ *     <li>{@link #threats(int)}: every empty cell which would complete a line, playable or not</li>
+ *     <li>{@link #immediateThreats(int)}: the threats which can be played on the next move</li>
+ *     <li>{@link #doubleThreats(int)}: the playable cells which would leave two or more immediate
+ *     threats, of which the opponent can only block one</li>
+ * </ul>
+ */
+@Immutable
+public final class ThreatMap {
+
+    private final GameBoard mBoard;
+    private final long mPlayerOneThreats;
+    private final long mPlayerTwoThreats;
+    private final int mPlayerOneOpenLines;
+    private final int mPlayerTwoOpenLines;
+
+    /**
+     * Builds the {@link ThreatMap} for a board by examining every line and empty cell once.
+     *
+     * @param board the {@link GameBoard}
+     */
+    public ThreatMap(final GameBoard board) {
+
+        mBoard = Preconditions.checkNotNull(board);
+
+        final GameRules rules = board.rules();
+        final long one = board.tokens(GameState.PLAYER_1);
+        final long two = board.tokens(GameState.PLAYER_2);
+
+        int oneOpen = 0;
+        int twoOpen = 0;
+        for (int i = 0; i < rules.lineCount(); i++) {
+            final long line = rules.line(i);
+            if ((line & two) == 0) {
+                oneOpen++;
+            }
+            if ((line & one) == 0) {
+                twoOpen++;
+            }
+        }
+
+        mPlayerOneThreats = threats(rules, one, ~(one | two) & rules.fullMask());
+        mPlayerTwoThreats = threats(rules, two, ~(one | two) & rules.fullMask());
+        mPlayerOneOpenLines = oneOpen;
+        mPlayerTwoOpenLines = twoOpen;
+    }
+
+    private ThreatMap(final GameBoard board,
+                      final long playerOneThreats,
+                      final long playerTwoThreats,
+                      final int playerOneOpenLines,
+                      final int playerTwoOpenLines) {
+        mBoard = board;
+        mPlayerOneThreats = playerOneThreats;
+        mPlayerTwoThreats = playerTwoThreats;
+        mPlayerOneOpenLines = playerOneOpenLines;
+        mPlayerTwoOpenLines = playerTwoOpenLines;
+    }
+
+    /**
+     * Derive the map after the current player drops a token in the provided column.
+     *
+     * @param column the column to drop a token in
+     *
+     * @return the {@link ThreatMap} after the move
+     *
+     * @throws IllegalArgumentException if the column does not exist or is full
+     */
+    public ThreatMap withMove(final int column) {
+
+        final GameBoard next = mBoard.withMove(column);
+        final GameRules rules = mBoard.rules();
+        final int player = mBoard.currentPlayer();
+        final int cell = rules.cell(mBoard.height(column), column);
+        final long mine = mBoard.tokens(player);
+
+        // The lines through the cell without any of our tokens were open for the opponent
+        int closed = 0;
+        for (int i = 0; i < rules.lineCount(cell); i++) {
+            if ((rules.line(cell, i) & mine) == 0) {
+                closed++;
+            }
+        }
+
+        final long one = next.tokens(GameState.PLAYER_1);
+        final long two = next.tokens(GameState.PLAYER_2);
+        final long affected = rules.neighborhood(cell) & ~(one | two);
+        final long keep = ~(affected | (1L << cell));
+
+        return new ThreatMap(next,
+                (mPlayerOneThreats & keep) | threats(rules, one, affected),
+                (mPlayerTwoThreats & keep) | threats(rules, two, affected),
+                player == GameState.PLAYER_2 ? mPlayerOneOpenLines - closed : mPlayerOneOpenLines,
+                player == GameState.PLAYER_1 ? mPlayerTwoOpenLines - closed : mPlayerTwoOpenLines);
+    }
+
+    /**
+     * @return the {@link GameBoard} this map describes
+     */
+    public GameBoard board() {
+        return mBoard;
+    }
+
+    /**
+     * @param player the player
+     *
+     * @return the number of winning lines without any of the opponent's tokens
+     */
+    public int openLines(final int player) {
+        return player == GameState.PLAYER_1 ? mPlayerOneOpenLines : mPlayerTwoOpenLines;
+    }
+
+    /**
+     * @param player the player
+     *
+     * @return the mask of empty cells which would complete a line for the player
+     */
+    public long threats(final int player) {
+        return player == GameState.PLAYER_1 ? mPlayerOneThreats : mPlayerTwoThreats;
+    }
+
+    /**
+     * @param player the player
+     *
+     * @return the mask of threats which can be played on the next move; at most one per column
+     */
+    public long immediateThreats(final int player) {
+        return threats(player) & playable();
+    }
+
+    /**
+     * @param player the player
+     *
+     * @return the mask of playable cells, not themselves threats, which would leave the player two
+     *         or more immediate threats
+     */
+    public long doubleThreats(final int player) {
+
+        final GameRules rules = mBoard.rules();
+        final long tokens = mBoard.tokens(player);
+        final long occupied = mBoard.tokens(GameState.PLAYER_1) | mBoard.tokens(GameState.PLAYER_2);
+        final long playable = playable();
+        final long threats = threats(player);
+
+        long result = 0;
+        for (long candidates = playable & ~threats; candidates != 0; candidates &= candidates - 1) {
+
+            final long bit = candidates & -candidates;
+            final int cell = Long.numberOfTrailingZeros(bit);
+            final long above = cell + rules.columns() < rules.cells() ? bit << rules.columns() : 0;
+
+            final long affected = rules.neighborhood(cell) & ~(occupied | bit);
+            final long after = (threats & ~affected) | threats(rules, tokens | bit, affected);
+            if (Long.bitCount(after & ((playable & ~bit) | above)) >= 2) {
+                result |= bit;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the mask of the cells the next token in each column would land in
+     */
+    public long playable() {
+        final GameRules rules = mBoard.rules();
+        long playable = 0;
+        for (int column = 0; column < rules.columns(); column++) {
+            final int height = mBoard.height(column);
+            if (height < rules.rows()) {
+                playable |= 1L << rules.cell(height, column);
+            }
+        }
+        return playable;
+    }
+
+    /**
+     * @return the subset of the candidate cells which would complete a line for the tokens
+     */
+    private static long threats(final GameRules rules, final long tokens, final long candidates) {
+        long threats = 0;
+        for (long remaining = candidates; remaining != 0; remaining &= remaining - 1) {
+            final int cell = Long.numberOfTrailingZeros(remaining);
+            if (rules.isWin(tokens | (1L << cell), cell)) {
+                threats |= 1L << cell;
+            }
+        }
+        return threats;
+    }
+}
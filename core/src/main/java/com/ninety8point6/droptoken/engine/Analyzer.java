@@ -0,0 +1,138 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.ThreatMap;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Answers "win in N" and "forced loss" questions for the player to move, for hints and analysis
+ * overlays that refresh on every move.
+ * <p/>
+ * The {@link ThreatMap} settles the common cases without searching: an immediate threat is a win in
+ * one, and two immediate threats for the opponent (with none of our own) are a loss in one.
+ * Anything else is searched by a {@link NegamaxSearch} limited to the requested horizon, sharing one
+ * {@link TranspositionTable} across calls so that refreshing after each move reuses earlier work.
+ */
+@NotThreadSafe
+public final class Analyzer {
+
+    /**
+     * The default transposition table size: 2^16 entries (1MB).
+     */
+    private static final int DEFAULT_TABLE_SIZE = 16;
+
+    private final GameRules mRules;
+    private final TranspositionTable mTable;
+
+    /**
+     * Builds an {@link Analyzer}.
+     *
+     * @param rules the {@link GameRules} of the games being analyzed
+     */
+    public Analyzer(final GameRules rules) {
+        mRules = Preconditions.checkNotNull(rules);
+        mTable = new TranspositionTable(DEFAULT_TABLE_SIZE);
+    }
+
+    /**
+     * Look for a forced win or loss for the player to move within the provided number of moves
+     * each.
+     *
+     * @param threats the {@link ThreatMap} of the position; the game must not be over
+     * @param moves the horizon, in moves per player
+     *
+     * @return the {@link Hint}
+     */
+    public Hint analyze(final ThreatMap threats, final int moves) {
+
+        Preconditions.checkArgument(moves > 0);
+        Preconditions.checkArgument(threats.board().rules() == mRules);
+
+        final int player = threats.board().currentPlayer();
+
+        final long wins = threats.immediateThreats(player);
+        if (wins != 0) {
+            return new Hint(Hint.WIN, 1, Long.numberOfTrailingZeros(wins) % mRules.columns());
+        }
+
+        final long losses = threats.immediateThreats(player ^ 1);
+        if (Long.bitCount(losses) >= 2) {
+            return new Hint(Hint.LOSS, 1, Long.numberOfTrailingZeros(losses) % mRules.columns());
+        }
+
+        final Position position = new Position(threats.board());
+        final long entry = new NegamaxSearch(mRules, mTable)
+                .searchRoot(position, 2 * moves, -NegamaxSearch.INFINITY, NegamaxSearch.INFINITY);
+
+        final int score = TranspositionTable.score(entry);
+        final int column = TranspositionTable.move(entry);
+        final int plies = NegamaxSearch.MATE - Math.abs(score) - position.moveCount();
+
+        if (score > NegamaxSearch.MATE_THRESHOLD && (plies + 1) / 2 <= moves) {
+            return new Hint(Hint.WIN, (plies + 1) / 2, column);
+        }
+        if (score < -NegamaxSearch.MATE_THRESHOLD && plies / 2 <= moves) {
+            return new Hint(Hint.LOSS, plies / 2, column);
+        }
+        return new Hint(Hint.UNKNOWN, 0, column);
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * The outcome of an analysis for the player to move.
+     */
+    public static final class Hint {
+
+        /**
+         * No forced result within the horizon.
+         */
+        public static final int UNKNOWN = 0;
+
+        /**
+         * The player to move can force a win.
+         */
+        public static final int WIN = 1;
+
+        /**
+         * The opponent can force a win whatever the player to move does.
+         */
+        public static final int LOSS = 2;
+
+        private final int mOutcome;
+        private final int mMoves;
+        private final int mColumn;
+
+        Hint(final int outcome, final int moves, final int column) {
+            mOutcome = outcome;
+            mMoves = moves;
+            mColumn = column;
+        }
+
+        /**
+         * @return one of {@link #UNKNOWN}, {@link #WIN} or {@link #LOSS}
+         */
+        public int outcome() {
+            return mOutcome;
+        }
+
+        /**
+         * @return the number of moves the winner needs, including the winning move, or zero if the
+         *         outcome is {@link #UNKNOWN}
+         */
+        public int moves() {
+            return mMoves;
+        }
+
+        /**
+         * @return the suggested column: the quickest win, the slowest loss or the best found
+         */
+        public int column() {
+            return mColumn;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Evaluates {@link GameBoard#isGameOver(int)} for large numbers of games at once.
+ * <p/>
+ * Games are replayed into bitboards 64 at a time and then transposed into bit-sliced lanes: one
+ * {@code long} per cell and player, where bit {@code b} is set if game {@code b} of the block has a
+ * token there. A line is then won in every game of the block whose bit survives AND-ing the lanes
+ * of its cells, and a board is full in every game whose bit survives AND-ing the occupied lanes of
+ * every cell, so each block costs one pass of bitwise operations over the lines rather than one
+ * {@link GameBoard} per game.
+ * <p/>
+ * Large inputs are split across a {@link ForkJoinPool}; every game is written to its own slot of a
+ * primitive results array, and scratch space is allocated per task rather than per game.
+ * <p/>
+ * Results match {@link GameBoard#isGameOver(int)} for any game that ends at its first win, which
+ * includes every game played through a {@link com.ninety8point6.droptoken.concepts.GameManager}.
+ * Moves played after a win still count that win, wherever it is on the board.
+ */
+@ThreadSafe
+public final class BatchEvaluator {
+
+    /**
+     * The game is not over; see {@link GameBoard.GameOverType#NONE}.
+     */
+    public static final byte NONE = 0;
+
+    /**
+     * The board is full without a win; see {@link GameBoard.GameOverType#DRAW}.
+     */
+    public static final byte DRAW = 1;
+
+    /**
+     * The player has a line; see {@link GameBoard.GameOverType#WIN}.
+     */
+    public static final byte WIN = 2;
+
+    /**
+     * The moves could not be replayed, where {@link GameBoard} would throw.
+     */
+    public static final byte INVALID = -1;
+
+    /**
+     * The number of games evaluated together.
+     */
+    static final int BLOCK = Long.SIZE;
+
+    /**
+     * The number of blocks below which a task is not split further.
+     */
+    private static final int BLOCKS_PER_TASK = 64;
+
+    private final GameRules mRules;
+    private final ForkJoinPool mPool;
+    private final int[][] mLineCells;
+
+    /**
+     * Builds a {@link BatchEvaluator}.
+     *
+     * @param rules the {@link GameRules} of the games being evaluated
+     * @param pool the {@link ForkJoinPool} to evaluate large inputs in
+     */
+    public BatchEvaluator(final GameRules rules, final ForkJoinPool pool) {
+
+        mRules = Preconditions.checkNotNull(rules);
+        mPool = Preconditions.checkNotNull(pool);
+
+        mLineCells = new int[rules.lineCount()][];
+        for (int i = 0; i < mLineCells.length; i++) {
+            long line = rules.line(i);
+            mLineCells[i] = new int[Long.bitCount(line)];
+            for (int j = 0; line != 0; j++, line &= line - 1) {
+                mLineCells[i][j] = Long.numberOfTrailingZeros(line);
+            }
+        }
+    }
+
+    /**
+     * Evaluate every game for the provided player.
+     *
+     * @param states the games to evaluate
+     * @param player the player to evaluate each game for
+     * @param results receives the result of each game at the same index: one of {@link #NONE},
+     *                {@link #DRAW}, {@link #WIN} or {@link #INVALID}
+     */
+    public void evaluate(final List<GameState> states, final int player, final byte[] results) {
+
+        Preconditions.checkNotNull(states);
+        Preconditions.checkArgument(player == GameState.PLAYER_1 || player == GameState.PLAYER_2);
+        Preconditions.checkArgument(results.length >= states.size());
+
+        final int blocks = (states.size() + BLOCK - 1) / BLOCK;
+        if (blocks <= BLOCKS_PER_TASK) {
+            new Evaluation(states, player, results, 0, blocks).compute();
+        } else {
+            mPool.invoke(new Evaluation(states, player, results, 0, blocks));
+        }
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * Evaluates a range of blocks, splitting it in half until it is small enough.
+     */
+    private final class Evaluation extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<GameState> mStates;
+        private final int mPlayer;
+        private final byte[] mResults;
+        private final int mFromBlock;
+        private final int mToBlock;
+
+        Evaluation(final List<GameState> states,
+                   final int player,
+                   final byte[] results,
+                   final int fromBlock,
+                   final int toBlock) {
+            mStates = states;
+            mPlayer = player;
+            mResults = results;
+            mFromBlock = fromBlock;
+            mToBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (mToBlock - mFromBlock > BLOCKS_PER_TASK) {
+                final int middle = (mFromBlock + mToBlock) >>> 1;
+                invokeAll(new Evaluation(mStates, mPlayer, mResults, mFromBlock, middle),
+                        new Evaluation(mStates, mPlayer, mResults, middle, mToBlock));
+                return;
+            }
+
+            final int[] heights = new int[mRules.columns()];
+            final long[] mine = new long[mRules.cells()];
+            final long[] theirs = new long[mRules.cells()];
+
+            for (int block = mFromBlock; block < mToBlock; block++) {
+                evaluateBlock(block * BLOCK, heights, mine, theirs);
+            }
+        }
+
+        /**
+         * Replay up to 64 games into the lanes and write their results.
+         */
+        private void evaluateBlock(final int from, final int[] heights, final long[] mine, final long[] theirs) {
+
+            final int count = Math.min(BLOCK, mStates.size() - from);
+
+            for (int cell = 0; cell < mine.length; cell++) {
+                mine[cell] = 0;
+                theirs[cell] = 0;
+            }
+
+            long invalid = 0;
+            for (int b = 0; b < count; b++) {
+                if (!replay(mStates.get(from + b), 1L << b, heights, mine, theirs)) {
+                    invalid |= 1L << b;
+                }
+            }
+
+            long won = 0;
+            for (final int[] cells : mLineCells) {
+                long lane = -1L;
+                for (final int cell : cells) {
+                    lane &= mine[cell];
+                }
+                won |= lane;
+            }
+
+            long full = -1L;
+            for (int cell = 0; cell < mine.length; cell++) {
+                full &= mine[cell] | theirs[cell];
+            }
+
+            for (int b = 0; b < count; b++) {
+                final long bit = 1L << b;
+                mResults[from + b] = (invalid & bit) != 0
+                        ? INVALID
+                        : (won & bit) != 0 ? WIN : (full & bit) != 0 ? DRAW : NONE;
+            }
+        }
+
+        /**
+         * Replay a game into the lanes, setting the provided bit for each token.
+         *
+         * @return {@code true} if every move could be played; otherwise {@code false}
+         */
+        private boolean replay(final GameState state,
+                               final long bit,
+                               final int[] heights,
+                               final long[] mine,
+                               final long[] theirs) {
+
+            for (int column = 0; column < heights.length; column++) {
+                heights[column] = 0;
+            }
+
+            final MoveSequence moves = state.sequence();
+            int player = state.initialPlayer();
+            for (int i = 0; i < moves.size(); i++) {
+
+                final int column = moves.column(i);
+                if (!mRules.isColumn(column) || heights[column] == mRules.rows()) {
+                    return false;
+                }
+
+                final int cell = mRules.cell(heights[column]++, column);
+                if (player == mPlayer) {
+                    mine[cell] |= bit;
+                } else {
+                    theirs[cell] |= bit;
+                }
+                player ^= 1;
+            }
+
+            return true;
+        }
+    }
+}
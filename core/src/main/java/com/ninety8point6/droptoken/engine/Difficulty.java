@@ -0,0 +1,42 @@
+package com.ninety8point6.droptoken.engine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The strength of the local opponent, expressed as a {@link SearchLimits} budget per move.
+ */
+public enum Difficulty {
+
+    /**
+     * Looks two plies ahead: takes a win and blocks an immediate loss, but little else.
+     */
+    EASY(SearchLimits.depth(2)),
+
+    /**
+     * A shallow search with a small node budget.
+     */
+    MEDIUM(SearchLimits.depth(6).withNodes(20_000)),
+
+    /**
+     * A quarter of a second per move.
+     */
+    HARD(SearchLimits.time(250, TimeUnit.MILLISECONDS)),
+
+    /**
+     * A full second per move.
+     */
+    EXPERT(SearchLimits.time(1, TimeUnit.SECONDS));
+
+    private final SearchLimits mLimits;
+
+    Difficulty(final SearchLimits limits) {
+        mLimits = limits;
+    }
+
+    /**
+     * @return the {@link SearchLimits} for each move
+     */
+    public SearchLimits limits() {
+        return mLimits;
+    }
+}
@@ -0,0 +1,183 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ninety8point6.droptoken.concepts.GameRules;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A parallel "Lazy SMP" search: several {@link NegamaxSearch} workers search the same position at
+ * the same time and communicate only through a shared, lock-free {@link TranspositionTable}.
+ * <p/>
+ * The calling thread runs an iterative deepening search and its result is the one returned. Each
+ * helper runs its own iterative deepening on a private copy of the position, with odd helpers one
+ * ply ahead of even ones, so the helpers fill the table with entries the main search will soon
+ * need. Only the main search is bounded by the {@link SearchLimits}; once it completes the helpers
+ * are stopped and awaited, so no search is left running between calls.
+ * <p/>
+ * Instances run one search at a time and are not thread-safe.
+ */
+@NotThreadSafe
+public final class LazySmpSearch {
+
+    private final GameRules mRules;
+    private final TranspositionTable mTable;
+    private final Executor mHelpers;
+    private final int mThreads;
+
+    private long mNodes;
+
+    /**
+     * Builds a {@link LazySmpSearch}.
+     *
+     * @param rules the {@link GameRules} of the positions to be searched
+     * @param table the shared {@link TranspositionTable}
+     * @param helpers an {@link Executor} able to run {@code threads - 1} helpers concurrently
+     * @param threads the total number of search threads, including the calling thread
+     */
+    public LazySmpSearch(final GameRules rules,
+                         final TranspositionTable table,
+                         final Executor helpers,
+                         final int threads) {
+        Preconditions.checkArgument(threads > 0);
+        mRules = Preconditions.checkNotNull(rules);
+        mTable = Preconditions.checkNotNull(table);
+        mHelpers = Preconditions.checkNotNull(helpers);
+        mThreads = threads;
+    }
+
+    /**
+     * @return the total number of search threads, including the calling thread
+     */
+    public int threads() {
+        return mThreads;
+    }
+
+    /**
+     * @return the number of positions visited by every thread during the last search
+     */
+    public long nodes() {
+        return mNodes;
+    }
+
+    /**
+     * Find the best column for the player to move. The position must have at least one playable
+     * column and must not already be won.
+     *
+     * @param position the {@link Position} to search; restored before returning
+     * @param depth the maximum number of plies to search
+     *
+     * @return the best column
+     */
+    public int bestMove(final Position position, final int depth) {
+        return search(position, SearchLimits.depth(depth)).column();
+    }
+
+    /**
+     * Search for the best column for the player to move within the provided limits. The position
+     * must have at least one playable column and must not already be won.
+     * <p/>
+     * The first ply is always searched in full, so a best move is available however small the
+     * budget; after that the result of the deepest completed iteration is returned.
+     *
+     * @param position the {@link Position} to search; restored before returning
+     * @param limits the {@link SearchLimits} of the search
+     *
+     * @return the {@link SearchResult}
+     */
+    public SearchResult search(final Position position, final SearchLimits limits) {
+
+        Preconditions.checkArgument(position.rules() == mRules);
+        Preconditions.checkNotNull(limits);
+
+        final long start = System.nanoTime();
+        final int limit = Math.min(limits.depth(), mRules.cells() - position.moveCount());
+        final NegamaxSearch[] searches = new NegamaxSearch[mThreads];
+        for (int i = 0; i < mThreads; i++) {
+            searches[i] = new NegamaxSearch(mRules, mTable);
+        }
+
+        final CountDownLatch done = new CountDownLatch(mThreads - 1);
+        for (int i = 1; i < mThreads; i++) {
+            final NegamaxSearch helper = searches[i];
+            final Position copy = position.copy();
+            final int offset = i & 1;
+            try {
+                mHelpers.execute(() -> {
+                    try {
+                        deepen(helper, copy, 1 + offset, limit + offset, null, start);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            } catch (final RejectedExecutionException ex) {
+                // Search with the threads we have
+                done.countDown();
+            }
+        }
+
+        final long entry;
+        try {
+            entry = deepen(searches[0], position, 1, limit, limits, start);
+        } finally {
+            for (final NegamaxSearch search : searches) {
+                search.stop();
+            }
+            Uninterruptibles.awaitUninterruptibly(done);
+        }
+
+        long nodes = 0;
+        for (final NegamaxSearch search : searches) {
+            nodes += search.nodes();
+        }
+        mNodes = nodes;
+
+        return new SearchResult(TranspositionTable.move(entry),
+                TranspositionTable.score(entry),
+                TranspositionTable.depth(entry),
+                nodes,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Iteratively deepen a search until it reaches the last depth, is stopped or resolves the
+     * position.
+     *
+     * @param limits the {@link SearchLimits} applied once the first depth completes, or
+     *               {@code null} if the search is only stopped externally
+     * @param start the {@link System#nanoTime()} at which the search started
+     *
+     * @return the packed result of the last completed iteration, or {@link TranspositionTable#MISS}
+     */
+    private static long deepen(final NegamaxSearch search,
+                               final Position position,
+                               final int first,
+                               final int last,
+                               final SearchLimits limits,
+                               final long start) {
+
+        long result = TranspositionTable.MISS;
+        for (int depth = first; depth <= last && !search.isStopped(); depth++) {
+
+            final long entry = search.searchRoot(position, depth, -NegamaxSearch.INFINITY, NegamaxSearch.INFINITY);
+            if (entry == TranspositionTable.MISS) {
+                break;
+            }
+
+            result = entry;
+            if (Math.abs(TranspositionTable.score(entry)) > NegamaxSearch.MATE_THRESHOLD) {
+                break;
+            }
+
+            if (limits != null && depth == first) {
+                search.limit(limits, start);
+            }
+        }
+        return result;
+    }
+}
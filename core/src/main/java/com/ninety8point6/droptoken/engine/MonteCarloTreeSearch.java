@@ -0,0 +1,356 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameRules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A Monte Carlo Tree Search (UCT) for boards too large to search exhaustively.
+ * <p/>
+ * The search is root parallel: each worker grows its own tree from a private copy of the root
+ * {@link Position} in a {@link ForkJoinPool}, and the root visit counts of every tree are summed to
+ * choose the move. Workers share nothing while searching. Random playouts use
+ * {@link Position#play(int)} / {@link Position#undo()} and a per-worker {@link SplittableRandom},
+ * so the playout loop does not allocate; only expanding a tree node does.
+ */
+@ThreadSafe
+public final class MonteCarloTreeSearch {
+
+    /**
+     * The UCT exploration constant, sqrt(2), scaled to rewards counted in half points.
+     */
+    private static final double EXPLORATION = 2 * Math.sqrt(2);
+
+    /**
+     * Rewards are counted in half points so that draws stay integral.
+     */
+    private static final int WIN = 2;
+    private static final int DRAW = 1;
+    private static final int LOSS = 0;
+
+    private final ForkJoinPool mPool;
+    private final int mWorkers;
+    private final long mSeed;
+
+    /**
+     * Builds a {@link MonteCarloTreeSearch} with one worker per core of the common pool.
+     */
+    public MonteCarloTreeSearch() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), System.nanoTime());
+    }
+
+    /**
+     * Builds a {@link MonteCarloTreeSearch}.
+     *
+     * @param pool the {@link ForkJoinPool} to run the workers in
+     * @param workers the number of independent trees to grow
+     * @param seed the seed for the playout random number generators
+     */
+    public MonteCarloTreeSearch(final ForkJoinPool pool, final int workers, final long seed) {
+        Preconditions.checkArgument(workers > 0);
+        mPool = Preconditions.checkNotNull(pool);
+        mWorkers = workers;
+        mSeed = seed;
+    }
+
+    /**
+     * Search for the best column for the player to move. The position must have at least one
+     * playable column and must not already be won.
+     *
+     * @param position the {@link Position} to search; not modified
+     * @param playouts the total number of playouts, split between the workers
+     *
+     * @return the {@link Result} of the search
+     */
+    public Result search(final Position position, final long playouts) {
+
+        Preconditions.checkArgument(playouts > 0);
+
+        final long start = System.nanoTime();
+        final SplittableRandom random = new SplittableRandom(mSeed);
+
+        final List<Worker> workers = new ArrayList<>(mWorkers);
+        for (int i = 0; i < mWorkers; i++) {
+            final long share = playouts / mWorkers + (i < playouts % mWorkers ? 1 : 0);
+            workers.add(new Worker(position.copy(), random.split(), Math.max(1, share)));
+        }
+
+        final long[] visits = mPool.invoke(new RecursiveTask<long[]>() {
+            @Override
+            protected long[] compute() {
+                final long[] totals = new long[position.rules().columns()];
+                for (final Worker worker : ForkJoinTask.invokeAll(workers)) {
+                    final long[] counts = worker.join();
+                    for (int column = 0; column < totals.length; column++) {
+                        totals[column] += counts[column];
+                    }
+                }
+                return totals;
+            }
+        });
+
+        int best = -1;
+        long total = 0;
+        for (int column = 0; column < visits.length; column++) {
+            total += visits[column];
+            if (position.canPlay(column) && (best < 0 || visits[column] > visits[best])) {
+                best = column;
+            }
+        }
+
+        Preconditions.checkState(best >= 0, "No playable columns.");
+        return new Result(best, total, System.nanoTime() - start);
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * The outcome of a search.
+     */
+    public static final class Result {
+
+        private final int mColumn;
+        private final long mPlayouts;
+        private final long mNanos;
+
+        Result(final int column, final long playouts, final long nanos) {
+            mColumn = column;
+            mPlayouts = playouts;
+            mNanos = nanos;
+        }
+
+        /**
+         * @return the chosen column
+         */
+        public int column() {
+            return mColumn;
+        }
+
+        /**
+         * @return the number of playouts across all workers
+         */
+        public long playouts() {
+            return mPlayouts;
+        }
+
+        /**
+         * @return the wall-clock duration of the search in nanoseconds
+         */
+        public long nanos() {
+            return mNanos;
+        }
+
+        /**
+         * @return the playout throughput
+         */
+        public double playoutsPerSecond() {
+            return mNanos == 0 ? 0 : mPlayouts * 1e9 / mNanos;
+        }
+    }
+
+    /**
+     * A node of a worker's tree. The score is from the point of view of the player whose move led
+     * to this node.
+     */
+    private static final class Node {
+
+        private final Node[] mChildren;
+
+        private long mVisits;
+        private long mScore;
+
+        /**
+         * The result for the player to move if the game is over at this node, otherwise -1.
+         */
+        private final int mTerminal;
+
+        Node(final int columns, final int terminal) {
+            mChildren = new Node[columns];
+            mTerminal = terminal;
+        }
+    }
+
+    /**
+     * Grows a single tree and reports the visit counts of the root's children.
+     */
+    private static final class Worker extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Position mPosition;
+        private final SplittableRandom mRandom;
+        private final long mPlayouts;
+        private final Node[] mPath;
+        private final int mColumns;
+
+        Worker(final Position position, final SplittableRandom random, final long playouts) {
+            mPosition = position;
+            mRandom = random;
+            mPlayouts = playouts;
+            mPath = new Node[position.rules().cells() + 1];
+            mColumns = position.rules().columns();
+        }
+
+        @Override
+        protected long[] compute() {
+
+            final Node root = new Node(mColumns, -1);
+            for (long i = 0; i < mPlayouts; i++) {
+                iterate(root);
+            }
+
+            final long[] visits = new long[mColumns];
+            for (int column = 0; column < mColumns; column++) {
+                visits[column] = root.mChildren[column] == null ? 0 : root.mChildren[column].mVisits;
+            }
+            return visits;
+        }
+
+        /**
+         * Select a path through the tree, expand one node, run a playout and back the result up.
+         */
+        private void iterate(final Node root) {
+
+            int depth = 0;
+            Node node = root;
+            mPath[depth++] = node;
+
+            // Selection and expansion
+            while (node.mTerminal < 0) {
+
+                final int untried = untried(node);
+                final int column = untried >= 0 ? untried : select(node);
+                mPosition.play(column);
+
+                if (node.mChildren[column] == null) {
+                    node.mChildren[column] = new Node(mColumns, terminal());
+                    node = node.mChildren[column];
+                    mPath[depth++] = node;
+                    break;
+                }
+
+                node = node.mChildren[column];
+                mPath[depth++] = node;
+            }
+
+            // Simulation; the result is for the player to move at the last node
+            int result = node.mTerminal >= 0 ? node.mTerminal : playout();
+
+            // Backpropagation
+            for (int i = depth - 1; i >= 0; i--) {
+                result = WIN - result;
+                mPath[i].mVisits++;
+                mPath[i].mScore += result;
+                if (i > 0) {
+                    mPosition.undo();
+                }
+            }
+        }
+
+        /**
+         * @return the result for the player to move if the last move ended the game, otherwise -1
+         */
+        private int terminal() {
+            if (mPosition.isLastMoveWin()) {
+                return LOSS;
+            }
+            return mPosition.isFull() ? DRAW : -1;
+        }
+
+        /**
+         * @return a playable column with no child yet, or -1 if the node is fully expanded
+         */
+        private int untried(final Node node) {
+            for (int column = 0; column < mColumns; column++) {
+                if (node.mChildren[column] == null && mPosition.canPlay(column)) {
+                    return column;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the child column with the highest upper confidence bound
+         */
+        private int select(final Node node) {
+
+            final double logVisits = Math.log(node.mVisits);
+
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int column = 0; column < mColumns; column++) {
+                final Node child = node.mChildren[column];
+                if (child == null) {
+                    continue;
+                }
+                final double value = (double) child.mScore / child.mVisits
+                        + EXPLORATION * Math.sqrt(logVisits / child.mVisits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = column;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Play uniformly random moves until the game ends, then restore the position.
+         *
+         * @return the result for the player to move at the start of the playout
+         */
+        private int playout() {
+
+            int plies = 0;
+            int result = DRAW;
+            while (!mPosition.isFull()) {
+
+                final int column = randomColumn();
+                final boolean win = mPosition.isWinningMove(column);
+                mPosition.play(column);
+                plies++;
+
+                if (win) {
+                    // Odd plies mean the player to move at the start made the winning move
+                    result = (plies & 1) == 1 ? WIN : LOSS;
+                    break;
+                }
+            }
+
+            for (int i = 0; i < plies; i++) {
+                mPosition.undo();
+            }
+
+            return result;
+        }
+
+        /**
+         * @return a uniformly chosen playable column
+         */
+        private int randomColumn() {
+
+            int playable = 0;
+            for (int column = 0; column < mColumns; column++) {
+                if (mPosition.canPlay(column)) {
+                    playable++;
+                }
+            }
+
+            int choice = mRandom.nextInt(playable);
+            for (int column = 0; ; column++) {
+                if (mPosition.canPlay(column) && choice-- == 0) {
+                    return column;
+                }
+            }
+        }
+    }
+}
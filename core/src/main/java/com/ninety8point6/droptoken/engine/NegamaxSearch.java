@@ -0,0 +1,315 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameRules;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A negamax alpha-beta search over a {@link Position}, backed by a {@link TranspositionTable}.
+ * <p/>
+ * Scores are from the point of view of the player to move. A win is scored as
+ * {@code MATE - n}, where {@code n} is the number of tokens on the board once the winning token is
+ * dropped, so quicker wins score higher; a loss is the negation and a draw is zero. When the depth
+ * runs out before the game ends, a heuristic counting the open lines of each player is used, which
+ * is always smaller in magnitude than any win.
+ * <p/>
+ * Moves are ordered with the table's best move first and then from the center columns outwards.
+ * Instances keep a node counter and are not thread-safe, but any number of instances may share a
+ * single {@link TranspositionTable}. The exception is {@link #stop()}, which may be called from any
+ * thread to abandon a search in progress. A search also stops itself once it exceeds the node or
+ * time budget of its {@link SearchLimits}; the clock is only read every {@code 1024} nodes.
+ */
+@NotThreadSafe
+public final class NegamaxSearch {
+
+    /**
+     * The base score for a win; see the class documentation.
+     */
+    public static final int MATE = 1000;
+
+    /**
+     * Scores with a larger magnitude than this are wins or losses.
+     */
+    public static final int MATE_THRESHOLD = MATE - Long.SIZE - 1;
+
+    static final int INFINITY = MATE + 1;
+    private static final int HEURISTIC_LIMIT = MATE_THRESHOLD / 2;
+    private static final long CLOCK_MASK = 1024 - 1;
+
+    private final GameRules mRules;
+    private final TranspositionTable mTable;
+    private final int[] mOrder;
+
+    private long mNodes;
+    private volatile boolean mStopped;
+
+    private long mNodeLimit = Long.MAX_VALUE;
+    private boolean mTimed;
+    private long mDeadline;
+
+    /**
+     * Builds a {@link NegamaxSearch}.
+     *
+     * @param rules the {@link GameRules} of the positions to be searched
+     * @param table the {@link TranspositionTable}, which may be shared with other searches
+     */
+    public NegamaxSearch(final GameRules rules, final TranspositionTable table) {
+        mRules = Preconditions.checkNotNull(rules);
+        mTable = Preconditions.checkNotNull(table);
+        mOrder = centerOutOrder(rules.columns());
+    }
+
+    /**
+     * @return the number of positions visited by this instance
+     */
+    public long nodes() {
+        return mNodes;
+    }
+
+    /**
+     * Abandon the search in progress, and any later search on this instance. Results from the
+     * abandoned search are not stored in the table. May be called from any thread.
+     */
+    public void stop() {
+        mStopped = true;
+    }
+
+    /**
+     * @return {@code true} if {@link #stop()} has been called; otherwise {@code false}
+     */
+    public boolean isStopped() {
+        return mStopped;
+    }
+
+    /**
+     * Apply the node and time budgets of the provided limits; the depth is left to the caller.
+     *
+     * @param limits the {@link SearchLimits}
+     * @param start the {@link System#nanoTime()} at which the search started
+     */
+    void limit(final SearchLimits limits, final long start) {
+        mNodeLimit = limits.nodes();
+        mTimed = limits.isTimed();
+        mDeadline = start + limits.nanos();
+    }
+
+    /**
+     * Find the best column for the player to move. The position must have at least one playable
+     * column and must not already be won.
+     *
+     * @param position the {@link Position} to search; restored before returning
+     * @param depth the maximum number of plies to search
+     *
+     * @return the best column, or -1 if the search was stopped
+     */
+    public int bestMove(final Position position, final int depth) {
+        return TranspositionTable.move(searchRoot(position, depth, -INFINITY, INFINITY));
+    }
+
+    /**
+     * Search the root position within the provided window.
+     *
+     * @param position the {@link Position} to search; restored before returning
+     * @param depth the maximum number of plies to search
+     * @param alpha the lower bound of the window
+     * @param beta the upper bound of the window
+     *
+     * @return a packed {@link TranspositionTable} style entry holding the score and best column, or
+     *         {@link TranspositionTable#MISS} if the search was stopped
+     */
+    long searchRoot(final Position position, final int depth, int alpha, final int beta) {
+
+        Preconditions.checkArgument(depth > 0);
+        Preconditions.checkArgument(position.rules() == mRules);
+
+        mNodes++;
+
+        final long entry = mTable.probe(position.hash());
+        final int tableMove = entry == TranspositionTable.MISS ? -1 : TranspositionTable.move(entry);
+
+        int bestScore = -INFINITY;
+        int bestMove = -1;
+        for (int i = -1; i < mOrder.length; i++) {
+
+            final int column = i < 0 ? tableMove : mOrder[i];
+            if ((i >= 0 && column == tableMove) || !position.canPlay(column)) {
+                continue;
+            }
+
+            final int score;
+            if (position.isWinningMove(column)) {
+                score = MATE - position.moveCount() - 1;
+            } else {
+                position.play(column);
+                score = -negamax(position, depth - 1, -beta, -alpha);
+                position.undo();
+                if (mStopped) {
+                    return TranspositionTable.MISS;
+                }
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = column;
+                alpha = Math.max(alpha, score);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        Preconditions.checkState(bestMove >= 0, "No playable columns.");
+        return TranspositionTable.pack(bestScore, depth, TranspositionTable.EXACT, bestMove);
+    }
+
+    /**
+     * The recursive alpha-beta search.
+     *
+     * @return the score of the position for the player to move
+     */
+    private int negamax(final Position position, final int depth, int alpha, int beta) {
+
+        mNodes++;
+
+        if (mStopped || isOverBudget()) {
+            return 0;
+        }
+
+        if (position.isFull()) {
+            return 0;
+        }
+
+        for (final int column : mOrder) {
+            if (position.canPlay(column) && position.isWinningMove(column)) {
+                return MATE - position.moveCount() - 1;
+            }
+        }
+
+        if (depth <= 0) {
+            return evaluate(position);
+        }
+
+        final int originalAlpha = alpha;
+        final long hash = position.hash();
+        final long entry = mTable.probe(hash);
+
+        int tableMove = -1;
+        if (entry != TranspositionTable.MISS) {
+            tableMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                final int score = TranspositionTable.score(entry);
+                switch (TranspositionTable.bound(entry)) {
+                    case TranspositionTable.EXACT:
+                        return score;
+                    case TranspositionTable.LOWER:
+                        alpha = Math.max(alpha, score);
+                        break;
+                    case TranspositionTable.UPPER:
+                        beta = Math.min(beta, score);
+                        break;
+                    default:
+                        break;
+                }
+                if (alpha >= beta) {
+                    return score;
+                }
+            }
+        }
+
+        int bestScore = -INFINITY;
+        int bestMove = -1;
+        for (int i = -1; i < mOrder.length; i++) {
+
+            final int column = i < 0 ? tableMove : mOrder[i];
+            if ((i >= 0 && column == tableMove) || !position.canPlay(column)) {
+                continue;
+            }
+
+            position.play(column);
+            final int score = -negamax(position, depth - 1, -beta, -alpha);
+            position.undo();
+
+            if (mStopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = column;
+                alpha = Math.max(alpha, score);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        final int bound = bestScore <= originalAlpha
+                ? TranspositionTable.UPPER
+                : bestScore >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        mTable.store(hash, bestScore, depth, bound, bestMove);
+
+        return bestScore;
+    }
+
+    /**
+     * Stop the search if it has exceeded its node or time budget.
+     *
+     * @return {@code true} if the search has been stopped; otherwise {@code false}
+     */
+    private boolean isOverBudget() {
+        if (mNodes >= mNodeLimit
+                || (mTimed && (mNodes & CLOCK_MASK) == 0 && System.nanoTime() - mDeadline >= 0)) {
+            mStopped = true;
+        }
+        return mStopped;
+    }
+
+    /**
+     * A static evaluation for positions at the search horizon: the squared token counts of each
+     * line that is still open for the player to move, less the same for the opponent.
+     */
+    private int evaluate(final Position position) {
+
+        final long mine = position.tokens(position.currentPlayer());
+        final long theirs = position.tokens(position.currentPlayer() ^ 1);
+
+        int score = 0;
+        for (int i = 0; i < mRules.lineCount(); i++) {
+            final long line = mRules.line(i);
+            final int mineCount = Long.bitCount(mine & line);
+            final int theirsCount = Long.bitCount(theirs & line);
+            if (theirsCount == 0) {
+                score += mineCount * mineCount;
+            } else if (mineCount == 0) {
+                score -= theirsCount * theirsCount;
+            }
+        }
+
+        return Math.max(-HEURISTIC_LIMIT, Math.min(HEURISTIC_LIMIT, score));
+    }
+
+    /**
+     * @return the columns ordered from the center of the board outwards
+     */
+    static int[] centerOutOrder(final int columns) {
+
+        final int[] order = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            order[i] = i;
+        }
+
+        // Insertion sort by distance from the center, which keeps left before right on ties
+        for (int i = 1; i < columns; i++) {
+            final int column = order[i];
+            int j = i - 1;
+            while (j >= 0 && Math.abs(2 * order[j] - columns + 1) > Math.abs(2 * column - columns + 1)) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = column;
+        }
+
+        return order;
+    }
+}
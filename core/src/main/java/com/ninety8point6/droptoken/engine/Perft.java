@@ -0,0 +1,433 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Enumerates the game tree ply by ply ("perft") and reports per-ply statistics, as a correctness
+ * check and throughput benchmark for move generation and win detection:
+ * <pre>
+ *     Perft [--rules rows,columns,winLength] [--moves column,column,...] [--threads n] depth
+ * </pre>
+ * Each ply is held as the set of unique positions reached, each with the number of move orders
+ * that reach it, so transpositions are expanded once however many paths lead to them while the path
+ * counts stay exact. A position is keyed by the exact tokens of both players, so there are no hash
+ * collisions to account for. Positions that are won or drawn are counted but not expanded.
+ * <p/>
+ * Each ply is expanded in a work-stealing {@link ForkJoinPool}: the ply is split into ranges, each
+ * range builds its own children, and the children are merged as the tasks join.
+ */
+public final class Perft {
+
+    /**
+     * The number of positions below which an expansion is not split further.
+     */
+    private static final int POSITIONS_PER_TASK = 4096;
+
+    private final GameRules mRules;
+    private final ForkJoinPool mPool;
+
+    /**
+     * Builds a {@link Perft}.
+     *
+     * @param rules the {@link GameRules} of the tree
+     * @param pool the {@link ForkJoinPool} to expand plies in
+     */
+    public Perft(final GameRules rules, final ForkJoinPool pool) {
+        mRules = Preconditions.checkNotNull(rules);
+        mPool = Preconditions.checkNotNull(pool);
+    }
+
+    public static void main(final String[] args) {
+
+        GameRules rules = GameRules.DEFAULT;
+        GameState state = new GameState("perft", GameState.PLAYER_1);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int depth = -1;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rules":
+                    final String[] dimensions = args[++i].split(",");
+                    Preconditions.checkArgument(dimensions.length == 3, "Expected rows,columns,winLength.");
+                    rules = new GameRules(Integer.parseInt(dimensions[0]),
+                            Integer.parseInt(dimensions[1]),
+                            Integer.parseInt(dimensions[2]));
+                    break;
+                case "--moves":
+                    for (final String column : args[++i].split(",")) {
+                        state = state.withMove(Integer.parseInt(column.trim()));
+                    }
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    depth = Integer.parseInt(args[i]);
+                    break;
+            }
+        }
+        Preconditions.checkArgument(depth >= 0,
+                "Usage: Perft [--rules rows,columns,winLength] [--moves column,...] [--threads n] depth");
+
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        final long start = System.nanoTime();
+        final List<Ply> plies = new Perft(rules, pool).run(new GameBoard(state, rules), depth);
+        final long nanos = System.nanoTime() - start;
+        pool.shutdown();
+
+        System.out.printf("%5s %16s %14s %14s %14s %12s%n", "ply", "positions", "wins", "draws", "unique", "ms");
+        long positions = 0;
+        for (final Ply ply : plies) {
+            positions += ply.positions();
+            System.out.printf("%5d %16d %14d %14d %14d %12.1f%n",
+                    ply.ply(),
+                    ply.positions(),
+                    ply.wins(),
+                    ply.draws(),
+                    ply.unique(),
+                    ply.nanos() / 1e6);
+        }
+        System.out.printf("%d positions in %.1f ms with %d threads: %.0f positions/s%n",
+                positions,
+                nanos / 1e6,
+                threads,
+                nanos == 0 ? 0 : positions * 1e9 / nanos);
+    }
+
+    /**
+     * Enumerate the tree below the provided board.
+     *
+     * @param board the {@link GameBoard} to start from
+     * @param depth the number of plies to enumerate
+     *
+     * @return the statistics of each ply, starting with the provided board at ply zero
+     */
+    public List<Ply> run(final GameBoard board, final int depth) {
+
+        Preconditions.checkArgument(depth >= 0);
+        Preconditions.checkArgument(board.rules() == mRules);
+
+        final int player = board.currentPlayer();
+        final GameBoard.GameOverType over = board.moveCount() == 0
+                ? GameBoard.GameOverType.NONE
+                : board.isGameOver(player ^ 1);
+
+        final List<Ply> plies = new ArrayList<>(depth + 1);
+        plies.add(new Ply(0, 1,
+                over == GameBoard.GameOverType.WIN ? 1 : 0,
+                over == GameBoard.GameOverType.DRAW ? 1 : 0,
+                1,
+                0));
+
+        Counts level = new Counts();
+        if (over == GameBoard.GameOverType.NONE) {
+            level.add(board.tokens(player), board.tokens(player ^ 1), 1);
+        }
+
+        for (int ply = 1; ply <= depth && level.size() > 0; ply++) {
+
+            final long start = System.nanoTime();
+            final Counts open = level;
+            final Expansion expansion = open.size() <= POSITIONS_PER_TASK
+                    ? new Expansion(open, 0, open.capacity()).compute()
+                    : mPool.invoke(new Expansion(open, 0, open.capacity()));
+
+            plies.add(new Ply(ply,
+                    expansion.mOpen.total() + expansion.mWon.total() + expansion.mDrawn.total(),
+                    expansion.mWon.total(),
+                    expansion.mDrawn.total(),
+                    expansion.mOpen.size() + expansion.mWon.size() + expansion.mDrawn.size(),
+                    System.nanoTime() - start));
+
+            level = expansion.mOpen;
+        }
+
+        return Collections.unmodifiableList(plies);
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * The statistics of a single ply.
+     */
+    public static final class Ply {
+
+        private final int mPly;
+        private final long mPositions;
+        private final long mWins;
+        private final long mDraws;
+        private final long mUnique;
+        private final long mNanos;
+
+        Ply(final int ply,
+            final long positions,
+            final long wins,
+            final long draws,
+            final long unique,
+            final long nanos) {
+            mPly = ply;
+            mPositions = positions;
+            mWins = wins;
+            mDraws = draws;
+            mUnique = unique;
+            mNanos = nanos;
+        }
+
+        /**
+         * @return the number of moves played since the starting board
+         */
+        public int ply() {
+            return mPly;
+        }
+
+        /**
+         * @return the number of move orders reaching this ply
+         */
+        public long positions() {
+            return mPositions;
+        }
+
+        /**
+         * @return the number of move orders whose last move won the game
+         */
+        public long wins() {
+            return mWins;
+        }
+
+        /**
+         * @return the number of move orders whose last move filled the board without a win
+         */
+        public long draws() {
+            return mDraws;
+        }
+
+        /**
+         * @return the number of distinct positions at this ply
+         */
+        public long unique() {
+            return mUnique;
+        }
+
+        /**
+         * @return the time taken to enumerate this ply in nanoseconds
+         */
+        public long nanos() {
+            return mNanos;
+        }
+    }
+
+    /**
+     * Expands a range of slots of a ply into the open, won and drawn positions of the next ply.
+     */
+    private final class Expansion extends RecursiveTask<Expansion> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Counts mLevel;
+        private final int mFrom;
+        private final int mTo;
+
+        private Counts mOpen;
+        private Counts mWon;
+        private Counts mDrawn;
+
+        Expansion(final Counts level, final int from, final int to) {
+            mLevel = level;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected Expansion compute() {
+
+            // Slots are roughly half full, so a range of twice the task size holds about one task
+            if (mTo - mFrom > 2 * POSITIONS_PER_TASK) {
+                final int middle = (mFrom + mTo) >>> 1;
+                final Expansion left = new Expansion(mLevel, mFrom, middle);
+                final Expansion right = new Expansion(mLevel, middle, mTo);
+                invokeAll(left, right);
+                mOpen = left.mOpen.merge(right.mOpen);
+                mWon = left.mWon.merge(right.mWon);
+                mDrawn = left.mDrawn.merge(right.mDrawn);
+                return this;
+            }
+
+            mOpen = new Counts();
+            mWon = new Counts();
+            mDrawn = new Counts();
+
+            final long full = mRules.fullMask();
+            for (int slot = mFrom; slot < mTo; slot++) {
+
+                final long paths = mLevel.count(slot);
+                if (paths == 0) {
+                    continue;
+                }
+
+                final long mine = mLevel.first(slot);
+                final long theirs = mLevel.second(slot);
+                final long occupied = mine | theirs;
+
+                for (int column = 0; column < mRules.columns(); column++) {
+
+                    final int height = Long.bitCount(occupied & mRules.columnMask(column));
+                    if (height == mRules.rows()) {
+                        continue;
+                    }
+
+                    final int cell = mRules.cell(height, column);
+                    final long played = mine | (1L << cell);
+
+                    // The next player to move is the opponent, so the key swaps sides
+                    if (mRules.isWin(played, cell)) {
+                        mWon.add(theirs, played, paths);
+                    } else if ((occupied | (1L << cell)) == full) {
+                        mDrawn.add(theirs, played, paths);
+                    } else {
+                        mOpen.add(theirs, played, paths);
+                    }
+                }
+            }
+
+            return this;
+        }
+    }
+
+    /**
+     * An open-addressed map from a position, keyed by the tokens of the player to move and of the
+     * opponent, to the number of move orders reaching it. Not thread-safe; each task builds its own.
+     */
+    static final class Counts {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private long[] mFirst = new long[INITIAL_CAPACITY];
+        private long[] mSecond = new long[INITIAL_CAPACITY];
+        private long[] mCounts = new long[INITIAL_CAPACITY];
+        private int mSize;
+        private long mTotal;
+
+        /**
+         * Add move orders reaching a position.
+         */
+        void add(final long first, final long second, final long count) {
+
+            if (2 * (mSize + 1) > mCounts.length) {
+                resize(mCounts.length * 2);
+            }
+
+            mTotal += count;
+
+            final int mask = mCounts.length - 1;
+            for (int slot = slot(first, second) & mask; ; slot = (slot + 1) & mask) {
+                if (mCounts[slot] == 0) {
+                    mFirst[slot] = first;
+                    mSecond[slot] = second;
+                    mCounts[slot] = count;
+                    mSize++;
+                    return;
+                }
+                if (mFirst[slot] == first && mSecond[slot] == second) {
+                    mCounts[slot] += count;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Merge the smaller of two maps into the larger.
+         *
+         * @return the merged map
+         */
+        Counts merge(final Counts other) {
+
+            final Counts into = mSize >= other.mSize ? this : other;
+            final Counts from = into == this ? other : this;
+
+            for (int slot = 0; slot < from.mCounts.length; slot++) {
+                if (from.mCounts[slot] != 0) {
+                    into.add(from.mFirst[slot], from.mSecond[slot], from.mCounts[slot]);
+                }
+            }
+            return into;
+        }
+
+        /**
+         * @return the number of distinct positions
+         */
+        int size() {
+            return mSize;
+        }
+
+        /**
+         * @return the total number of move orders across every position
+         */
+        long total() {
+            return mTotal;
+        }
+
+        /**
+         * @return the number of slots, some of which are empty
+         */
+        int capacity() {
+            return mCounts.length;
+        }
+
+        /**
+         * @return the tokens of the player to move in a slot
+         */
+        long first(final int slot) {
+            return mFirst[slot];
+        }
+
+        /**
+         * @return the tokens of the opponent in a slot
+         */
+        long second(final int slot) {
+            return mSecond[slot];
+        }
+
+        /**
+         * @return the number of move orders reaching the position in a slot, or zero if it is empty
+         */
+        long count(final int slot) {
+            return mCounts[slot];
+        }
+
+        private void resize(final int capacity) {
+
+            final long[] first = mFirst;
+            final long[] second = mSecond;
+            final long[] counts = mCounts;
+
+            mFirst = new long[capacity];
+            mSecond = new long[capacity];
+            mCounts = new long[capacity];
+            mSize = 0;
+            mTotal = 0;
+
+            for (int slot = 0; slot < counts.length; slot++) {
+                if (counts[slot] != 0) {
+                    add(first[slot], second[slot], counts[slot]);
+                }
+            }
+        }
+
+        private static int slot(final long first, final long second) {
+            long h = first * 0x9e3779b97f4a7c15L + second;
+            h = (h ^ (h >>> 32)) * 0xd6e8feb86659fd93L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A mutable bitboard position used by the search engines. Unlike {@link GameBoard}, tokens are
+ * dropped and removed in place ({@link #play(int)} / {@link #undo()}), so walking a game tree does
+ * not allocate. Hashes use the same Zobrist keys as {@link GameBoard}, so the two agree on
+ * {@link #hash()} for the same position.
+ * <p/>
+ * Instances are not thread-safe; each search thread works on its own {@link #copy()}.
+ */
+@NotThreadSafe
+public final class Position {
+
+    private final GameRules mRules;
+    private final long[] mTokens = new long[2];
+    private final int[] mHeights;
+    private final int[] mHistory;
+
+    private int mPlies;
+    private int mCount;
+    private int mPlayer;
+    private long mHash;
+
+    /**
+     * Builds an empty {@link Position} where {@link GameState#PLAYER_1} moves first.
+     *
+     * @param rules the {@link GameRules} describing the board
+     */
+    public Position(final GameRules rules) {
+        mRules = Preconditions.checkNotNull(rules);
+        mHeights = new int[rules.columns()];
+        mHistory = new int[rules.cells()];
+        mPlayer = GameState.PLAYER_1;
+    }
+
+    /**
+     * Builds a {@link Position} by replaying the provided moves from an empty board, with
+     * {@link GameState#PLAYER_1} moving first.
+     *
+     * @param rules the {@link GameRules} describing the board
+     * @param moves the moves to replay
+     *
+     * @throws IllegalArgumentException if any move is not playable, or is played after a win
+     */
+    public Position(final GameRules rules, final MoveSequence moves) {
+        this(rules);
+        for (int i = 0; i < moves.size(); i++) {
+            final int column = moves.column(i);
+            Preconditions.checkArgument(canPlay(column) && !isLastMoveWin());
+            play(column);
+        }
+    }
+
+    /**
+     * Builds a {@link Position} with the same tokens as the provided {@link GameBoard}.
+     *
+     * @param board the {@link GameBoard} to copy
+     */
+    public Position(final GameBoard board) {
+        this(board.rules());
+        mTokens[GameState.PLAYER_1] = board.tokens(GameState.PLAYER_1);
+        mTokens[GameState.PLAYER_2] = board.tokens(GameState.PLAYER_2);
+        for (int column = 0; column < mHeights.length; column++) {
+            mHeights[column] = board.height(column);
+        }
+        mCount = board.moveCount();
+        mPlayer = board.currentPlayer();
+        mHash = board.hash();
+    }
+
+    /**
+     * Builds a {@link Position} directly from token masks, with no undo history; used when
+     * positions are enumerated rather than played.
+     *
+     * @param rules the {@link GameRules} describing the board
+     * @param current the tokens of the player to move, who is labelled {@link GameState#PLAYER_1}
+     * @param opponent the tokens of the opponent
+     *
+     * @return the {@link Position}
+     */
+    static Position of(final GameRules rules, final long current, final long opponent) {
+        final Position position = new Position(rules);
+        position.mTokens[GameState.PLAYER_1] = current;
+        position.mTokens[GameState.PLAYER_2] = opponent;
+        for (int column = 0; column < position.mHeights.length; column++) {
+            position.mHeights[column] = Long.bitCount((current | opponent) & rules.columnMask(column));
+        }
+        position.mCount = Long.bitCount(current | opponent);
+        for (int cell = 0; cell < rules.cells(); cell++) {
+            if ((current & (1L << cell)) != 0) {
+                position.mHash ^= rules.zobristKey(GameState.PLAYER_1, cell);
+            } else if ((opponent & (1L << cell)) != 0) {
+                position.mHash ^= rules.zobristKey(GameState.PLAYER_2, cell);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * @return a deep copy of this {@link Position}, including its undo history
+     */
+    public Position copy() {
+        final Position copy = new Position(mRules);
+        copy.mTokens[0] = mTokens[0];
+        copy.mTokens[1] = mTokens[1];
+        System.arraycopy(mHeights, 0, copy.mHeights, 0, mHeights.length);
+        System.arraycopy(mHistory, 0, copy.mHistory, 0, mPlies);
+        copy.mPlies = mPlies;
+        copy.mCount = mCount;
+        copy.mPlayer = mPlayer;
+        copy.mHash = mHash;
+        return copy;
+    }
+
+    /**
+     * @return the {@link GameRules} describing the board
+     */
+    public GameRules rules() {
+        return mRules;
+    }
+
+    /**
+     * @return the player to move
+     */
+    public int currentPlayer() {
+        return mPlayer;
+    }
+
+    /**
+     * @param player the player
+     *
+     * @return a mask of the cells owned by the provided player
+     */
+    public long tokens(final int player) {
+        return mTokens[player];
+    }
+
+    /**
+     * @return a mask of every occupied cell
+     */
+    public long occupied() {
+        return mTokens[0] | mTokens[1];
+    }
+
+    /**
+     * @param column the column
+     *
+     * @return the number of tokens in the provided column
+     */
+    public int height(final int column) {
+        return mHeights[column];
+    }
+
+    /**
+     * @return the number of tokens on the board
+     */
+    public int moveCount() {
+        return mCount;
+    }
+
+    /**
+     * @return the Zobrist hash of the position
+     */
+    public long hash() {
+        return mHash;
+    }
+
+    /**
+     * @return {@code true} if every cell is occupied; otherwise {@code false}
+     */
+    public boolean isFull() {
+        return mCount == mRules.cells();
+    }
+
+    /**
+     * @param column the column
+     *
+     * @return {@code true} if the column exists and is not full; otherwise {@code false}
+     */
+    public boolean canPlay(final int column) {
+        return mRules.isColumn(column) && mHeights[column] < mRules.rows();
+    }
+
+    /**
+     * @param column a playable column
+     *
+     * @return {@code true} if the player to move wins by dropping a token in the column; otherwise
+     *         {@code false}
+     */
+    public boolean isWinningMove(final int column) {
+        final int cell = mRules.cell(mHeights[column], column);
+        return mRules.isWin(mTokens[mPlayer] | (1L << cell), cell);
+    }
+
+    /**
+     * @return {@code true} if the last token dropped since this {@link Position} was built
+     *         completed a line; otherwise {@code false}
+     */
+    public boolean isLastMoveWin() {
+        if (mPlies == 0) {
+            return false;
+        }
+        final int column = mHistory[mPlies - 1];
+        final int cell = mRules.cell(mHeights[column] - 1, column);
+        return mRules.isWin(mTokens[mPlayer ^ 1], cell);
+    }
+
+    /**
+     * Drop a token for the player to move. The column is assumed to be playable.
+     *
+     * @param column the column
+     */
+    public void play(final int column) {
+        final int cell = mRules.cell(mHeights[column]++, column);
+        mTokens[mPlayer] |= 1L << cell;
+        mHash ^= mRules.zobristKey(mPlayer, cell) ^ mRules.sideKey();
+        mHistory[mPlies++] = column;
+        mCount++;
+        mPlayer ^= 1;
+    }
+
+    /**
+     * Remove the last token dropped (since this {@link Position} was built).
+     */
+    public void undo() {
+        final int column = mHistory[--mPlies];
+        mCount--;
+        final int cell = mRules.cell(--mHeights[column], column);
+        mPlayer ^= 1;
+        mTokens[mPlayer] &= ~(1L << cell);
+        mHash ^= mRules.zobristKey(mPlayer, cell) ^ mRules.sideKey();
+    }
+}
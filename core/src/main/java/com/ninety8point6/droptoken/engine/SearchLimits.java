@@ -0,0 +1,118 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The budget for a single search: a maximum depth, a maximum number of nodes and a maximum
+ * duration. A search stops at whichever limit it reaches first, and always reports the best move of
+ * the last depth it completed.
+ */
+@Immutable
+public final class SearchLimits {
+
+    /**
+     * No limits; the search runs until the position is solved.
+     */
+    public static final SearchLimits NONE = new SearchLimits(Integer.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final int mDepth;
+    private final long mNodes;
+    private final long mNanos;
+
+    private SearchLimits(final int depth, final long nodes, final long nanos) {
+        mDepth = depth;
+        mNodes = nodes;
+        mNanos = nanos;
+    }
+
+    /**
+     * @param depth the maximum number of plies to search
+     *
+     * @return a {@link SearchLimits} limited only by depth
+     */
+    public static SearchLimits depth(final int depth) {
+        return NONE.withDepth(depth);
+    }
+
+    /**
+     * @param nodes the maximum number of positions to visit
+     *
+     * @return a {@link SearchLimits} limited only by nodes
+     */
+    public static SearchLimits nodes(final long nodes) {
+        return NONE.withNodes(nodes);
+    }
+
+    /**
+     * @param duration the maximum duration of the search
+     * @param unit the {@link TimeUnit} of the duration
+     *
+     * @return a {@link SearchLimits} limited only by time
+     */
+    public static SearchLimits time(final long duration, final TimeUnit unit) {
+        return NONE.withTime(duration, unit);
+    }
+
+    /**
+     * @param depth the maximum number of plies to search
+     *
+     * @return a copy of these limits with the provided depth
+     */
+    public SearchLimits withDepth(final int depth) {
+        Preconditions.checkArgument(depth > 0);
+        return new SearchLimits(depth, mNodes, mNanos);
+    }
+
+    /**
+     * @param nodes the maximum number of positions to visit
+     *
+     * @return a copy of these limits with the provided node budget
+     */
+    public SearchLimits withNodes(final long nodes) {
+        Preconditions.checkArgument(nodes > 0);
+        return new SearchLimits(mDepth, nodes, mNanos);
+    }
+
+    /**
+     * @param duration the maximum duration of the search
+     * @param unit the {@link TimeUnit} of the duration
+     *
+     * @return a copy of these limits with the provided time budget
+     */
+    public SearchLimits withTime(final long duration, final TimeUnit unit) {
+        Preconditions.checkArgument(duration > 0);
+        return new SearchLimits(mDepth, mNodes, Preconditions.checkNotNull(unit).toNanos(duration));
+    }
+
+    /**
+     * @return the maximum number of plies to search
+     */
+    public int depth() {
+        return mDepth;
+    }
+
+    /**
+     * @return the maximum number of positions to visit, or {@link Long#MAX_VALUE}
+     */
+    public long nodes() {
+        return mNodes;
+    }
+
+    /**
+     * @return the maximum duration in nanoseconds, or {@link Long#MAX_VALUE}
+     */
+    public long nanos() {
+        return mNanos;
+    }
+
+    /**
+     * @return {@code true} if the search has a time budget; otherwise {@code false}
+     */
+    public boolean isTimed() {
+        return mNanos != Long.MAX_VALUE;
+    }
+}
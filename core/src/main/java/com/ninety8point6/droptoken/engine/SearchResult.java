@@ -0,0 +1,66 @@
+package com.ninety8point6.droptoken.engine;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The outcome of a search bounded by {@link SearchLimits}.
+ */
+@Immutable
+public final class SearchResult {
+
+    private final int mColumn;
+    private final int mScore;
+    private final int mDepth;
+    private final long mNodes;
+    private final long mNanos;
+
+    SearchResult(final int column, final int score, final int depth, final long nodes, final long nanos) {
+        mColumn = column;
+        mScore = score;
+        mDepth = depth;
+        mNodes = nodes;
+        mNanos = nanos;
+    }
+
+    /**
+     * @return the best column found
+     */
+    public int column() {
+        return mColumn;
+    }
+
+    /**
+     * @return the score of the best column for the player to move; see {@link NegamaxSearch}
+     */
+    public int score() {
+        return mScore;
+    }
+
+    /**
+     * @return the deepest search that completed
+     */
+    public int depth() {
+        return mDepth;
+    }
+
+    /**
+     * @return the number of positions visited by every thread
+     */
+    public long nodes() {
+        return mNodes;
+    }
+
+    /**
+     * @return the wall-clock duration of the search in nanoseconds
+     */
+    public long nanos() {
+        return mNanos;
+    }
+
+    /**
+     * @return the search throughput across every thread
+     */
+    public double nodesPerSecond() {
+        return mNanos == 0 ? 0 : mNodes * 1e9 / mNanos;
+    }
+}
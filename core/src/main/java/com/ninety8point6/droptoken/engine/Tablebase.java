@@ -0,0 +1,242 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameRules;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A read-only perfect-play table for a small board, produced by {@link TablebaseGenerator}. Every
+ * reachable, unfinished position has a 4 bit entry recording its outcome for the player to move,
+ * and how many of that player's (or the opponent's) moves it takes to get there.
+ * <p/>
+ * Positions are indexed by a perfect hash of the board: each column of height {@code h} is coded
+ * as {@code 2^h - 1 + b}, where bit {@code i} of {@code b} is set if the token in row {@code i}
+ * belongs to the player to move, and the column codes are combined as the digits of a base
+ * {@code 2^(rows + 1) - 1} number. For the 4 x 4 board that is 31^4 entries, or roughly 450KB.
+ * <p/>
+ * The table is read from a {@link ByteBuffer}, typically a read-only memory-mapped file (see
+ * {@link #map(FileChannel, long, long)}), so lookups are O(1) and the table does not live on the
+ * heap.
+ */
+@ThreadSafe
+public final class Tablebase {
+
+    /**
+     * The entry for positions that are not stored: unreachable positions and finished games.
+     */
+    public static final int UNKNOWN = 0;
+
+    /**
+     * The entry for positions that are drawn with perfect play.
+     */
+    public static final int DRAW = 1;
+
+    /**
+     * Distances of this many moves or more share a single entry.
+     */
+    public static final int MAX_DISTANCE = 7;
+
+    static final int MAGIC = 0x44545442; // "DTTB"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    private static final int WIN_BASE = DRAW;
+    private static final int LOSS_BASE = WIN_BASE + MAX_DISTANCE;
+
+    private final GameRules mRules;
+    private final ByteBuffer mBuffer;
+    private final int mRadix;
+
+    /**
+     * Builds a {@link Tablebase} over the provided contents.
+     *
+     * @param rules the {@link GameRules} the table was generated for
+     * @param buffer the table contents, including the header
+     *
+     * @throws IllegalArgumentException if the contents do not match the rules
+     */
+    public Tablebase(final GameRules rules, final ByteBuffer buffer) {
+
+        mRules = Preconditions.checkNotNull(rules);
+        mBuffer = Preconditions.checkNotNull(buffer).duplicate();
+        mRadix = radix(rules);
+
+        Preconditions.checkArgument(mBuffer.remaining() == size(rules), "Unexpected table size.");
+        Preconditions.checkArgument(mBuffer.getInt(0) == MAGIC, "Not a tablebase.");
+        Preconditions.checkArgument(mBuffer.get(4) == VERSION
+                && mBuffer.get(5) == rules.rows()
+                && mBuffer.get(6) == rules.columns()
+                && mBuffer.get(7) == rules.winLength(), "Tablebase does not match the rules.");
+    }
+
+    /**
+     * Memory-map a table stored in a file (or a region of a file, such as an uncompressed asset).
+     *
+     * @param channel the {@link FileChannel} to map
+     * @param offset the start of the table within the file
+     * @param length the length of the table
+     *
+     * @return the mapped contents, to be passed to {@link #Tablebase(GameRules, ByteBuffer)}
+     *
+     * @throws IOException if the file cannot be mapped
+     */
+    public static ByteBuffer map(final FileChannel channel, final long offset, final long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    /**
+     * @return the {@link GameRules} the table was generated for
+     */
+    public GameRules rules() {
+        return mRules;
+    }
+
+    /**
+     * @param position the {@link Position} to look up
+     *
+     * @return the entry for the position; see {@link #isWin(int)}, {@link #isLoss(int)} and
+     *         {@link #distance(int)}
+     */
+    public int probe(final Position position) {
+        final int index = index(position, mRadix);
+        final int packed = mBuffer.get(HEADER_SIZE + (index >>> 1));
+        return (index & 1) == 0 ? packed & 0xf : (packed >>> 4) & 0xf;
+    }
+
+    /**
+     * Find the best column for the player to move: the quickest win, otherwise a draw, otherwise
+     * the slowest loss. The position must not be finished.
+     *
+     * @param position the {@link Position}; restored before returning
+     *
+     * @return the best column
+     */
+    public int bestMove(final Position position) {
+
+        int bestColumn = -1;
+        int bestRank = Integer.MIN_VALUE;
+        for (int column = 0; column < mRules.columns(); column++) {
+
+            if (!position.canPlay(column)) {
+                continue;
+            }
+
+            if (position.isWinningMove(column)) {
+                return column;
+            }
+
+            position.play(column);
+            final int rank = position.isFull() ? 0 : -rank(probe(position));
+            position.undo();
+
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestColumn = column;
+            }
+        }
+
+        Preconditions.checkState(bestColumn >= 0, "No playable columns.");
+        return bestColumn;
+    }
+
+    /**
+     * @param entry a table entry
+     *
+     * @return {@code true} if the player to move wins with perfect play; otherwise {@code false}
+     */
+    public static boolean isWin(final int entry) {
+        return entry > WIN_BASE && entry <= LOSS_BASE;
+    }
+
+    /**
+     * @param entry a table entry
+     *
+     * @return {@code true} if the player to move loses with perfect play; otherwise {@code false}
+     */
+    public static boolean isLoss(final int entry) {
+        return entry > LOSS_BASE;
+    }
+
+    /**
+     * @param entry a win or loss entry
+     *
+     * @return the number of moves the winner needs, capped at {@link #MAX_DISTANCE}
+     */
+    public static int distance(final int entry) {
+        return isLoss(entry) ? entry - LOSS_BASE : entry - WIN_BASE;
+    }
+
+    /**
+     * @return the entry for a win in the provided number of moves
+     */
+    static int win(final int distance) {
+        return WIN_BASE + Math.min(distance, MAX_DISTANCE);
+    }
+
+    /**
+     * @return the entry for a loss in the provided number of opponent moves
+     */
+    static int loss(final int distance) {
+        return LOSS_BASE + Math.min(distance, MAX_DISTANCE);
+    }
+
+    /**
+     * Rank an entry for the player to move so that larger is better: quicker wins, then draws, then
+     * slower losses.
+     */
+    static int rank(final int entry) {
+        if (isWin(entry)) {
+            return 2 * MAX_DISTANCE - distance(entry) + 1;
+        }
+        if (isLoss(entry)) {
+            return distance(entry) - 2 * MAX_DISTANCE - 1;
+        }
+        return 0;
+    }
+
+    /**
+     * @return the number of distinct column codes, which is the radix of the index
+     */
+    static int radix(final GameRules rules) {
+        return (1 << (rules.rows() + 1)) - 1;
+    }
+
+    /**
+     * @return the total size of a table for the provided rules, including the header
+     */
+    static int size(final GameRules rules) {
+        final long entries = (long) Math.pow(radix(rules), rules.columns());
+        Preconditions.checkArgument(entries < Integer.MAX_VALUE, "Board is too large for a tablebase.");
+        return HEADER_SIZE + (int) ((entries + 1) / 2);
+    }
+
+    /**
+     * @return the perfect hash of the provided position; see the class documentation
+     */
+    static int index(final Position position, final int radix) {
+
+        final GameRules rules = position.rules();
+        final long mine = position.tokens(position.currentPlayer());
+
+        int index = 0;
+        for (int column = rules.columns() - 1; column >= 0; column--) {
+
+            final int height = position.height(column);
+            int owned = 0;
+            for (int row = 0; row < height; row++) {
+                if ((mine & (1L << rules.cell(row, column))) != 0) {
+                    owned |= 1 << row;
+                }
+            }
+
+            index = index * radix + (1 << height) - 1 + owned;
+        }
+
+        return index;
+    }
+}
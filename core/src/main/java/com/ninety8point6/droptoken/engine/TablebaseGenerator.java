@@ -0,0 +1,204 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameRules;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Generates a {@link Tablebase} by retrograde analysis. Run at build time (see the
+ * {@code generateTablebase} task) to produce the table shipped with the app:
+ * <pre>
+ *     TablebaseGenerator [output file]
+ * </pre>
+ * Every reachable, unfinished position is enumerated ply by ply from the empty board. The plies are
+ * then resolved from the last to the first, so every child of a position has its outcome recorded
+ * before the position itself is resolved.
+ */
+public final class TablebaseGenerator {
+
+    private static final String DEFAULT_OUTPUT = "tablebase_4x4.bin";
+
+    private TablebaseGenerator() {
+        // Not instantiable
+    }
+
+    public static void main(final String[] args) throws IOException {
+
+        final File output = new File(args.length > 0 ? args[0] : DEFAULT_OUTPUT);
+        final long start = System.nanoTime();
+
+        final byte[] table = generate(GameRules.DEFAULT);
+        try (final OutputStream out = new FileOutputStream(output)) {
+            out.write(table);
+        }
+
+        System.out.printf("Wrote %d bytes to %s in %d ms%n",
+                table.length,
+                output.getAbsolutePath(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Generate the table contents, including the header, for the provided rules.
+     *
+     * @param rules the {@link GameRules}; only very small boards are feasible
+     *
+     * @return the table contents
+     */
+    public static byte[] generate(final GameRules rules) {
+
+        final int radix = Tablebase.radix(rules);
+        final int size = Tablebase.size(rules);
+        final byte[] entries = new byte[(size - Tablebase.HEADER_SIZE) * 2];
+
+        final int[][] plies = enumerate(rules, radix, entries.length);
+
+        for (int ply = plies.length - 1; ply >= 0; ply--) {
+            for (final int index : plies[ply]) {
+                entries[index] = (byte) resolve(decode(rules, radix, index), radix, entries);
+            }
+        }
+
+        final ByteBuffer table = ByteBuffer.allocate(size);
+        table.putInt(Tablebase.MAGIC)
+             .put((byte) Tablebase.VERSION)
+             .put((byte) rules.rows())
+             .put((byte) rules.columns())
+             .put((byte) rules.winLength());
+        for (int i = 0; i < entries.length; i += 2) {
+            table.put((byte) (entries[i] | (entries[i + 1] << 4)));
+        }
+
+        return table.array();
+    }
+
+    /**
+     * Enumerate the indexes of every reachable, unfinished position, grouped by ply.
+     */
+    private static int[][] enumerate(final GameRules rules, final int radix, final int entries) {
+
+        final BitSet seen = new BitSet(entries);
+        final int[][] plies = new int[rules.cells()][];
+        final int[] counts = new int[rules.cells()];
+
+        final Position empty = new Position(rules);
+        plies[0] = new int[] { Tablebase.index(empty, radix) };
+        counts[0] = 1;
+
+        for (int ply = 0; ply + 1 < rules.cells(); ply++) {
+
+            int[] next = new int[16];
+            int count = 0;
+
+            for (int i = 0; i < counts[ply]; i++) {
+
+                final Position position = decode(rules, radix, plies[ply][i]);
+                for (int column = 0; column < rules.columns(); column++) {
+
+                    if (!position.canPlay(column) || position.isWinningMove(column)) {
+                        continue;
+                    }
+
+                    position.play(column);
+                    final int child = Tablebase.index(position, radix);
+                    if (!position.isFull() && !seen.get(child)) {
+                        seen.set(child);
+                        if (count == next.length) {
+                            next = Arrays.copyOf(next, count * 2);
+                        }
+                        next[count++] = child;
+                    }
+                    position.undo();
+                }
+            }
+
+            plies[ply + 1] = Arrays.copyOf(next, count);
+            counts[ply + 1] = count;
+        }
+
+        for (int ply = 0; ply < plies.length; ply++) {
+            plies[ply] = Arrays.copyOf(plies[ply], counts[ply]);
+        }
+
+        return plies;
+    }
+
+    /**
+     * Resolve a position from the already resolved entries of its children.
+     */
+    private static int resolve(final Position position, final int radix, final byte[] entries) {
+
+        int bestRank = Integer.MIN_VALUE;
+        int best = Tablebase.UNKNOWN;
+
+        for (int column = 0; column < position.rules().columns(); column++) {
+
+            if (!position.canPlay(column)) {
+                continue;
+            }
+
+            if (position.isWinningMove(column)) {
+                return Tablebase.win(1);
+            }
+
+            position.play(column);
+            final int child = position.isFull() ? Tablebase.DRAW : entries[Tablebase.index(position, radix)];
+            position.undo();
+
+            Preconditions.checkState(child != Tablebase.UNKNOWN, "Child resolved out of order.");
+
+            // The child's outcome is from the opponent's point of view
+            final int entry;
+            if (Tablebase.isWin(child)) {
+                entry = Tablebase.loss(Tablebase.distance(child));
+            } else if (Tablebase.isLoss(child)) {
+                entry = Tablebase.win(Tablebase.distance(child) + 1);
+            } else {
+                entry = Tablebase.DRAW;
+            }
+
+            final int rank = Tablebase.rank(entry);
+            if (rank > bestRank) {
+                bestRank = rank;
+                best = entry;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Rebuild the position for an index; the inverse of {@link Tablebase#index(Position, int)}.
+     */
+    private static Position decode(final GameRules rules, final int radix, int index) {
+
+        long current = 0L;
+        long opponent = 0L;
+
+        for (int column = 0; column < rules.columns(); column++) {
+
+            final int code = index % radix;
+            index /= radix;
+
+            final int height = 31 - Integer.numberOfLeadingZeros(code + 1);
+            final int owned = code + 1 - (1 << height);
+            for (int row = 0; row < height; row++) {
+                final long bit = 1L << rules.cell(row, column);
+                if ((owned & (1 << row)) != 0) {
+                    current |= bit;
+                } else {
+                    opponent |= bit;
+                }
+            }
+        }
+
+        return Position.of(rules, current, opponent);
+    }
+}
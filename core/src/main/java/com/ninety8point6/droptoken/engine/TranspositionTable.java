@@ -0,0 +1,143 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A fixed size, always-replace transposition table keyed by Zobrist hash.
+ * <p/>
+ * Each entry is two {@code long}s: the packed data and the key XOR'd with that data. A reader only
+ * accepts an entry whose two halves agree, so a torn write from a concurrent writer is simply seen
+ * as a miss. This keeps the table lock-free and safe to share between search threads.
+ */
+@ThreadSafe
+public final class TranspositionTable {
+
+    /**
+     * The stored score is exact.
+     */
+    public static final int EXACT = 1;
+
+    /**
+     * The stored score is a lower bound (the search failed high).
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * The stored score is an upper bound (the search failed low).
+     */
+    public static final int UPPER = 3;
+
+    /**
+     * Returned by {@link #probe(long)} when there is no entry for the key.
+     */
+    public static final long MISS = 0L;
+
+    private static final int SCORE_BITS = 16;
+    private static final int DEPTH_BITS = 8;
+    private static final int BOUND_BITS = 2;
+
+    private static final int DEPTH_SHIFT = SCORE_BITS;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int MOVE_SHIFT = BOUND_SHIFT + BOUND_BITS;
+
+    private final AtomicLongArray mEntries;
+    private final int mMask;
+
+    /**
+     * Builds a {@link TranspositionTable}.
+     *
+     * @param log2Entries the base-2 logarithm of the number of entries (each entry is 16 bytes)
+     */
+    public TranspositionTable(final int log2Entries) {
+        Preconditions.checkArgument(log2Entries > 0 && log2Entries < 30);
+        mEntries = new AtomicLongArray(2 << log2Entries);
+        mMask = (1 << log2Entries) - 1;
+    }
+
+    /**
+     * Store a search result.
+     *
+     * @param key the Zobrist hash of the position
+     * @param score the score, between {@link Short#MIN_VALUE} and {@link Short#MAX_VALUE}
+     * @param depth the remaining depth the score was searched to
+     * @param bound one of {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @param move the best column found, or -1
+     */
+    public void store(final long key, final int score, final int depth, final int bound, final int move) {
+        final long data = pack(score, depth, bound, move);
+        final int index = (int) (key & mMask) << 1;
+        mEntries.lazySet(index, key ^ data);
+        mEntries.lazySet(index + 1, data);
+    }
+
+    /**
+     * @param key the Zobrist hash of the position
+     *
+     * @return the packed entry for the key, or {@link #MISS}; decode it with {@link #score(long)},
+     *         {@link #depth(long)}, {@link #bound(long)} and {@link #move(long)}
+     */
+    public long probe(final long key) {
+        final int index = (int) (key & mMask) << 1;
+        final long data = mEntries.get(index + 1);
+        return (mEntries.get(index) ^ data) == key ? data : MISS;
+    }
+
+    /**
+     * Remove every entry.
+     */
+    public void clear() {
+        for (int i = 0; i < mEntries.length(); i++) {
+            mEntries.lazySet(i, 0L);
+        }
+    }
+
+    /**
+     * @return the packed form of an entry, as returned by {@link #probe(long)}
+     */
+    static long pack(final int score, final int depth, final int bound, final int move) {
+        return (score & 0xffffL)
+                | ((long) Math.min(depth, 0xff) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) (move + 1) << MOVE_SHIFT);
+    }
+
+    /**
+     * @param entry a packed entry
+     *
+     * @return the stored score
+     */
+    public static int score(final long entry) {
+        return (short) entry;
+    }
+
+    /**
+     * @param entry a packed entry
+     *
+     * @return the stored depth
+     */
+    public static int depth(final long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xff;
+    }
+
+    /**
+     * @param entry a packed entry
+     *
+     * @return the stored bound
+     */
+    public static int bound(final long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * @param entry a packed entry
+     *
+     * @return the stored best column, or -1
+     */
+    public static int move(final long entry) {
+        return (int) (entry >>> MOVE_SHIFT) - 1;
+    }
+}
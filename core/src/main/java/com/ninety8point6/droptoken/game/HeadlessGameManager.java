@@ -0,0 +1,270 @@
+package com.ninety8point6.droptoken.game;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameManager;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.GameStore;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.concepts.TokenLocation;
+
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static com.ninety8point6.droptoken.concepts.GameState.PLAYER_1;
+
+/**
+ * A {@link GameManager} implementation with the same turn flow as the app's single player manager,
+ * but without any Android dependencies: player one's moves come in through {@link #play}, player
+ * two's moves come from the {@link GameService}, every state is saved to the {@link GameStore}, and
+ * the outcome of each step is reported to a {@link Listener} rather than a view.
+ * <p/>
+ * Callbacks are handled on whichever thread delivers them, so with synchronous services and stores
+ * a whole game runs on the calling thread. A manager plays a single game at a time and is not
+ * thread-safe; run one manager per concurrent game.
+ */
+@NotThreadSafe
+public class HeadlessGameManager implements GameManager {
+
+    private final GameRules mRules;
+    private final GameService mService;
+    private final GameStore mStore;
+    private final Listener mListener;
+    private final String mKey;
+
+    private int mInitialPlayer = PLAYER_1;
+
+    private GameState mState;
+    private GameBoard mBoard;
+
+    /**
+     * Builds the {@link HeadlessGameManager} with the provided dependencies.
+     *
+     * @param rules the {@link GameRules} of the games being played
+     * @param service the {@link GameService} which plays player two's moves
+     * @param store the {@link GameStore} for persisting {@link GameState}
+     * @param listener the {@link Listener} notified of each step of the game
+     * @param key the key the game is stored under
+     */
+    public HeadlessGameManager(final GameRules rules,
+                               final GameService service,
+                               final GameStore store,
+                               final Listener listener,
+                               final String key) {
+        mRules = Preconditions.checkNotNull(rules);
+        mService = Preconditions.checkNotNull(service);
+        mStore = Preconditions.checkNotNull(store);
+        mListener = Preconditions.checkNotNull(listener);
+        mKey = Preconditions.checkNotNull(key);
+    }
+
+    /**
+     * Set the player who moves first in games started by {@link #newGame()}.
+     *
+     * @param player {@link GameState#PLAYER_1} or {@link GameState#PLAYER_2}
+     */
+    public void setInitialPlayer(final int player) {
+        Preconditions.checkArgument(player == PLAYER_1 || player == GameState.PLAYER_2);
+        mInitialPlayer = player;
+    }
+
+    @Override
+    public void loadGame() {
+        mStore.get(mKey, new ResponseCallback<GameState, Throwable>() {
+
+            @Override
+            public void onSuccess(final GameState response) {
+                if (response == null) {
+                    newGame();
+                    return;
+                }
+                handleGameStateAvailable(response, new GameBoard(response, mRules));
+            }
+
+            @Override
+            public void onError(final Throwable reason) {
+                mListener.onError("Unable to load a game from the store.", reason);
+            }
+        });
+    }
+
+    @Override
+    public void newGame() {
+
+        final GameState state = new GameState(mKey, mInitialPlayer);
+        final GameBoard board = new GameBoard(state, mRules);
+        if (mInitialPlayer != PLAYER_1) {
+            mService.play(new Move(state.sequence()), new OnMovePlayed(state, board));
+            return;
+        }
+
+        mStore.put(state, new OnGameSaved(state, board));
+    }
+
+    @Override
+    public void play(final TokenLocation location) {
+
+        Preconditions.checkArgument(location != null);
+        Preconditions.checkState(mBoard != null, "No game in progress.");
+
+        if (!mBoard.isLocationValid(location)) {
+            mListener.onError("Attempted to play an invalid location.", null);
+            return;
+        }
+
+        final GameState newState = mState.withMove(location.column());
+        final GameBoard newBoard = mBoard.withMove(location.column());
+
+        switch (newBoard.isGameOver(PLAYER_1)) {
+            case DRAW:
+            case WIN:
+                mStore.put(newState, new OnGameSaved(newState, newBoard));
+                break;
+            case NONE:
+                mService.play(new Move(newState.sequence()), new OnMovePlayed(newState, newBoard));
+                break;
+            default:
+                throw new RuntimeException("Unknown game over type");
+        }
+    }
+
+    /**
+     * @return the current {@link GameState}, or {@code null} before a game is started
+     */
+    public GameState state() {
+        return mState;
+    }
+
+    /**
+     * @return the {@link GameBoard} for the current state, or {@code null} before a game is started
+     */
+    public GameBoard board() {
+        return mBoard;
+    }
+
+    /**
+     * Handle when the {@link GameState} becomes available, checking whether the last move ended the
+     * game before handing the turn to player one.
+     */
+    private void handleGameStateAvailable(final GameState state, final GameBoard board) {
+
+        mState = state;
+        mBoard = board;
+
+        final int player = state.lastPlayer();
+        final GameBoard.GameOverType type = board.isGameOver(player);
+        if (type == GameBoard.GameOverType.NONE) {
+            mListener.onTurn(state, board);
+        } else {
+            mListener.onGameOver(state, board, type == GameBoard.GameOverType.WIN ? player : -1);
+        }
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * Receives each step of the games run by a {@link HeadlessGameManager}.
+     */
+    public interface Listener {
+
+        /**
+         * It is player one's turn; respond by calling {@link GameManager#play(TokenLocation)}.
+         *
+         * @param state the current state
+         * @param board the {@link GameBoard} for the current state
+         */
+        void onTurn(GameState state, GameBoard board);
+
+        /**
+         * The game has ended.
+         *
+         * @param state the final state
+         * @param board the {@link GameBoard} for the final state
+         * @param winner the winning player, or -1 for a draw
+         */
+        void onGameOver(GameState state, GameBoard board, int winner);
+
+        /**
+         * The game could not continue.
+         *
+         * @param message a description of the failure
+         * @param reason the {@link Throwable} (may be null) associated with the failure
+         */
+        void onError(String message, Throwable reason);
+    }
+
+    /**
+     * A {@link ResponseCallback} for handling when a state has been saved by the {@link GameStore}.
+     */
+    private class OnGameSaved implements ResponseCallback<Boolean, Throwable> {
+
+        private final GameState mState;
+        private final GameBoard mBoard;
+
+        OnGameSaved(final GameState state, final GameBoard board) {
+            mState = state;
+            mBoard = board;
+        }
+
+        @Override
+        public void onSuccess(final Boolean response) {
+
+            if (!response) {
+                mListener.onError("Unable to save a game in the store.", null);
+                return;
+            }
+
+            handleGameStateAvailable(mState, mBoard);
+        }
+
+        @Override
+        public void onError(final Throwable reason) {
+            mListener.onError("Unable to save a game in the store.", reason);
+        }
+    }
+
+    /**
+     * A {@link ResponseCallback} for handling the {@link GameService}'s reply, which extends the
+     * moves by player two's move.
+     */
+    private class OnMovePlayed implements ResponseCallback<List<Integer>, Throwable> {
+
+        private final GameState mState;
+        private final GameBoard mBoard;
+
+        OnMovePlayed(final GameState state, final GameBoard board) {
+            mState = state;
+            mBoard = board;
+        }
+
+        @Override
+        public void onSuccess(final List<Integer> response) {
+
+            final int size = mState.moves().size();
+            if (response == null || response.size() != size + 1 || !response.subList(0, size).equals(mState.moves())) {
+                mListener.onError("The service replied with an unexpected move list.", null);
+                return;
+            }
+
+            final Integer column = response.get(size);
+            if (column == null || column < 0 || !mBoard.isLocationValid(new TokenLocation(column))) {
+                mListener.onError("The service replied with an invalid move.", null);
+                return;
+            }
+
+            final GameState newState = mState.withMove(column);
+            mStore.put(newState, new OnGameSaved(newState, mBoard.withMove(column)));
+        }
+
+        @Override
+        public void onError(final Throwable reason) {
+            mListener.onError("Unable to play a move.", reason);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ninety8point6.droptoken.service;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.Cancellable;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link GameService} decorator which answers repeat move sequences from a
+ * {@link MappedResponseCache}, with no network call and no parsing, and records the delegate's
+ * replies for next time. Only well-formed replies are cached: the moves extended by a single
+ * column, or an empty list for invalid moves. Errors are passed through and not cached.
+ */
+@ThreadSafe
+public class CachingGameService implements GameService {
+
+    private static final Cancellable ANSWERED = () -> { };
+
+    private final GameService mDelegate;
+    private final MappedResponseCache mCache;
+
+    private final LongAdder mHits = new LongAdder();
+    private final LongAdder mMisses = new LongAdder();
+
+    /**
+     * Builds the {@link CachingGameService}.
+     *
+     * @param delegate the {@link GameService} which answers cache misses
+     * @param cache the {@link MappedResponseCache} of replies
+     */
+    public CachingGameService(final GameService delegate, final MappedResponseCache cache) {
+        mDelegate = Preconditions.checkNotNull(delegate);
+        mCache = Preconditions.checkNotNull(cache);
+    }
+
+    @Override
+    public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+        request(move, callback);
+    }
+
+    @Override
+    public Cancellable request(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+
+        Preconditions.checkArgument(move != null);
+        Preconditions.checkArgument(callback != null);
+
+        final MoveSequence moves = move.sequence();
+        final int reply = mCache.get(moves);
+        if (reply != MappedResponseCache.ABSENT) {
+            mHits.increment();
+            callback.onSuccess(reply == MappedResponseCache.INVALID ? Collections.emptyList() : moves.append(reply));
+            return ANSWERED;
+        }
+
+        mMisses.increment();
+        return mDelegate.request(move, new ResponseCallback<List<Integer>, Throwable>() {
+
+            @Override
+            public void onSuccess(final List<Integer> response) {
+                record(moves, response);
+                callback.onSuccess(response);
+            }
+
+            @Override
+            public void onError(final Throwable reason) {
+                callback.onError(reason);
+            }
+        });
+    }
+
+    /**
+     * @return the number of requests answered from the cache
+     */
+    public long hits() {
+        return mHits.sum();
+    }
+
+    /**
+     * @return the number of requests passed on to the delegate
+     */
+    public long misses() {
+        return mMisses.sum();
+    }
+
+    /**
+     * @return the fraction of requests answered from the cache, or 0 before any request
+     */
+    public double hitRate() {
+        final long hits = hits();
+        final long total = hits + misses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return the {@link MappedResponseCache} behind this service
+     */
+    public MappedResponseCache cache() {
+        return mCache;
+    }
+
+    private void record(final MoveSequence moves, final List<Integer> response) {
+
+        if (response.isEmpty()) {
+            mCache.put(moves, MappedResponseCache.INVALID);
+            return;
+        }
+
+        if (response.size() != moves.size() + 1) {
+            return;
+        }
+
+        final Integer column = response.get(moves.size());
+        if (column == null || column < 0 || column >= MoveSequence.COLUMN_LIMIT) {
+            return;
+        }
+
+        for (int i = 0; i < moves.size(); i++) {
+            if (response.get(i) == null || response.get(i) != moves.column(i)) {
+                return;
+            }
+        }
+        mCache.put(moves, column);
+    }
+}
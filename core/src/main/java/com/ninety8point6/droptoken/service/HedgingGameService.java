@@ -0,0 +1,402 @@
+package com.ninety8point6.droptoken.service;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.Cancellable;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link GameService} decorator which bounds the latency of a primary service, such as the
+ * remote 9dt service, with a hard deadline per call and optional hedging:
+ * <ul>
+ *     <li>If hedging is enabled and the primary has not replied within its recent 95th percentile
+ *     latency, a duplicate request is sent and whichever reply arrives first is used.</li>
+ *     <li>If the primary has not replied by the deadline, its requests are cancelled and the move
+ *     is played by the secondary service instead, such as a {@link LocalGameService} or
+ *     {@link TablebaseGameService}. The secondary is also used as soon as every request to the
+ *     primary has failed.</li>
+ * </ul>
+ * The percentile is taken over the last {@link #LATENCY_WINDOW} successful primary requests which
+ * were answered asynchronously; replies given on the calling thread, such as hits in a
+ * {@link CachingGameService}, are not round trips and would drag the estimate down. Until
+ * {@link #MIN_SAMPLES} have been seen, or if it would not fall before the deadline, the hedge is
+ * sent at half the deadline. Replies from the secondary are not given a deadline, and its errors
+ * are passed on to the caller.
+ * <p/>
+ * Since the hedge repeats an identical request, this must sit below a
+ * {@link SingleFlightGameService}, not above it, or the hedge would simply join the first request.
+ * Likewise a {@link CachingGameService} belongs on the primary, not above this service, so the
+ * secondary's replies are never recorded as the primary's.
+ */
+@ThreadSafe
+public class HedgingGameService implements GameService {
+
+    /**
+     * The number of recent primary latencies the hedge delay is estimated from.
+     */
+    static final int LATENCY_WINDOW = 128;
+
+    /**
+     * The number of primary latencies needed before the estimate is used.
+     */
+    static final int MIN_SAMPLES = 20;
+
+    private static final double HEDGE_PERCENTILE = 0.95;
+
+    private final GameService mPrimary;
+    private final GameService mSecondary;
+    private final ScheduledExecutorService mScheduler;
+    private final long mDeadlineNanos;
+    private final boolean mHedge;
+
+    @GuardedBy("mLatencies")
+    private final long[] mLatencies = new long[LATENCY_WINDOW];
+
+    @GuardedBy("mLatencies")
+    private int mSamples;
+
+    private volatile long mHedgeDelayNanos;
+
+    private final LongAdder mHedges = new LongAdder();
+    private final LongAdder mHedgeWins = new LongAdder();
+    private final LongAdder mTimeouts = new LongAdder();
+    private final LongAdder mFallbacks = new LongAdder();
+
+    /**
+     * Builds the {@link HedgingGameService}.
+     *
+     * @param primary the {@link GameService} which plays moves while it keeps to the deadline
+     * @param secondary the {@link GameService} which plays moves when the primary does not
+     * @param scheduler a {@link ScheduledExecutorService} to run the hedge and deadline timers on
+     * @param deadline the time the primary has to reply before the secondary is used
+     * @param unit the {@link TimeUnit} of the deadline
+     * @param hedge whether to send a duplicate request to the primary when it is slow to reply
+     */
+    public HedgingGameService(final GameService primary,
+                              final GameService secondary,
+                              final ScheduledExecutorService scheduler,
+                              final long deadline,
+                              final TimeUnit unit,
+                              final boolean hedge) {
+
+        Preconditions.checkArgument(deadline > 0);
+        Preconditions.checkArgument(unit != null);
+
+        mPrimary = Preconditions.checkNotNull(primary);
+        mSecondary = Preconditions.checkNotNull(secondary);
+        mScheduler = Preconditions.checkNotNull(scheduler);
+        mDeadlineNanos = unit.toNanos(deadline);
+        mHedge = hedge;
+        mHedgeDelayNanos = mDeadlineNanos / 2;
+    }
+
+    @Override
+    public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+        request(move, callback);
+    }
+
+    @Override
+    public Cancellable request(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+
+        Preconditions.checkArgument(move != null);
+        Preconditions.checkArgument(callback != null);
+
+        final Exchange exchange = new Exchange(move, callback);
+        exchange.start();
+        return exchange;
+    }
+
+    /**
+     * @return the delay before a hedge is sent, in the provided {@link TimeUnit}
+     */
+    public long hedgeDelay(final TimeUnit unit) {
+        return unit.convert(mHedgeDelayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the number of duplicate requests sent to the primary
+     */
+    public long hedges() {
+        return mHedges.sum();
+    }
+
+    /**
+     * @return the number of calls answered by a duplicate request rather than the original
+     */
+    public long hedgeWins() {
+        return mHedgeWins.sum();
+    }
+
+    /**
+     * @return the number of calls the primary did not answer by the deadline
+     */
+    public long timeouts() {
+        return mTimeouts.sum();
+    }
+
+    /**
+     * @return the number of calls passed to the secondary, after a timeout or the primary failing
+     */
+    public long fallbacks() {
+        return mFallbacks.sum();
+    }
+
+    private void recordLatency(final long nanos) {
+
+        if (!mHedge) {
+            return;
+        }
+
+        synchronized (mLatencies) {
+            mLatencies[mSamples++ % LATENCY_WINDOW] = nanos;
+            if (mSamples < MIN_SAMPLES) {
+                return;
+            }
+            // Keep the index from overflowing while still marking the window as full
+            if (mSamples == 2 * LATENCY_WINDOW) {
+                mSamples = LATENCY_WINDOW;
+            }
+
+            final long[] sorted = Arrays.copyOf(mLatencies, Math.min(mSamples, LATENCY_WINDOW));
+            Arrays.sort(sorted);
+            final long percentile = sorted[(int) Math.ceil(HEDGE_PERCENTILE * sorted.length) - 1];
+            mHedgeDelayNanos = percentile < mDeadlineNanos ? percentile : mDeadlineNanos / 2;
+        }
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * A single call: the requests to the primary, the timers, and (after the deadline) the request
+     * to the secondary. The first reply is passed to the caller and everything else is cancelled.
+     */
+    private final class Exchange implements Cancellable {
+
+        private final Move mMove;
+        private final ResponseCallback<List<Integer>, Throwable> mCallback;
+
+        @GuardedBy("this")
+        private final List<Cancellable> mRequests = new ArrayList<>(3);
+
+        @GuardedBy("this")
+        private final List<ScheduledFuture<?>> mTimers = new ArrayList<>(2);
+
+        @GuardedBy("this")
+        private boolean mDone;
+
+        @GuardedBy("this")
+        private boolean mFallingBack;
+
+        @GuardedBy("this")
+        private int mOutstanding;
+
+        Exchange(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+            mMove = move;
+            mCallback = callback;
+        }
+
+        void start() {
+            send(false);
+            if (mHedge) {
+                schedule(this::hedge, mHedgeDelayNanos);
+            }
+            schedule(this::timeout, mDeadlineNanos);
+        }
+
+        @Override
+        public void cancel() {
+            finish();
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (mDone || mFallingBack) {
+                    return;
+                }
+            }
+            mHedges.increment();
+            send(true);
+        }
+
+        private void timeout() {
+            synchronized (this) {
+                if (mDone || mFallingBack) {
+                    return;
+                }
+            }
+            mTimeouts.increment();
+            fallBack();
+        }
+
+        private void send(final boolean hedge) {
+
+            synchronized (this) {
+                mOutstanding++;
+            }
+
+            final long sent = System.nanoTime();
+            final AtomicBoolean returned = new AtomicBoolean();
+            final Cancellable request;
+            try {
+                request = mPrimary.request(mMove, new ResponseCallback<List<Integer>, Throwable>() {
+
+                    @Override
+                    public void onSuccess(final List<Integer> response) {
+                        if (returned.get()) {
+                            recordLatency(System.nanoTime() - sent);
+                        }
+                        if (answer(response) && hedge) {
+                            mHedgeWins.increment();
+                        }
+                    }
+
+                    @Override
+                    public void onError(final Throwable reason) {
+                        failed();
+                    }
+                });
+            } catch (final RuntimeException ex) {
+                failed();
+                return;
+            }
+            returned.set(true);
+            keep(request);
+        }
+
+        /**
+         * A request to the primary failed; once none are left, there is no point waiting for the
+         * deadline.
+         */
+        private void failed() {
+            synchronized (this) {
+                if (mDone || mFallingBack || --mOutstanding > 0) {
+                    return;
+                }
+            }
+            fallBack();
+        }
+
+        private void fallBack() {
+
+            final List<Cancellable> abandoned;
+            synchronized (this) {
+                if (mDone || mFallingBack) {
+                    return;
+                }
+                mFallingBack = true;
+                abandoned = new ArrayList<>(mRequests);
+                mRequests.clear();
+                cancelTimers();
+            }
+            for (final Cancellable request : abandoned) {
+                request.cancel();
+            }
+
+            mFallbacks.increment();
+            final Cancellable request;
+            try {
+                request = mSecondary.request(mMove, new ResponseCallback<List<Integer>, Throwable>() {
+
+                    @Override
+                    public void onSuccess(final List<Integer> response) {
+                        answer(response);
+                    }
+
+                    @Override
+                    public void onError(final Throwable reason) {
+                        if (finish()) {
+                            mCallback.onError(reason);
+                        }
+                    }
+                });
+            } catch (final RuntimeException ex) {
+                if (finish()) {
+                    mCallback.onError(ex);
+                }
+                return;
+            }
+            keep(request);
+        }
+
+        /**
+         * @return whether this response answered the call
+         */
+        private boolean answer(final List<Integer> response) {
+            if (!finish()) {
+                return false;
+            }
+            mCallback.onSuccess(response);
+            return true;
+        }
+
+        /**
+         * Hold on to the request, or cancel it if the call has already finished.
+         */
+        private void keep(final Cancellable request) {
+            synchronized (this) {
+                if (!mDone) {
+                    mRequests.add(request);
+                    return;
+                }
+            }
+            request.cancel();
+        }
+
+        private void schedule(final Runnable task, final long delayNanos) {
+            final ScheduledFuture<?> timer = mScheduler.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+            synchronized (this) {
+                if (!mDone) {
+                    mTimers.add(timer);
+                    return;
+                }
+            }
+            timer.cancel(false);
+        }
+
+        @GuardedBy("this")
+        private void cancelTimers() {
+            for (final ScheduledFuture<?> timer : mTimers) {
+                timer.cancel(false);
+            }
+            mTimers.clear();
+        }
+
+        /**
+         * Finish the call, cancelling any other requests and timers.
+         *
+         * @return {@code false} if the call had already finished
+         */
+        private boolean finish() {
+
+            final List<Cancellable> abandoned;
+            synchronized (this) {
+                if (mDone) {
+                    return false;
+                }
+                mDone = true;
+                abandoned = new ArrayList<>(mRequests);
+                mRequests.clear();
+                cancelTimers();
+            }
+            for (final Cancellable request : abandoned) {
+                request.cancel();
+            }
+            return true;
+        }
+    }
+}
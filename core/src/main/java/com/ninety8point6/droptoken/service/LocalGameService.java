@@ -0,0 +1,148 @@
+package com.ninety8point6.droptoken.service;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.engine.LazySmpSearch;
+import com.ninety8point6.droptoken.engine.NegamaxSearch;
+import com.ninety8point6.droptoken.engine.Position;
+import com.ninety8point6.droptoken.engine.SearchLimits;
+import com.ninety8point6.droptoken.engine.TranspositionTable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * An implementation of the {@link GameService} that plays the opponent's move on the device with a
+ * {@link NegamaxSearch}, rather than calling out to the 9dt service. The contract matches
+ * {@link SimpleGameService}: the response is the provided moves extended by the opponent's move, or
+ * an empty list if the provided moves are invalid (including moves after the game has ended).
+ * <p/>
+ * Searches run on the provided {@link Executor} and share a single {@link TranspositionTable}, so
+ * results from previous turns speed up later ones. With more than one thread, each search is a
+ * {@link LazySmpSearch} whose helpers run on a pool of daemon threads owned by the service.
+ */
+public class LocalGameService implements GameService {
+
+    /**
+     * The default transposition table size: 2^20 entries (16MB).
+     */
+    private static final int DEFAULT_TABLE_SIZE = 20;
+
+    private final GameRules mRules;
+    private final Executor mExecutor;
+    private final TranspositionTable mTable;
+    private final SearchLimits mLimits;
+    private final int mThreads;
+    private final Executor mHelpers;
+
+    /**
+     * Builds a {@link LocalGameService} which searches to the end of the game.
+     *
+     * @param rules the {@link GameRules} of the games being played
+     * @param executor an {@link Executor} to run searches on
+     */
+    public LocalGameService(final GameRules rules, final Executor executor) {
+        this(rules, executor, Preconditions.checkNotNull(rules).cells());
+    }
+
+    /**
+     * Builds a {@link LocalGameService}.
+     *
+     * @param rules the {@link GameRules} of the games being played
+     * @param executor an {@link Executor} to run searches on
+     * @param depth the maximum number of plies to search
+     */
+    public LocalGameService(final GameRules rules, final Executor executor, final int depth) {
+        this(rules, executor, depth, 1);
+    }
+
+    /**
+     * Builds a {@link LocalGameService}.
+     *
+     * @param rules the {@link GameRules} of the games being played
+     * @param executor an {@link Executor} to run searches on
+     * @param depth the maximum number of plies to search
+     * @param threads the number of threads each search uses, including the executor's thread
+     */
+    public LocalGameService(final GameRules rules, final Executor executor, final int depth, final int threads) {
+        this(rules, executor, SearchLimits.depth(depth), threads);
+    }
+
+    /**
+     * Builds a {@link LocalGameService} whose searches are bounded by the provided limits, such as
+     * those of a {@link com.ninety8point6.droptoken.engine.Difficulty}.
+     *
+     * @param rules the {@link GameRules} of the games being played
+     * @param executor an {@link Executor} to run searches on
+     * @param limits the {@link SearchLimits} of each search
+     * @param threads the number of threads each search uses, including the executor's thread
+     */
+    public LocalGameService(final GameRules rules,
+                            final Executor executor,
+                            final SearchLimits limits,
+                            final int threads) {
+        Preconditions.checkArgument(threads > 0);
+        mRules = Preconditions.checkNotNull(rules);
+        mExecutor = Preconditions.checkNotNull(executor);
+        mTable = new TranspositionTable(DEFAULT_TABLE_SIZE);
+        mLimits = Preconditions.checkNotNull(limits);
+        mThreads = threads;
+        mHelpers = threads == 1
+                ? MoreExecutors.directExecutor()
+                : Executors.newFixedThreadPool(threads - 1, new ThreadFactoryBuilder()
+                        .setNameFormat("search-helper-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    @Override
+    public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+
+        Preconditions.checkArgument(move != null);
+        Preconditions.checkArgument(callback != null);
+
+        try {
+            mExecutor.execute(() -> {
+                try {
+                    final MoveSequence reply = reply(move.sequence());
+                    callback.onSuccess(reply == null ? Collections.emptyList() : reply);
+                } catch (final Exception ex) {
+                    callback.onError(ex);
+                }
+            });
+        } catch (final Exception ex) {
+            callback.onError(ex);
+        }
+    }
+
+    /**
+     * Search for the opponent's reply.
+     *
+     * @param moves the moves played so far
+     *
+     * @return the moves extended by the reply, or {@code null} if the moves are invalid
+     */
+    private MoveSequence reply(final MoveSequence moves) {
+
+        final Position position;
+        try {
+            position = new Position(mRules, moves);
+        } catch (final IllegalArgumentException ex) {
+            return null;
+        }
+
+        if (position.isLastMoveWin() || position.isFull()) {
+            return null;
+        }
+
+        return moves.append(new LazySmpSearch(mRules, mTable, mHelpers, mThreads).search(position, mLimits).column());
+    }
+}
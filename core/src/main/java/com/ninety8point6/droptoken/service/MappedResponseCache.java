@@ -0,0 +1,288 @@
+package com.ninety8point6.droptoken.service;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A persistent, fixed-size cache of the 9dt service's replies, held in a memory-mapped file so it
+ * survives restarts and is read without any parsing. Each entry maps a move sequence to the reply
+ * column, or to {@link #INVALID} when the service rejected the moves.
+ * <p/>
+ * The file is a small header followed by a set-associative hash table of {@link #WAYS}-entry sets.
+ * An entry holds the whole move sequence, packed 4 bits per move into two {@code long}s, so lookups
+ * are exact; sequences longer than {@link #MAX_MOVES} are not cached. A full set evicts with the
+ * CLOCK (second chance) policy: entries are marked when read, and each set keeps a hand, stored in
+ * the padding of its first entry. Insertion takes the first unmarked entry from the hand onwards,
+ * clearing marks as it passes them, and leaves the hand just past the entry it took.
+ * <p/>
+ * Entries are published by writing the key and reply before the occupied flag, so a process dying
+ * mid-write leaves at most one entry missing rather than corrupt. A file whose header does not match
+ * the requested capacity is reset.
+ */
+@ThreadSafe
+public final class MappedResponseCache implements Closeable {
+
+    /**
+     * Returned by {@link #get} for moves the service rejected as invalid.
+     */
+    public static final int INVALID = -1;
+
+    /**
+     * Returned by {@link #get} when there is no entry for the moves.
+     */
+    public static final int ABSENT = -2;
+
+    /**
+     * The longest move sequence the cache can hold.
+     */
+    public static final int MAX_MOVES = 2 * Long.SIZE / 4;
+
+    /**
+     * The number of entries in each set.
+     */
+    static final int WAYS = 4;
+
+    private static final int MAGIC = 0x39445443; // "9DTC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    // Entry layout: key (2 longs), length, reply, flags, hand (first entry of a set only), padding
+    private static final int ENTRY_BYTES = 24;
+    private static final int KEY_LOW = 0;
+    private static final int KEY_HIGH = 8;
+    private static final int LENGTH = 16;
+    private static final int REPLY = 17;
+    private static final int FLAGS = 18;
+    private static final int HAND = 19;
+
+    private static final byte OCCUPIED = 1;
+    private static final byte REFERENCED = 2;
+
+    /**
+     * Sets are guarded by one of these locks, chosen by set index.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    private final RandomAccessFile mFile;
+    private final MappedByteBuffer mBuffer;
+    private final int mSetMask;
+    private final Object[] mLocks;
+
+    private final LongAdder mEvictions = new LongAdder();
+
+    private MappedResponseCache(final RandomAccessFile file, final MappedByteBuffer buffer, final int sets) {
+        mFile = file;
+        mBuffer = buffer;
+        mSetMask = sets - 1;
+        mLocks = new Object[Math.min(LOCK_STRIPES, sets)];
+        for (int i = 0; i < mLocks.length; i++) {
+            mLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Open (or create) the cache file.
+     *
+     * @param file the cache file
+     * @param capacity the maximum number of entries, rounded up to a power of two of at least
+     *                 {@link #WAYS}
+     *
+     * @return the {@link MappedResponseCache}
+     */
+    public static MappedResponseCache open(final File file, final int capacity) throws IOException {
+
+        Preconditions.checkNotNull(file);
+        Preconditions.checkArgument(capacity > 0 && capacity <= 1 << 24);
+
+        final int sets = Integer.highestOneBit(Math.max(WAYS, capacity) * 2 - 1) / WAYS;
+        final long length = HEADER_BYTES + (long) sets * WAYS * ENTRY_BYTES;
+
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            final boolean fresh = raf.length() != length;
+            raf.setLength(length);
+            final MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+
+            if (fresh || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != sets) {
+                for (int i = 0; i < length; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, sets);
+                buffer.putInt(12, WAYS);
+                // Written last, so a half-initialized file is reset again next time
+                buffer.putInt(0, MAGIC);
+            }
+            return new MappedResponseCache(raf, buffer, sets);
+        } catch (final IOException | RuntimeException ex) {
+            raf.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Look up the service's reply to the provided moves.
+     *
+     * @param moves the moves sent to the service
+     *
+     * @return the reply column, {@link #INVALID} if the service rejected the moves, or
+     * {@link #ABSENT} if there is no entry
+     */
+    public int get(final MoveSequence moves) {
+
+        Preconditions.checkNotNull(moves);
+        if (moves.size() > MAX_MOVES) {
+            return ABSENT;
+        }
+
+        final long low = low(moves);
+        final long high = high(moves);
+        final int set = set(low, high, moves.size());
+        synchronized (mLocks[set % mLocks.length]) {
+            final int entry = find(set, low, high, moves.size());
+            if (entry < 0) {
+                return ABSENT;
+            }
+            mBuffer.put(entry + FLAGS, (byte) (OCCUPIED | REFERENCED));
+            return mBuffer.get(entry + REPLY);
+        }
+    }
+
+    /**
+     * Record the service's reply to the provided moves, evicting another entry if the set is full.
+     * Sequences longer than {@link #MAX_MOVES} are ignored.
+     *
+     * @param moves the moves sent to the service
+     * @param reply the reply column, or {@link #INVALID} if the service rejected the moves
+     */
+    public void put(final MoveSequence moves, final int reply) {
+
+        Preconditions.checkNotNull(moves);
+        Preconditions.checkArgument(reply >= INVALID && reply < MoveSequence.COLUMN_LIMIT);
+        if (moves.size() > MAX_MOVES) {
+            return;
+        }
+
+        final long low = low(moves);
+        final long high = high(moves);
+        final int set = set(low, high, moves.size());
+        synchronized (mLocks[set % mLocks.length]) {
+
+            int entry = find(set, low, high, moves.size());
+            if (entry < 0) {
+                entry = victim(set);
+            }
+
+            mBuffer.put(entry + FLAGS, (byte) 0);
+            mBuffer.putLong(entry + KEY_LOW, low);
+            mBuffer.putLong(entry + KEY_HIGH, high);
+            mBuffer.put(entry + LENGTH, (byte) moves.size());
+            mBuffer.put(entry + REPLY, (byte) reply);
+            mBuffer.put(entry + FLAGS, OCCUPIED);
+        }
+    }
+
+    /**
+     * @return the maximum number of entries
+     */
+    public int capacity() {
+        return (mSetMask + 1) * WAYS;
+    }
+
+    /**
+     * @return the number of entries evicted to make room for others since the cache was opened
+     */
+    public long evictions() {
+        return mEvictions.sum();
+    }
+
+    /**
+     * Write any changes through to the file.
+     */
+    public void flush() {
+        mBuffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        mFile.close();
+    }
+
+    /**
+     * @return the offset of the entry for the key in the set, or -1
+     */
+    private int find(final int set, final long low, final long high, final int length) {
+        final int base = HEADER_BYTES + set * WAYS * ENTRY_BYTES;
+        for (int way = 0; way < WAYS; way++) {
+            final int entry = base + way * ENTRY_BYTES;
+            if ((mBuffer.get(entry + FLAGS) & OCCUPIED) != 0
+                    && mBuffer.get(entry + LENGTH) == length
+                    && mBuffer.getLong(entry + KEY_LOW) == low
+                    && mBuffer.getLong(entry + KEY_HIGH) == high) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the offset of the entry to overwrite in the set: an empty one if there is one,
+     * otherwise the first from the set's hand onwards not referenced since the hand last passed it
+     */
+    private int victim(final int set) {
+
+        final int base = HEADER_BYTES + set * WAYS * ENTRY_BYTES;
+        for (int way = 0; way < WAYS; way++) {
+            final int entry = base + way * ENTRY_BYTES;
+            if ((mBuffer.get(entry + FLAGS) & OCCUPIED) == 0) {
+                return entry;
+            }
+        }
+
+        mEvictions.increment();
+        // Masked, since the hand read back from the file is not trusted
+        for (int way = (mBuffer.get(base + HAND) & 0xFF) % WAYS; ; way = (way + 1) % WAYS) {
+            final int entry = base + way * ENTRY_BYTES;
+            final byte flags = mBuffer.get(entry + FLAGS);
+            if ((flags & REFERENCED) == 0) {
+                mBuffer.put(base + HAND, (byte) ((way + 1) % WAYS));
+                return entry;
+            }
+            mBuffer.put(entry + FLAGS, (byte) (flags & ~REFERENCED));
+        }
+    }
+
+    private int set(final long low, final long high, final int length) {
+        long hash = low * 0x9E3779B97F4A7C15L ^ high * 0xC2B2AE3D27D4EB4FL ^ length;
+        hash ^= hash >>> 29;
+        return (int) hash & mSetMask;
+    }
+
+    private static long low(final MoveSequence moves) {
+        return pack(moves, 0);
+    }
+
+    private static long high(final MoveSequence moves) {
+        return pack(moves, MAX_MOVES / 2);
+    }
+
+    private static long pack(final MoveSequence moves, final int from) {
+        long packed = 0;
+        final int to = Math.min(moves.size(), from + MAX_MOVES / 2);
+        for (int i = from; i < to; i++) {
+            packed |= (long) moves.column(i) << ((i - from) * 4);
+        }
+        return packed;
+    }
+}
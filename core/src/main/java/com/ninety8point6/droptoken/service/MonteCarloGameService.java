@@ -0,0 +1,93 @@
+package com.ninety8point6.droptoken.service;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.engine.MonteCarloTreeSearch;
+import com.ninety8point6.droptoken.engine.Position;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * An implementation of the {@link GameService} that plays the opponent's move with a
+ * {@link MonteCarloTreeSearch}, for board variants too large for an exhaustive search. The contract
+ * matches {@link SimpleGameService}: the response is the provided moves extended by the opponent's
+ * move, or an empty list if the provided moves are invalid.
+ * <p/>
+ * The provided {@link Executor} only coordinates each search; the playouts themselves run in the
+ * search's {@link java.util.concurrent.ForkJoinPool}.
+ */
+public class MonteCarloGameService implements GameService {
+
+    private final GameRules mRules;
+    private final Executor mExecutor;
+    private final MonteCarloTreeSearch mSearch;
+    private final long mPlayouts;
+
+    /**
+     * Builds the {@link MonteCarloGameService}.
+     *
+     * @param rules the {@link GameRules} of the games being played
+     * @param executor an {@link Executor} to coordinate searches on
+     * @param search the {@link MonteCarloTreeSearch} to run
+     * @param playouts the number of playouts per move
+     */
+    public MonteCarloGameService(final GameRules rules,
+                                 final Executor executor,
+                                 final MonteCarloTreeSearch search,
+                                 final long playouts) {
+        Preconditions.checkArgument(playouts > 0);
+        mRules = Preconditions.checkNotNull(rules);
+        mExecutor = Preconditions.checkNotNull(executor);
+        mSearch = Preconditions.checkNotNull(search);
+        mPlayouts = playouts;
+    }
+
+    @Override
+    public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+
+        Preconditions.checkArgument(move != null);
+        Preconditions.checkArgument(callback != null);
+
+        try {
+            mExecutor.execute(() -> {
+                try {
+                    final MoveSequence reply = reply(move.sequence());
+                    callback.onSuccess(reply == null ? Collections.emptyList() : reply);
+                } catch (final Exception ex) {
+                    callback.onError(ex);
+                }
+            });
+        } catch (final Exception ex) {
+            callback.onError(ex);
+        }
+    }
+
+    /**
+     * Search for the opponent's reply.
+     *
+     * @param moves the moves played so far
+     *
+     * @return the moves extended by the reply, or {@code null} if the moves are invalid
+     */
+    private MoveSequence reply(final MoveSequence moves) {
+
+        final Position position;
+        try {
+            position = new Position(mRules, moves);
+        } catch (final IllegalArgumentException ex) {
+            return null;
+        }
+
+        if (position.isLastMoveWin() || position.isFull()) {
+            return null;
+        }
+
+        return moves.append(mSearch.search(position, mPlayouts).column());
+    }
+}
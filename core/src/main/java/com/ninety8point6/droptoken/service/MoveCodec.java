@@ -0,0 +1,135 @@
+package com.ninety8point6.droptoken.service;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import java.io.IOException;
+
+import okio.BufferedSource;
+
+/**
+ * Encodes and decodes the 9dt service's JSON arrays of columns without going through Gson: the
+ * request parameter is written straight into its percent-encoded form, and the response is read
+ * byte by byte from the body's {@link BufferedSource} into a {@link MoveSequence}, so neither the
+ * body {@code String}, a reflective parse nor boxed columns are created along the way.
+ */
+public final class MoveCodec {
+
+    private static final String OPEN = "%5B";
+    private static final String SEPARATOR = "%2C";
+    private static final String CLOSE = "%5D";
+
+    private MoveCodec() {
+    }
+
+    /**
+     * Write the moves as a JSON array, percent-encoded for use as a query parameter value.
+     *
+     * @param moves the moves
+     *
+     * @return the encoded value, e.g. {@code %5B0%2C3%5D} for {@code [0,3]}
+     */
+    public static String encodeQueryValue(final MoveSequence moves) {
+
+        Preconditions.checkNotNull(moves);
+
+        // Each column takes at most two digits, plus a separator
+        final StringBuilder builder = new StringBuilder(OPEN.length() + CLOSE.length() + moves.size() * 5);
+        builder.append(OPEN);
+        for (int i = 0; i < moves.size(); i++) {
+            if (i > 0) {
+                builder.append(SEPARATOR);
+            }
+            builder.append(moves.column(i));
+        }
+        return builder.append(CLOSE).toString();
+    }
+
+    /**
+     * Read a JSON array of columns, such as {@code [0, 3, 1]}, which must make up the rest of the
+     * source.
+     *
+     * @param source the {@link BufferedSource} of the response body
+     *
+     * @return the moves
+     *
+     * @throws IOException if the source cannot be read or does not hold a valid array of columns
+     */
+    public static MoveSequence decode(final BufferedSource source) throws IOException {
+
+        Preconditions.checkNotNull(source);
+
+        skipWhitespace(source);
+        expect(source, '[');
+        skipWhitespace(source);
+
+        final MoveSequence.Builder builder = new MoveSequence.Builder();
+        if (peek(source) == ']') {
+            source.readByte();
+        } else {
+            while (true) {
+                skipWhitespace(source);
+                source.require(1);
+                final long column;
+                try {
+                    column = source.readDecimalLong();
+                } catch (final NumberFormatException ex) {
+                    throw new IOException("Expected a column.", ex);
+                }
+                if (column < 0 || column >= MoveSequence.COLUMN_LIMIT) {
+                    throw new IOException("Column out of range: " + column);
+                }
+                builder.add((int) column);
+
+                skipWhitespace(source);
+                final byte next = read(source);
+                if (next == ']') {
+                    break;
+                }
+                if (next != ',') {
+                    throw new IOException("Expected ',' or ']' but was '" + (char) next + "'.");
+                }
+            }
+        }
+
+        skipWhitespace(source);
+        if (!source.exhausted()) {
+            throw new IOException("Unexpected content after the array.");
+        }
+        return builder.build();
+    }
+
+    private static void expect(final BufferedSource source, final char expected) throws IOException {
+        final byte actual = read(source);
+        if (actual != expected) {
+            throw new IOException("Expected '" + expected + "' but was '" + (char) actual + "'.");
+        }
+    }
+
+    /**
+     * @return the next byte, or throws {@link java.io.EOFException} at the end of the source (a
+     * {@link okio.Buffer} would otherwise throw {@link IllegalStateException})
+     */
+    private static byte read(final BufferedSource source) throws IOException {
+        source.require(1);
+        return source.readByte();
+    }
+
+    /**
+     * @return the next byte without consuming it
+     */
+    private static byte peek(final BufferedSource source) throws IOException {
+        source.require(1);
+        return source.buffer().getByte(0);
+    }
+
+    private static void skipWhitespace(final BufferedSource source) throws IOException {
+        while (source.request(1)) {
+            final byte next = source.buffer().getByte(0);
+            if (next != ' ' && next != '\t' && next != '\n' && next != '\r') {
+                return;
+            }
+            source.readByte();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ninety8point6.droptoken.service;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.engine.Position;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * An implementation of the {@link GameService} that plays a uniformly random playable column, as a
+ * baseline opponent for self-play and load tests. The contract matches {@link SimpleGameService},
+ * and the reply is delivered synchronously.
+ */
+public class RandomGameService implements GameService {
+
+    private final GameRules mRules;
+    private final Random mRandom;
+
+    /**
+     * Builds the {@link RandomGameService}.
+     *
+     * @param rules the {@link GameRules} of the games being played
+     * @param seed the seed for the random number generator
+     */
+    public RandomGameService(final GameRules rules, final long seed) {
+        mRules = Preconditions.checkNotNull(rules);
+        mRandom = new Random(seed);
+    }
+
+    @Override
+    public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+
+        Preconditions.checkArgument(move != null);
+        Preconditions.checkArgument(callback != null);
+
+        final MoveSequence moves = move.sequence();
+        final Position position;
+        try {
+            position = new Position(mRules, moves);
+        } catch (final IllegalArgumentException ex) {
+            callback.onSuccess(Collections.emptyList());
+            return;
+        }
+
+        if (position.isLastMoveWin() || position.isFull()) {
+            callback.onSuccess(Collections.emptyList());
+            return;
+        }
+
+        int choice = mRandom.nextInt(mRules.columns() - Long.bitCount(position.occupied() & mRules.topRowMask()));
+        for (int column = 0; column < mRules.columns(); column++) {
+            if (position.canPlay(column) && choice-- == 0) {
+                callback.onSuccess(moves.append(column));
+                return;
+            }
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.ninety8point6.droptoken.service;
 
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
+import com.ninety8point6.droptoken.concepts.Cancellable;
+import com.ninety8point6.droptoken.concepts.CancellableCallback;
 import com.ninety8point6.droptoken.concepts.GameService;
 import com.ninety8point6.droptoken.concepts.Move;
 import com.ninety8point6.droptoken.concepts.ResponseCallback;
 
 import java.io.IOException;
 import java.net.URL;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -31,7 +31,6 @@ public class SimpleGameService implements GameService {
      */
     private static final String MOVES_KEY = "moves";
 
-    private final Gson mGson;
     private final OkHttpClient mClient;
     private final HttpUrl mEndpoint;
 
@@ -42,7 +41,6 @@ public class SimpleGameService implements GameService {
      * @param endpoint the base {@link URL} for accessing the 9dt service
      */
     public SimpleGameService(final OkHttpClient client, final URL endpoint) {
-        mGson = new Gson();
         mClient = Preconditions.checkNotNull(client);
 
         // Two point checked required as HttpUrl#get is nullable
@@ -56,12 +54,44 @@ public class SimpleGameService implements GameService {
         Preconditions.checkArgument(move != null);
         Preconditions.checkArgument(callback != null);
 
+        enqueue(move, callback);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Cancelling also cancels the underlying {@link Call}, freeing its connection and its slot in
+     * the client's dispatcher.
+     */
+    @Override
+    public Cancellable request(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+
+        Preconditions.checkArgument(move != null);
+        Preconditions.checkArgument(callback != null);
+
+        final CancellableCallback<List<Integer>, Throwable> cancellable = new CancellableCallback<>(callback);
+        final Call call = enqueue(move, cancellable);
+        return () -> {
+            cancellable.cancel();
+            if (call != null) {
+                call.cancel();
+            }
+        };
+    }
+
+    /**
+     * Enqueue the call for the provided {@link Move}.
+     *
+     * @return the enqueued {@link Call}, or null if it could not be built (the error has been
+     * delivered to the callback)
+     */
+    private Call enqueue(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
         try {
 
-            // Finalize the url using the endpoint and the moves parameter
+            // Finalize the url using the endpoint and the moves parameter, already percent-encoded
             final HttpUrl url = mEndpoint
                     .newBuilder()
-                    .addQueryParameter(MOVES_KEY, mGson.toJson(move.moves()))
+                    .addEncodedQueryParameter(MOVES_KEY, MoveCodec.encodeQueryValue(move.sequence()))
                     .build();
 
             // Build the request and enqueue the call
@@ -69,9 +99,12 @@ public class SimpleGameService implements GameService {
                     .url(url)
                     .build();
 
-            mClient.newCall(request).enqueue(new PlayMoveCallback(callback));
+            final Call call = mClient.newCall(request);
+            call.enqueue(new PlayMoveCallback(callback));
+            return call;
         } catch (final Exception ex) {
             callback.onError(ex);
+            return null;
         }
     }
 
@@ -106,14 +139,15 @@ public class SimpleGameService implements GameService {
         public void onResponse(final Call call, final Response response) throws IOException {
             switch (response.code()) {
                 case 200:
-                    final Integer[] moves;
+                    final List<Integer> moves;
                     try (final ResponseBody responseBody = response.body()) {
-                        moves = mGson.fromJson(responseBody.string(), Integer[].class); // #body() only null in Callback#onFailure
+                        // Decoded straight from the body's source; #body() only null in Callback#onFailure
+                        moves = MoveCodec.decode(responseBody.source());
                     } catch (final IOException exception) {
                         mCallback.onError(exception);
                         return;
                     }
-                    mCallback.onSuccess(Arrays.asList(moves));
+                    mCallback.onSuccess(moves);
                     break;
                 case 400:
                     mCallback.onSuccess(Collections.emptyList());
@@ -0,0 +1,209 @@
+package com.ninety8point6.droptoken.service;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.Cancellable;
+import com.ninety8point6.droptoken.concepts.CancellableCallback;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link GameService} decorator which coalesces identical requests: while a request for a move
+ * sequence is outstanding, further requests for the same sequence wait on it instead of reaching
+ * the delegate, and every caller receives the one response (or error). Requests are keyed by the
+ * {@link MoveSequence}, so double taps, re-entry on resume, prefetches and many sessions asking
+ * about the same opening all share a single call.
+ * <p/>
+ * A caller cancelling a {@link #request} only stops its own callback; the delegate's request is
+ * cancelled once every caller sharing it has cancelled. Responses are shared between callers and
+ * must not be modified.
+ */
+@ThreadSafe
+public class SingleFlightGameService implements GameService {
+
+    private final GameService mDelegate;
+    private final ConcurrentMap<MoveSequence, Flight> mFlights = new ConcurrentHashMap<>();
+
+    private final LongAdder mRequests = new LongAdder();
+    private final LongAdder mDeduplicated = new LongAdder();
+
+    /**
+     * Builds the {@link SingleFlightGameService}.
+     *
+     * @param delegate the {@link GameService} which plays the coalesced requests
+     */
+    public SingleFlightGameService(final GameService delegate) {
+        mDelegate = Preconditions.checkNotNull(delegate);
+    }
+
+    @Override
+    public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+        request(move, callback);
+    }
+
+    @Override
+    public Cancellable request(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+
+        Preconditions.checkArgument(move != null);
+        Preconditions.checkArgument(callback != null);
+
+        final MoveSequence key = move.sequence();
+        final CancellableCallback<List<Integer>, Throwable> waiter = new CancellableCallback<>(callback);
+        while (true) {
+
+            final Flight flight = new Flight(key);
+            final Flight existing = mFlights.putIfAbsent(key, flight);
+
+            if (existing == null) {
+                flight.join(waiter);
+                mRequests.increment();
+                flight.start(move);
+                return () -> flight.cancel(waiter);
+            }
+
+            if (existing.join(waiter)) {
+                mDeduplicated.increment();
+                return () -> existing.cancel(waiter);
+            }
+
+            // The existing flight finished between the lookup and the join; it has been removed
+        }
+    }
+
+    /**
+     * @return the number of requests passed on to the delegate
+     */
+    public long requests() {
+        return mRequests.sum();
+    }
+
+    /**
+     * @return the number of requests answered by sharing another caller's outstanding request
+     */
+    public long deduplicated() {
+        return mDeduplicated.sum();
+    }
+
+    /**
+     * @return the number of distinct requests currently outstanding
+     */
+    public int inFlight() {
+        return mFlights.size();
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * An outstanding request to the delegate and the callers waiting on it.
+     */
+    private final class Flight implements ResponseCallback<List<Integer>, Throwable> {
+
+        private final MoveSequence mKey;
+
+        @GuardedBy("this")
+        private final List<CancellableCallback<List<Integer>, Throwable>> mWaiters = new ArrayList<>(1);
+
+        @GuardedBy("this")
+        private boolean mDone;
+
+        @GuardedBy("this")
+        private Cancellable mRequest;
+
+        Flight(final MoveSequence key) {
+            mKey = key;
+        }
+
+        void start(final Move move) {
+
+            final Cancellable request;
+            try {
+                request = mDelegate.request(move, this);
+            } catch (final RuntimeException ex) {
+                onError(ex);
+                return;
+            }
+
+            final boolean abandoned;
+            synchronized (this) {
+                mRequest = request;
+                abandoned = !mDone && mWaiters.isEmpty();
+            }
+            if (abandoned) {
+                request.cancel();
+            }
+        }
+
+        /**
+         * @return {@code false} if the flight has already finished and cannot be joined
+         */
+        synchronized boolean join(final CancellableCallback<List<Integer>, Throwable> waiter) {
+            if (mDone) {
+                return false;
+            }
+            mWaiters.add(waiter);
+            return true;
+        }
+
+        void cancel(final CancellableCallback<List<Integer>, Throwable> waiter) {
+
+            waiter.cancel();
+
+            final Cancellable request;
+            synchronized (this) {
+                if (mDone || !mWaiters.remove(waiter) || !mWaiters.isEmpty()) {
+                    return;
+                }
+                // Nobody is waiting any more: retire the flight so new callers start afresh
+                mDone = true;
+                request = mRequest;
+            }
+            mFlights.remove(mKey, this);
+            if (request != null) {
+                request.cancel();
+            }
+        }
+
+        @Override
+        public void onSuccess(final List<Integer> response) {
+            final List<CancellableCallback<List<Integer>, Throwable>> waiters = finish();
+            final List<Integer> shared = waiters.size() > 1 ? Collections.unmodifiableList(response) : response;
+            for (final CancellableCallback<List<Integer>, Throwable> waiter : waiters) {
+                waiter.onSuccess(shared);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable reason) {
+            for (final CancellableCallback<List<Integer>, Throwable> waiter : finish()) {
+                waiter.onError(reason);
+            }
+        }
+
+        /**
+         * Retire the flight, so later callers start a new request, and take its waiters.
+         */
+        private List<CancellableCallback<List<Integer>, Throwable>> finish() {
+            mFlights.remove(mKey, this);
+            synchronized (this) {
+                if (mDone) {
+                    return Collections.emptyList();
+                }
+                mDone = true;
+                return new ArrayList<>(mWaiters);
+            }
+        }
+    }
+}
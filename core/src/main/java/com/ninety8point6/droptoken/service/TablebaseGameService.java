@@ -0,0 +1,59 @@
+package com.ninety8point6.droptoken.service;
+
+import com.google.common.base.Preconditions;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.engine.Position;
+import com.ninety8point6.droptoken.engine.Tablebase;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An implementation of the {@link GameService} that plays perfectly by looking moves up in a
+ * precomputed {@link Tablebase}. A lookup is a handful of memory reads, so the callback is invoked
+ * synchronously on the calling thread.
+ * <p/>
+ * The contract matches {@link SimpleGameService}: the response is the provided moves extended by
+ * the opponent's move, or an empty list if the provided moves are invalid (including moves after
+ * the game has ended).
+ */
+public class TablebaseGameService implements GameService {
+
+    private final Tablebase mTablebase;
+
+    /**
+     * Builds the {@link TablebaseGameService}.
+     *
+     * @param tablebase the {@link Tablebase} to play from
+     */
+    public TablebaseGameService(final Tablebase tablebase) {
+        mTablebase = Preconditions.checkNotNull(tablebase);
+    }
+
+    @Override
+    public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+
+        Preconditions.checkArgument(move != null);
+        Preconditions.checkArgument(callback != null);
+
+        final MoveSequence moves = move.sequence();
+        final List<Integer> reply;
+        try {
+            final Position position = new Position(mTablebase.rules(), moves);
+            reply = position.isLastMoveWin() || position.isFull()
+                    ? Collections.emptyList()
+                    : moves.append(mTablebase.bestMove(position));
+        } catch (final IllegalArgumentException ex) {
+            callback.onSuccess(Collections.emptyList());
+            return;
+        } catch (final Exception ex) {
+            callback.onError(ex);
+            return;
+        }
+
+        callback.onSuccess(reply);
+    }
+}
@@ -0,0 +1,425 @@
+package com.ninety8point6.droptoken.simulation;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.concepts.TokenLocation;
+import com.ninety8point6.droptoken.engine.MonteCarloTreeSearch;
+import com.ninety8point6.droptoken.engine.Tablebase;
+import com.ninety8point6.droptoken.engine.TablebaseGenerator;
+import com.ninety8point6.droptoken.game.HeadlessGameManager;
+import com.ninety8point6.droptoken.service.LocalGameService;
+import com.ninety8point6.droptoken.service.MonteCarloGameService;
+import com.ninety8point6.droptoken.service.RandomGameService;
+import com.ninety8point6.droptoken.service.TablebaseGameService;
+import com.ninety8point6.droptoken.store.InMemoryGameStore;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Plays games between two {@link GameService}s through a {@link HeadlessGameManager}, in parallel
+ * and without Android, to load-test opponents and the board code:
+ * <pre>
+ *     SelfPlaySimulator [--rules rows,columns,winLength] [--games n] [--threads n]
+ *                       [--player spec] [--opponent spec] [--seed n]
+ * </pre>
+ * where each {@code spec} is one of {@code random}, {@code negamax:depth}, {@code mcts:playouts} or
+ * {@code tablebase}. The player drives the manager as the user would and the opponent is the
+ * manager's service. The first move alternates between them from game to game.
+ * <p/>
+ * Each worker thread plays its games one after another with its own services, manager and store,
+ * so nothing is shared between threads until the per-worker statistics are merged.
+ */
+public final class SelfPlaySimulator {
+
+    private final GameRules mRules;
+    private final IntFunction<GameService> mPlayers;
+    private final IntFunction<GameService> mOpponents;
+    private final int mThreads;
+
+    /**
+     * Builds a {@link SelfPlaySimulator}.
+     *
+     * @param rules the {@link GameRules} of the games
+     * @param players creates the player's {@link GameService} for a worker, given its index
+     * @param opponents creates the opponent's {@link GameService} for a worker, given its index
+     * @param threads the number of worker threads
+     */
+    public SelfPlaySimulator(final GameRules rules,
+                             final IntFunction<GameService> players,
+                             final IntFunction<GameService> opponents,
+                             final int threads) {
+        Preconditions.checkArgument(threads > 0);
+        mRules = Preconditions.checkNotNull(rules);
+        mPlayers = Preconditions.checkNotNull(players);
+        mOpponents = Preconditions.checkNotNull(opponents);
+        mThreads = threads;
+    }
+
+    public static void main(final String[] args) throws Exception {
+
+        GameRules rules = GameRules.DEFAULT;
+        long games = 1_000_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String player = "random";
+        String opponent = "random";
+        long seed = 42;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rules":
+                    final String[] dimensions = args[++i].split(",");
+                    Preconditions.checkArgument(dimensions.length == 3, "Expected rows,columns,winLength.");
+                    rules = new GameRules(Integer.parseInt(dimensions[0]),
+                            Integer.parseInt(dimensions[1]),
+                            Integer.parseInt(dimensions[2]));
+                    break;
+                case "--games":
+                    games = Long.parseLong(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--player":
+                    player = args[++i];
+                    break;
+                case "--opponent":
+                    opponent = args[++i];
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        final Report report = new SelfPlaySimulator(rules,
+                services(rules, player, seed),
+                services(rules, opponent, ~seed),
+                threads).run(games);
+
+        System.out.printf("%s vs %s on %dx%d (%d in a row), %d threads%n",
+                player, opponent, rules.rows(), rules.columns(), rules.winLength(), threads);
+        System.out.printf("%d games, %d moves in %.1f ms: %.0f games/s, %.0f moves/s%n",
+                report.games(),
+                report.moves(),
+                report.nanos() / 1e6,
+                report.gamesPerSecond(),
+                report.movesPerSecond());
+        System.out.printf("%s wins %d (%.1f%%), %s wins %d (%.1f%%), draws %d (%.1f%%), errors %d%n",
+                player, report.playerWins(), 100.0 * report.playerWins() / Math.max(1, report.games()),
+                opponent, report.opponentWins(), 100.0 * report.opponentWins() / Math.max(1, report.games()),
+                report.draws(), 100.0 * report.draws() / Math.max(1, report.games()),
+                report.errors());
+        System.out.printf("Game length: mean %.2f, p50 %d, p90 %d, p99 %d%n",
+                report.meanLength(),
+                report.lengthPercentile(0.50),
+                report.lengthPercentile(0.90),
+                report.lengthPercentile(0.99));
+        for (int length = 0; length <= rules.cells(); length++) {
+            if (report.lengthCount(length) > 0) {
+                System.out.printf("%5d %12d%n", length, report.lengthCount(length));
+            }
+        }
+    }
+
+    /**
+     * Play the provided number of games.
+     *
+     * @param games the number of games to play
+     *
+     * @return the {@link Report} of the games
+     */
+    public Report run(final long games) throws InterruptedException, ExecutionException {
+
+        Preconditions.checkArgument(games >= 0);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(mThreads, new ThreadFactoryBuilder()
+                .setNameFormat("self-play-%d")
+                .setDaemon(true)
+                .build());
+
+        final AtomicLong next = new AtomicLong();
+        final long start = System.nanoTime();
+        try {
+            final List<Future<Report>> futures = new ArrayList<>(mThreads);
+            for (int i = 0; i < mThreads; i++) {
+                final int worker = i;
+                futures.add(executor.submit(() -> new Worker(worker).play(next, games)));
+            }
+
+            final Report report = new Report(mRules.cells());
+            for (final Future<Report> future : futures) {
+                report.merge(future.get());
+            }
+            report.mNanos = System.nanoTime() - start;
+            return report;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Create services from a command line {@code spec}, one per worker.
+     */
+    private static IntFunction<GameService> services(final GameRules rules, final String spec, final long seed) {
+
+        final String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "random":
+                return worker -> new RandomGameService(rules, seed + worker);
+            case "negamax":
+                final int depth = parts.length > 1 ? Integer.parseInt(parts[1]) : rules.cells();
+                return worker -> new LocalGameService(rules, Runnable::run, depth);
+            case "mcts":
+                final long playouts = parts.length > 1 ? Long.parseLong(parts[1]) : 10_000;
+                return worker -> new MonteCarloGameService(rules,
+                        Runnable::run,
+                        new MonteCarloTreeSearch(ForkJoinPool.commonPool(), 1, seed + worker),
+                        playouts);
+            case "tablebase":
+                final Tablebase tablebase = new Tablebase(rules, ByteBuffer.wrap(TablebaseGenerator.generate(rules)));
+                return worker -> new TablebaseGameService(tablebase);
+            default:
+                throw new IllegalArgumentException("Unknown player: " + spec);
+        }
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * The statistics of a simulation. The player is {@link GameState#PLAYER_1} of the manager and
+     * the opponent is {@link GameState#PLAYER_2}.
+     */
+    public static final class Report {
+
+        private final long[] mLengths;
+
+        private long mGames;
+        private long mMoves;
+        private long mPlayerWins;
+        private long mOpponentWins;
+        private long mDraws;
+        private long mErrors;
+        private long mNanos;
+
+        Report(final int cells) {
+            mLengths = new long[cells + 1];
+        }
+
+        /**
+         * @return the number of games started
+         */
+        public long games() {
+            return mGames;
+        }
+
+        /**
+         * @return the number of moves played across every finished game
+         */
+        public long moves() {
+            return mMoves;
+        }
+
+        /**
+         * @return the number of games won by the player
+         */
+        public long playerWins() {
+            return mPlayerWins;
+        }
+
+        /**
+         * @return the number of games won by the opponent
+         */
+        public long opponentWins() {
+            return mOpponentWins;
+        }
+
+        /**
+         * @return the number of drawn games
+         */
+        public long draws() {
+            return mDraws;
+        }
+
+        /**
+         * @return the number of games abandoned because of an error
+         */
+        public long errors() {
+            return mErrors;
+        }
+
+        /**
+         * @return the wall-clock duration of the simulation in nanoseconds
+         */
+        public long nanos() {
+            return mNanos;
+        }
+
+        /**
+         * @param length a number of moves
+         *
+         * @return the number of finished games of that length
+         */
+        public long lengthCount(final int length) {
+            return length < mLengths.length ? mLengths[length] : 0;
+        }
+
+        /**
+         * @return the mean number of moves of the finished games
+         */
+        public double meanLength() {
+            final long finished = mGames - mErrors;
+            return finished == 0 ? 0 : (double) mMoves / finished;
+        }
+
+        /**
+         * @param fraction a fraction between 0 and 1
+         *
+         * @return the smallest length at least that fraction of finished games do not exceed
+         */
+        public int lengthPercentile(final double fraction) {
+            final long finished = mGames - mErrors;
+            final long target = (long) Math.ceil(fraction * finished);
+            long seen = 0;
+            for (int length = 0; length < mLengths.length; length++) {
+                seen += mLengths[length];
+                if (seen >= target && seen > 0) {
+                    return length;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return the number of games completed per second
+         */
+        public double gamesPerSecond() {
+            return mNanos == 0 ? 0 : mGames * 1e9 / mNanos;
+        }
+
+        /**
+         * @return the number of moves played per second
+         */
+        public double movesPerSecond() {
+            return mNanos == 0 ? 0 : mMoves * 1e9 / mNanos;
+        }
+
+        private void merge(final Report other) {
+            for (int length = 0; length < mLengths.length; length++) {
+                mLengths[length] += other.mLengths[length];
+            }
+            mGames += other.mGames;
+            mMoves += other.mMoves;
+            mPlayerWins += other.mPlayerWins;
+            mOpponentWins += other.mOpponentWins;
+            mDraws += other.mDraws;
+            mErrors += other.mErrors;
+        }
+    }
+
+    /**
+     * Plays games on a single thread, driving the player's side of a {@link HeadlessGameManager}.
+     */
+    private final class Worker implements HeadlessGameManager.Listener {
+
+        private final GameService mPlayer;
+        private final HeadlessGameManager mManager;
+        private final Report mReport;
+
+        private CountDownLatch mFinished;
+
+        Worker(final int index) {
+            mPlayer = mPlayers.apply(index);
+            mManager = new HeadlessGameManager(mRules,
+                    mOpponents.apply(index),
+                    new InMemoryGameStore(),
+                    this,
+                    "self-play-" + index);
+            mReport = new Report(mRules.cells());
+        }
+
+        /**
+         * Claim and play games until the provided number have been started across every worker.
+         */
+        Report play(final AtomicLong next, final long games) {
+
+            for (long game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+
+                mReport.mGames++;
+                mFinished = new CountDownLatch(1);
+                mManager.setInitialPlayer((game & 1) == 0 ? GameState.PLAYER_1 : GameState.PLAYER_2);
+                try {
+                    mManager.newGame();
+                } catch (final RuntimeException ex) {
+                    onError("The game failed.", ex);
+                }
+                Uninterruptibles.awaitUninterruptibly(mFinished);
+            }
+
+            return mReport;
+        }
+
+        @Override
+        public void onTurn(final GameState state, final GameBoard board) {
+            mPlayer.play(new Move(state.sequence()), new ResponseCallback<List<Integer>, Throwable>() {
+
+                @Override
+                public void onSuccess(final List<Integer> response) {
+                    if (response.isEmpty()) {
+                        Worker.this.onError("The player could not move.", null);
+                        return;
+                    }
+                    mManager.play(new TokenLocation(response.get(response.size() - 1)));
+                }
+
+                @Override
+                public void onError(final Throwable reason) {
+                    Worker.this.onError("The player could not move.", reason);
+                }
+            });
+        }
+
+        @Override
+        public void onGameOver(final GameState state, final GameBoard board, final int winner) {
+            final int length = state.moves().size();
+            mReport.mLengths[length]++;
+            mReport.mMoves += length;
+            if (winner == GameState.PLAYER_1) {
+                mReport.mPlayerWins++;
+            } else if (winner == GameState.PLAYER_2) {
+                mReport.mOpponentWins++;
+            } else {
+                mReport.mDraws++;
+            }
+            mFinished.countDown();
+        }
+
+        @Override
+        public void onError(final String message, final Throwable reason) {
+            if (mFinished.getCount() > 0) {
+                mReport.mErrors++;
+                mFinished.countDown();
+            }
+        }
+    }
+}
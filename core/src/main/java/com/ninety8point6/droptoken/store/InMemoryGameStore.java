@@ -0,0 +1,39 @@
+package com.ninety8point6.droptoken.store;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.GameStore;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An implementation of the {@link GameStore} that keeps each {@link GameState} in memory, for
+ * headless runs and tests. {@link GameState} is immutable, so states are stored as they are rather
+ * than serialized, and callbacks are invoked synchronously.
+ */
+public class InMemoryGameStore implements GameStore {
+
+    private final ConcurrentMap<String, GameState> mStates = new ConcurrentHashMap<>();
+
+    @Override
+    public void get(final String key, final ResponseCallback<GameState, Throwable> callback) {
+
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
+        Preconditions.checkArgument(callback != null);
+
+        callback.onSuccess(mStates.get(key));
+    }
+
+    @Override
+    public void put(final GameState state, final ResponseCallback<Boolean, Throwable> callback) {
+
+        Preconditions.checkArgument(state != null);
+        Preconditions.checkArgument(callback != null);
+
+        mStates.put(state.key(), state);
+        callback.onSuccess(true);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ninety8point6.droptoken.concepts;
+
+import com.google.gson.Gson;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+/**
+ * Guards the allocation budget of each step on the per-move path, measured in bytes allocated per
+ * call by the calling thread (see {@link com.sun.management.ThreadMXBean}). Each step is warmed up
+ * first so the JIT has had a chance to remove allocations, then measured over many calls.
+ * <p/>
+ * A budget exceeded here means an allocation has crept back onto the path; the budgets are set just
+ * above the sizes of the objects each step has to create. The tests are skipped on JVMs without
+ * thread allocation counters.
+ */
+public class AllocationBudgetTests {
+
+    private static final int WARMUP_CALLS = 50_000;
+    private static final int MEASURED_CALLS = 100_000;
+
+    /**
+     * Checks are allocation free.
+     */
+    private static final long CHECK_BUDGET = 0;
+
+    /**
+     * A move creates a {@link GameState}, its {@link MoveSequence} and a {@link GameBoard}.
+     */
+    private static final long MOVE_BUDGET = 160;
+
+    /**
+     * Encoding writes the JSON string through Gson's writer.
+     */
+    private static final long ENCODE_BUDGET = 1024;
+
+    /**
+     * Decoding parses the JSON string through Gson's reader, whose 1024 character buffer dominates,
+     * and builds the {@link GameState}.
+     */
+    private static final long DECODE_BUDGET = 4096;
+
+    private final GameState mState = new GameState("key", Arrays.asList(1, 2, 2, 1, 0, 3, 3), GameState.PLAYER_1);
+    private final GameBoard mBoard = new GameBoard(mState);
+    private final TokenLocation mLocation = new TokenLocation(0);
+    private final Gson mGson = new Gson();
+    private final String mJson = mGson.toJson(mState);
+
+    private com.sun.management.ThreadMXBean mThreads;
+
+    /**
+     * Keeps results reachable so the measured work cannot be optimized away.
+     */
+    private int mSink;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        mThreads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(mThreads.isThreadAllocatedMemorySupported());
+        mThreads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void testIsLocationValidBudget() {
+        assertBudget("isLocationValid", CHECK_BUDGET, () -> mBoard.isLocationValid(mLocation) ? 1 : 0);
+    }
+
+    @Test
+    public void testIsGameOverBudget() {
+        assertBudget("isGameOver", CHECK_BUDGET, () -> mBoard.isGameOver(mState.lastPlayer()).ordinal());
+    }
+
+    @Test
+    public void testMoveBudget() {
+        assertBudget("move", MOVE_BUDGET, () -> {
+            final GameState state = mState.withMove(0);
+            final GameBoard board = mBoard.withMove(0);
+            return state.moves().size() + board.moveCount();
+        });
+    }
+
+    @Test
+    public void testEncodeBudget() {
+        assertBudget("encode", ENCODE_BUDGET, () -> mGson.toJson(mState).length());
+    }
+
+    @Test
+    public void testDecodeBudget() {
+        assertBudget("decode", DECODE_BUDGET, () -> mGson.fromJson(mJson, GameState.class).moves().size());
+    }
+
+    /**
+     * Measure the bytes allocated per call of an operation and compare them with its budget.
+     */
+    private void assertBudget(final String name, final long budget, final IntSupplier operation) {
+
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            mSink += operation.getAsInt();
+        }
+
+        final long thread = Thread.currentThread().getId();
+        final long before = mThreads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            mSink += operation.getAsInt();
+        }
+        final long after = mThreads.getThreadAllocatedBytes(thread);
+
+        final long perCall = (after - before) / MEASURED_CALLS;
+        Assert.assertTrue(name + " allocated " + perCall + " bytes per call, over its budget of " + budget,
+                perCall <= budget);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ninety8point6.droptoken.concepts;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link CancellableCallback} and the default
+ * {@link GameService#request} have the expected behavior.
+ *
+ * @see CancellableCallback
+ */
+public class CancellableCallbackTests {
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockCallback;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCallbackChecksCallback() {
+        new CancellableCallback<List<Integer>, Throwable>(null);
+    }
+
+    @Test
+    public void testCallbackForwardsUntilCancelled() {
+        final CancellableCallback<List<Integer>, Throwable> callback = new CancellableCallback<>(mockCallback);
+        final RuntimeException expected = new RuntimeException("Boom!");
+
+        callback.onSuccess(Collections.singletonList(1));
+        callback.onError(expected);
+        assertFalse(callback.isCancelled());
+
+        callback.cancel();
+        callback.onSuccess(Collections.singletonList(2));
+        callback.onError(new RuntimeException());
+        assertTrue(callback.isCancelled());
+
+        verify(mockCallback).onSuccess(Collections.singletonList(1));
+        verify(mockCallback).onError(expected);
+        verifyNoMoreInteractions(mockCallback);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequestChecksCallback() {
+        final GameService service = (move, callback) -> { };
+        service.request(new Move(Collections.emptyList()), null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRequestDropsReplyAfterCancel() {
+        final ResponseCallback<?, ?>[] pending = new ResponseCallback<?, ?>[1];
+        final GameService service = (move, callback) -> pending[0] = callback;
+
+        service.request(new Move(Collections.emptyList()), mockCallback).cancel();
+        ((ResponseCallback<List<Integer>, Throwable>) pending[0]).onSuccess(Collections.singletonList(0));
+
+        verifyNoMoreInteractions(mockCallback);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ninety8point6.droptoken.concepts;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A suite of tests to verify the {@link GameBoard} has the expected behavior.
+ *
+ *  TODO: Add comprehensive tests for isLocationValid, row, col, and diagonal game over scenarios
+ *
+ * @see GameBoard
+ */
+public class GameBoardTests {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameBoardChecksState() {
+        new GameBoard(null);
+    }
+
+    @Test
+    public void testIsLocationValid() {
+        final List<Integer> moves = Arrays.asList(0, 0, 0);
+        final GameBoard board = new GameBoard(new GameState("key", moves, GameState.PLAYER_1));
+        Assert.assertTrue(board.isLocationValid(new TokenLocation(0)));
+    }
+
+    @Test
+    public void testIsLocationInValid() {
+        final List<Integer> moves = Arrays.asList(0, 0, 0, 0);
+        final GameBoard board = new GameBoard(new GameState("key", moves, GameState.PLAYER_1));
+        Assert.assertFalse(board.isLocationValid(new TokenLocation(0)));
+    }
+
+    @Test
+    public void testIsLocationOutOfBounds() {
+        final GameBoard board = new GameBoard(new GameState("key", GameState.PLAYER_1));
+        Assert.assertFalse(board.isLocationValid(new TokenLocation(4)));
+    }
+
+    @Test
+    public void testIsGameOverRows() {
+        final List<Integer> moves = Arrays.asList(0, 0, 1, 0, 2, 0, 3);
+        final GameBoard board = new GameBoard(new GameState("key", moves, 0));
+        Assert.assertTrue(GameBoard.GameOverType.WIN.equals(board.isGameOver(0)));
+    }
+
+    @Test
+    public void testIsGameOverColumns() {
+        final List<Integer> moves = Arrays.asList(0, 1, 0, 2, 0, 3, 0);
+        final GameBoard board = new GameBoard(new GameState("key", moves, 0));
+        Assert.assertTrue(GameBoard.GameOverType.WIN.equals(board.isGameOver(0)));
+    }
+
+    @Test
+    public void testIsGameOverFirstDiagonal() {
+        final List<Integer> moves = Arrays.asList(0, 1, 1, 2, 0, 2, 2, 3, 3, 3, 3);
+        final GameBoard board = new GameBoard(new GameState("key", moves, 0));
+        Assert.assertTrue(GameBoard.GameOverType.WIN.equals(board.isGameOver(0)));
+    }
+
+    @Test
+    public void testIsGameOverSecondDiagonal() {
+        final List<Integer> moves = Arrays.asList(3, 2, 2, 1, 3, 1, 1, 0, 0, 0, 0);
+        final GameBoard board = new GameBoard(new GameState("key", moves, 0));
+        Assert.assertTrue(GameBoard.GameOverType.WIN.equals(board.isGameOver(0)));
+    }
+
+    @Test
+    public void testIsGameOverDraw() {
+        final List<Integer> moves = Arrays.asList(0, 0, 0, 0, 1, 2, 3, 1, 1, 1, 2, 2, 2, 3, 3, 3);
+        final GameBoard board = new GameBoard(new GameState("key", moves, 0));
+        Assert.assertTrue(GameBoard.GameOverType.DRAW.equals(board.isGameOver(0)));
+    }
+
+    @Test
+    public void testIsGameOverChecksPlayer() {
+        final List<Integer> moves = Arrays.asList(0, 1, 0, 2, 0, 3, 0);
+        final GameBoard board = new GameBoard(new GameState("key", moves, 0));
+        Assert.assertTrue(GameBoard.GameOverType.NONE.equals(board.isGameOver(1)));
+    }
+
+    @Test
+    public void testIsGameOverEmptyBoard() {
+        final GameBoard board = new GameBoard(new GameState("key", 0));
+        Assert.assertTrue(GameBoard.GameOverType.NONE.equals(board.isGameOver(0)));
+    }
+
+    @Test
+    public void testWithMoveMatchesReplay() {
+        final List<Integer> moves = Arrays.asList(3, 2, 2, 1, 3, 1, 1, 0, 0, 0, 0);
+        GameBoard board = new GameBoard(new GameState("key", GameState.PLAYER_2));
+        for (final int move : moves) {
+            board = board.withMove(move);
+        }
+
+        final GameBoard replayed = new GameBoard(new GameState("key", moves, GameState.PLAYER_2));
+        Assert.assertEquals(replayed.isGameOver(GameState.PLAYER_2), board.isGameOver(GameState.PLAYER_2));
+        Assert.assertEquals(replayed.currentPlayer(), board.currentPlayer());
+        Assert.assertEquals(0, board.lastColumn());
+        Assert.assertEquals(3, board.lastRow());
+        Assert.assertEquals(4, board.height(0));
+        Assert.assertEquals(moves.size(), board.moveCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithMoveChecksColumn() {
+        final List<Integer> moves = Arrays.asList(0, 0, 0, 0);
+        new GameBoard(new GameState("key", moves, GameState.PLAYER_1)).withMove(0);
+    }
+
+    @Test
+    public void testHashMatchesTranspositions() {
+        final GameBoard board = new GameBoard(new GameState("key", Arrays.asList(0, 1, 2, 3), 0));
+        final GameBoard other = new GameBoard(new GameState("key", Arrays.asList(2, 3, 0, 1), 0));
+        Assert.assertEquals(board.hash(), other.hash());
+    }
+
+    @Test
+    public void testHashDiffersByOwnership() {
+        final GameBoard board = new GameBoard(new GameState("key", Arrays.asList(0, 1), 0));
+        final GameBoard other = new GameBoard(new GameState("key", Arrays.asList(1, 0), 0));
+        Assert.assertNotEquals(board.hash(), other.hash());
+    }
+
+    @Test
+    public void testHashMatchesIncrementalDerivation() {
+        final GameBoard board = new GameBoard(new GameState("key", GameState.PLAYER_2)).withMove(1).withMove(1).withMove(3);
+        final GameBoard replayed = new GameBoard(new GameState("key", Arrays.asList(1, 1, 3), GameState.PLAYER_2));
+        Assert.assertEquals(replayed.hash(), board.hash());
+        Assert.assertEquals(replayed.canonicalHash(), board.canonicalHash());
+    }
+
+    @Test
+    public void testCanonicalHashFoldsMirrors() {
+        final GameBoard board = new GameBoard(new GameState("key", Arrays.asList(0, 0, 1), 0));
+        final GameBoard mirrored = new GameBoard(new GameState("key", Arrays.asList(3, 3, 2), 0));
+        Assert.assertNotEquals(board.hash(), mirrored.hash());
+        Assert.assertEquals(board.canonicalHash(), mirrored.canonicalHash());
+        Assert.assertNotEquals(board.isMirrored(), mirrored.isMirrored());
+    }
+
+    @Test
+    public void testIsNotGameOver() {
+        final List<Integer> moves = Arrays.asList(0, 1, 2);
+        final GameBoard board = new GameBoard(new GameState("key", moves, 0));
+        Assert.assertFalse(GameBoard.GameOverType.WIN.equals(board.isGameOver(0)));
+    }
+}
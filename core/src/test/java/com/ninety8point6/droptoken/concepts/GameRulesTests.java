@@ -0,0 +1,77 @@
+package com.ninety8point6.droptoken.concepts;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A suite of tests to verify the {@link GameRules} has the expected behavior.
+ *
+ * @see GameRules
+ */
+public class GameRulesTests {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRulesChecksDimensions() {
+        new GameRules(0, 4, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRulesChecksCellCount() {
+        new GameRules(9, 8, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRulesChecksWinLength() {
+        new GameRules(4, 4, 5);
+    }
+
+    @Test
+    public void testDefaultRulesLines() {
+        // 4 rows, 4 columns and 2 diagonals
+        Assert.assertEquals(10, GameRules.DEFAULT.lineCount());
+    }
+
+    @Test
+    public void testConnectFourLines() {
+        // 24 horizontal, 21 vertical and 12 in each diagonal direction
+        Assert.assertEquals(69, GameRules.CONNECT_FOUR.lineCount());
+    }
+
+    @Test
+    public void testConnectFourDiagonalWin() {
+        final List<Integer> moves = Arrays.asList(0, 1, 1, 2, 2, 3, 2, 3, 3, 6, 3);
+        final GameBoard board = new GameBoard(new GameState("key", moves, 0), GameRules.CONNECT_FOUR);
+        Assert.assertEquals(GameBoard.GameOverType.WIN, board.isGameOver(0));
+    }
+
+    @Test
+    public void testConnectFourPartialRowWin() {
+        final List<Integer> moves = Arrays.asList(2, 2, 3, 3, 4, 4, 5);
+        final GameBoard board = new GameBoard(new GameState("key", moves, 0), GameRules.CONNECT_FOUR);
+        Assert.assertEquals(GameBoard.GameOverType.WIN, board.isGameOver(0));
+    }
+
+    @Test
+    public void testConnectFourColumnBounds() {
+        final GameBoard board = new GameBoard(new GameState("key", 0), GameRules.CONNECT_FOUR);
+        Assert.assertTrue(board.isLocationValid(new TokenLocation(6)));
+        Assert.assertFalse(board.isLocationValid(new TokenLocation(7)));
+    }
+
+    @Test
+    public void testLinesThroughCell() {
+        // A corner of the 4 x 4 board is on its row, its column and one diagonal
+        final GameRules rules = GameRules.DEFAULT;
+        Assert.assertEquals(3, rules.lineCount(0));
+        long union = 0;
+        for (int i = 0; i < rules.lineCount(0); i++) {
+            Assert.assertTrue((rules.line(0, i) & 1L) != 0);
+            union |= rules.line(0, i);
+        }
+        Assert.assertEquals(union, rules.neighborhood(0));
+        Assert.assertEquals(10, Long.bitCount(rules.neighborhood(0)));
+    }
+}
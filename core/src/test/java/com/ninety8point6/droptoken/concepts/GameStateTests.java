@@ -1,13 +1,8 @@
 package com.ninety8point6.droptoken.concepts;
 
-import com.ninety8point6.droptoken.BuildConfig;
-
 import junit.framework.Assert;
 
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
 
 import java.util.Arrays;
 import java.util.List;
@@ -20,8 +15,6 @@ import static com.ninety8point6.droptoken.concepts.GameState.PLAYER_2;
  *
  * @see GameState
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(constants = BuildConfig.class, sdk = 25)
 public class GameStateTests {
 
     @Test(expected = IllegalArgumentException.class)
@@ -58,6 +51,16 @@ public class GameStateTests {
         Assert.assertEquals(player, board.initialPlayer());
     }
 
+    @Test
+    public void testGameStateWithMove() {
+        final GameState state = new GameState("key", Arrays.asList(0, 1), PLAYER_2);
+        final GameState next = state.withMove(2);
+        Assert.assertEquals(Arrays.asList(0, 1, 2), next.moves());
+        Assert.assertEquals(Arrays.asList(0, 1), state.moves());
+        Assert.assertEquals(state.key(), next.key());
+        Assert.assertEquals(state.initialPlayer(), next.initialPlayer());
+    }
+
     @Test
     public void testGameStateCurrentPlayer() {
         final GameState board = new GameState("key", Arrays.asList(0, 1, 2, 3), PLAYER_1);
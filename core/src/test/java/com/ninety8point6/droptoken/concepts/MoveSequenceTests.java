@@ -0,0 +1,75 @@
+package com.ninety8point6.droptoken.concepts;
+
+import com.google.gson.Gson;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A suite of tests to verify the {@link MoveSequence} has the expected behavior.
+ *
+ * @see MoveSequence
+ */
+public class MoveSequenceTests {
+
+    @Test(expected = NullPointerException.class)
+    public void testSequenceChecksMoves() {
+        MoveSequence.copyOf(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSequenceChecksColumn() {
+        MoveSequence.EMPTY.append(MoveSequence.COLUMN_LIMIT);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSequenceIsImmutable() {
+        MoveSequence.of(0, 1).add(2);
+    }
+
+    @Test
+    public void testSequenceHasTheExpectedValues() {
+        final List<Integer> moves = Arrays.asList(0, 1, 2, 3, 15);
+        final MoveSequence sequence = MoveSequence.copyOf(moves);
+        Assert.assertEquals(moves, sequence);
+        Assert.assertEquals(sequence, moves);
+        Assert.assertEquals(moves.hashCode(), sequence.hashCode());
+        Assert.assertEquals(15, sequence.last());
+    }
+
+    @Test
+    public void testSequenceAppendsBeyondOneWord() {
+
+        final List<Integer> expected = new ArrayList<>();
+        MoveSequence sequence = MoveSequence.EMPTY;
+        for (int i = 0; i < 42; i++) {
+            sequence = sequence.append(i % 7);
+            expected.add(i % 7);
+        }
+
+        Assert.assertEquals(expected, sequence);
+        Assert.assertEquals(MoveSequence.copyOf(expected), sequence);
+        Assert.assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(),
+                sequence.intStream().toArray());
+    }
+
+    @Test
+    public void testSequenceAppendDoesNotModifyOriginal() {
+        final MoveSequence sequence = MoveSequence.of(1, 2);
+        sequence.append(3);
+        Assert.assertEquals(Arrays.asList(1, 2), sequence);
+    }
+
+    @Test
+    public void testSequenceGsonRoundTrip() {
+        final Gson gson = new Gson();
+        final GameState state = new GameState("key", MoveSequence.of(0, 1, 2, 3), GameState.PLAYER_2);
+        final String json = gson.toJson(state);
+        Assert.assertTrue(json.contains("\"moves\":[0,1,2,3]"));
+        Assert.assertEquals(state.moves(), gson.fromJson(json, GameState.class).moves());
+    }
+}
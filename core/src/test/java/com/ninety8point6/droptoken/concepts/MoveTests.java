@@ -1,12 +1,7 @@
 package com.ninety8point6.droptoken.concepts;
 
-import com.ninety8point6.droptoken.BuildConfig;
-
 import org.junit.Assert;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,8 +11,6 @@ import java.util.List;
  *
  * @see Move
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(constants = BuildConfig.class, sdk = 25)
 public class MoveTests {
 
     @Test(expected = NullPointerException.class)
@@ -0,0 +1,97 @@
+package com.ninety8point6.droptoken.concepts;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.ninety8point6.droptoken.concepts.GameState.PLAYER_1;
+import static com.ninety8point6.droptoken.concepts.GameState.PLAYER_2;
+
+/**
+ * A suite of tests to verify the {@link ThreatMap} has the expected behavior.
+ *
+ * @see ThreatMap
+ */
+public class ThreatMapTests {
+
+    @Test(expected = NullPointerException.class)
+    public void testThreatMapChecksBoard() {
+        new ThreatMap(null);
+    }
+
+    @Test
+    public void testThreatMapEmptyBoard() {
+        final ThreatMap threats = new ThreatMap(new GameBoard(new GameState("key", PLAYER_1), GameRules.CONNECT_FOUR));
+        Assert.assertEquals(GameRules.CONNECT_FOUR.lineCount(), threats.openLines(PLAYER_1));
+        Assert.assertEquals(GameRules.CONNECT_FOUR.lineCount(), threats.openLines(PLAYER_2));
+        Assert.assertEquals(0, threats.threats(PLAYER_1));
+        Assert.assertEquals(0, threats.threats(PLAYER_2));
+        Assert.assertEquals(0x7f, threats.playable());
+    }
+
+    @Test
+    public void testThreatMapImmediateThreat() {
+        final ThreatMap threats = new ThreatMap(new GameBoard(
+                new GameState("key", Arrays.asList(0, 1, 0, 1, 0), PLAYER_1)));
+        final long top = 1L << GameRules.DEFAULT.cell(3, 0);
+        Assert.assertEquals(top, threats.threats(PLAYER_1));
+        Assert.assertEquals(top, threats.immediateThreats(PLAYER_1));
+        Assert.assertEquals(0, threats.threats(PLAYER_2));
+    }
+
+    @Test
+    public void testThreatMapUnplayableThreat() {
+        // Player 1 holds three cells of the main diagonal; the fourth is two rows above the top of its column
+        final ThreatMap threats = new ThreatMap(new GameBoard(
+                new GameState("key", Arrays.asList(0, 1, 1, 2, 3, 2, 2), PLAYER_1)));
+        final long cell = 1L << GameRules.DEFAULT.cell(3, 3);
+        Assert.assertTrue((threats.threats(PLAYER_1) & cell) != 0);
+        Assert.assertEquals(0, threats.immediateThreats(PLAYER_1) & cell);
+    }
+
+    @Test
+    public void testThreatMapDoubleThreat() {
+        // Player 1 has two in the bottom row of Connect Four with both ends open
+        final GameRules rules = GameRules.CONNECT_FOUR;
+        final ThreatMap threats = new ThreatMap(new GameBoard(
+                new GameState("key", Arrays.asList(2, 2, 3, 3), PLAYER_1), rules));
+        Assert.assertEquals((1L << rules.cell(0, 1)) | (1L << rules.cell(0, 4)), threats.doubleThreats(PLAYER_1));
+
+        final ThreatMap played = threats.withMove(4);
+        Assert.assertEquals(2, Long.bitCount(played.immediateThreats(PLAYER_1)));
+    }
+
+    @Test
+    public void testThreatMapWithMoveMatchesRebuild() {
+        for (final GameRules rules : new GameRules[] { GameRules.DEFAULT, GameRules.CONNECT_FOUR }) {
+            final Random random = new Random(42);
+            for (int game = 0; game < 200; game++) {
+
+                GameState state = new GameState("key", random.nextInt(2));
+                ThreatMap threats = new ThreatMap(new GameBoard(state, rules));
+                while (threats.board().moveCount() < rules.cells()) {
+
+                    final int column = random.nextInt(rules.columns());
+                    if (threats.board().height(column) == rules.rows()) {
+                        continue;
+                    }
+
+                    state = state.withMove(column);
+                    threats = threats.withMove(column);
+                    assertSameThreats(new ThreatMap(new GameBoard(state, rules)), threats);
+                }
+            }
+        }
+    }
+
+    private static void assertSameThreats(final ThreatMap expected, final ThreatMap actual) {
+        for (final int player : new int[] { PLAYER_1, PLAYER_2 }) {
+            Assert.assertEquals(expected.openLines(player), actual.openLines(player));
+            Assert.assertEquals(expected.threats(player), actual.threats(player));
+            Assert.assertEquals(expected.immediateThreats(player), actual.immediateThreats(player));
+            Assert.assertEquals(expected.doubleThreats(player), actual.doubleThreats(player));
+        }
+    }
+}
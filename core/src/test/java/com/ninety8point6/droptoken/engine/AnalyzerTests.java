@@ -0,0 +1,93 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.ThreatMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A suite of tests to verify the {@link Analyzer} has the expected behavior.
+ *
+ * @see Analyzer
+ */
+public class AnalyzerTests {
+
+    private final Analyzer mAnalyzer = new Analyzer(GameRules.DEFAULT);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAnalyzeChecksMoves() {
+        mAnalyzer.analyze(threats(GameRules.DEFAULT), 0);
+    }
+
+    @Test
+    public void testAnalyzeWinInOne() {
+        final Analyzer.Hint hint = mAnalyzer.analyze(threats(GameRules.DEFAULT, 0, 1, 0, 1, 0, 2), 3);
+        Assert.assertEquals(Analyzer.Hint.WIN, hint.outcome());
+        Assert.assertEquals(1, hint.moves());
+        Assert.assertEquals(0, hint.column());
+    }
+
+    @Test
+    public void testAnalyzeLossInOne() {
+        final Analyzer analyzer = new Analyzer(GameRules.CONNECT_FOUR);
+        final Analyzer.Hint hint = analyzer.analyze(threats(GameRules.CONNECT_FOUR, 2, 0, 3, 0, 4), 3);
+        Assert.assertEquals(Analyzer.Hint.LOSS, hint.outcome());
+        Assert.assertEquals(1, hint.moves());
+    }
+
+    @Test
+    public void testAnalyzeWinInTwo() {
+        final Analyzer analyzer = new Analyzer(GameRules.CONNECT_FOUR);
+        final Analyzer.Hint hint = analyzer.analyze(threats(GameRules.CONNECT_FOUR, 2, 2, 3, 3), 2);
+        Assert.assertEquals(Analyzer.Hint.WIN, hint.outcome());
+        Assert.assertEquals(2, hint.moves());
+        Assert.assertTrue(hint.column() == 1 || hint.column() == 4);
+    }
+
+    @Test
+    public void testAnalyzeMatchesTablebase() {
+
+        final Tablebase tablebase = new Tablebase(GameRules.DEFAULT,
+                ByteBuffer.wrap(TablebaseGenerator.generate(GameRules.DEFAULT)));
+        final int horizon = 3;
+
+        final Random random = new Random(42);
+        for (int game = 0; game < 50; game++) {
+
+            GameState state = new GameState("key", GameState.PLAYER_1);
+            ThreatMap threats = threats(GameRules.DEFAULT);
+            while (threats.board().isGameOver(state.lastPlayer()) == GameBoard.GameOverType.NONE
+                    && threats.board().moveCount() < GameRules.DEFAULT.cells()) {
+
+                final int entry = tablebase.probe(new Position(threats.board()));
+                final Analyzer.Hint hint = mAnalyzer.analyze(threats, horizon);
+                if (Tablebase.isWin(entry) && Tablebase.distance(entry) <= horizon) {
+                    Assert.assertEquals(Analyzer.Hint.WIN, hint.outcome());
+                    Assert.assertEquals(Tablebase.distance(entry), hint.moves());
+                } else if (Tablebase.isLoss(entry) && Tablebase.distance(entry) <= horizon) {
+                    Assert.assertEquals(Analyzer.Hint.LOSS, hint.outcome());
+                    Assert.assertEquals(Tablebase.distance(entry), hint.moves());
+                } else {
+                    Assert.assertEquals(Analyzer.Hint.UNKNOWN, hint.outcome());
+                }
+
+                final int column = random.nextInt(GameRules.DEFAULT.columns());
+                if (threats.board().height(column) < GameRules.DEFAULT.rows()) {
+                    state = state.withMove(column);
+                    threats = threats.withMove(column);
+                }
+            }
+        }
+    }
+
+    private static ThreatMap threats(final GameRules rules, final Integer... moves) {
+        return new ThreatMap(new GameBoard(new GameState("key", Arrays.asList(moves), GameState.PLAYER_1), rules));
+    }
+}
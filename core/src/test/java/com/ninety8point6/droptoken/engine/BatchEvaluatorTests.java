@@ -0,0 +1,81 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameState;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A suite of tests to verify the {@link BatchEvaluator} has the expected behavior.
+ *
+ * @see BatchEvaluator
+ */
+public class BatchEvaluatorTests {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvaluateChecksResults() {
+        new BatchEvaluator(GameRules.DEFAULT, ForkJoinPool.commonPool())
+                .evaluate(Arrays.asList(new GameState("key", 0), new GameState("key", 0)), 0, new byte[1]);
+    }
+
+    @Test
+    public void testEvaluateFlagsInvalidGames() {
+        final List<GameState> states = Arrays.asList(
+                new GameState("key", Arrays.asList(0, 0, 0, 0, 0), GameState.PLAYER_1),
+                new GameState("key", Arrays.asList(0, 1, 0, 1, 0, 1, 0), GameState.PLAYER_1));
+        final byte[] results = new byte[states.size()];
+        new BatchEvaluator(GameRules.DEFAULT, ForkJoinPool.commonPool()).evaluate(states, GameState.PLAYER_1, results);
+        Assert.assertArrayEquals(new byte[] { BatchEvaluator.INVALID, BatchEvaluator.WIN }, results);
+    }
+
+    @Test
+    public void testEvaluateMatchesGameBoard() {
+        assertMatchesGameBoard(GameRules.DEFAULT, 10_000);
+        assertMatchesGameBoard(GameRules.CONNECT_FOUR, 5_000);
+    }
+
+    /**
+     * Play random games to a random length, stopping at the first win, and check every result
+     * against {@link GameBoard#isGameOver(int)} for both players.
+     */
+    private static void assertMatchesGameBoard(final GameRules rules, final int games) {
+
+        final Random random = new Random(42);
+        final List<GameState> states = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+
+            GameState state = new GameState("key", random.nextInt(2));
+            GameBoard board = new GameBoard(state, rules);
+            final int length = random.nextInt(rules.cells() + 1);
+            while (state.moves().size() < length
+                    && board.isGameOver(state.lastPlayer()) == GameBoard.GameOverType.NONE) {
+                final int column = random.nextInt(rules.columns());
+                if (board.height(column) < rules.rows()) {
+                    state = state.withMove(column);
+                    board = board.withMove(column);
+                }
+            }
+            states.add(state);
+        }
+
+        final BatchEvaluator evaluator = new BatchEvaluator(rules, ForkJoinPool.commonPool());
+        for (final int player : new int[] { GameState.PLAYER_1, GameState.PLAYER_2 }) {
+            final byte[] results = new byte[games];
+            evaluator.evaluate(states, player, results);
+            for (int i = 0; i < games; i++) {
+                final GameState state = states.get(i);
+                Assert.assertEquals(state.moves().toString(),
+                        new GameBoard(state, rules).isGameOver(player).ordinal(),
+                        results[i]);
+            }
+        }
+    }
+}
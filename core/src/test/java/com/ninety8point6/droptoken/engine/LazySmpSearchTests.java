@@ -0,0 +1,155 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A suite of tests to verify the {@link LazySmpSearch} has the expected behavior.
+ *
+ * @see LazySmpSearch
+ */
+public class LazySmpSearchTests {
+
+    private static final int THREADS = 4;
+
+    private ExecutorService mHelpers;
+    private LazySmpSearch mSearch;
+
+    @Before
+    public void setUp() throws Exception {
+        mHelpers = Executors.newFixedThreadPool(THREADS - 1);
+        mSearch = new LazySmpSearch(GameRules.DEFAULT, new TranspositionTable(16), mHelpers, THREADS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mHelpers.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchChecksThreads() {
+        new LazySmpSearch(GameRules.DEFAULT, new TranspositionTable(16), mHelpers, 0);
+    }
+
+    @Test
+    public void testSearchTakesWin() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 0, 1, 0, 2));
+        Assert.assertEquals(0, mSearch.bestMove(position, 4));
+    }
+
+    @Test
+    public void testSearchBlocksLoss() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 2, 1, 3, 1));
+        Assert.assertEquals(1, mSearch.bestMove(position, 4));
+    }
+
+    @Test
+    public void testSearchRestoresPosition() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 2));
+        final long hash = position.hash();
+        mSearch.bestMove(position, GameRules.DEFAULT.cells());
+        Assert.assertEquals(hash, position.hash());
+        Assert.assertEquals(3, position.moveCount());
+        Assert.assertTrue(mSearch.nodes() > 0);
+    }
+
+    @Test
+    public void testSearchMatchesSingleThread() {
+        final int depth = GameRules.DEFAULT.cells();
+        for (final MoveSequence moves : new MoveSequence[] {
+                MoveSequence.EMPTY, MoveSequence.of(1), MoveSequence.of(0, 3, 1), MoveSequence.of(1, 2, 2, 1) }) {
+
+            final Position position = new Position(GameRules.DEFAULT, moves);
+            final int expected = solve(position, depth);
+
+            final int column = mSearch.bestMove(position, depth);
+            final int actual;
+            if (position.isWinningMove(column)) {
+                actual = NegamaxSearch.MATE - position.moveCount() - 1;
+            } else {
+                position.play(column);
+                actual = position.isFull() ? 0 : -solve(position, depth);
+                position.undo();
+            }
+
+            Assert.assertEquals(moves.toString(), expected, actual);
+        }
+    }
+
+    @Test
+    public void testSearchSurvivesRejectedHelpers() {
+        final LazySmpSearch search = new LazySmpSearch(GameRules.DEFAULT, new TranspositionTable(16), command -> {
+            throw new RejectedExecutionException("Rejected!");
+        }, THREADS);
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 0, 1, 0, 2));
+        Assert.assertEquals(0, search.bestMove(position, 4));
+    }
+
+    @Test
+    public void testSearchReportsResult() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 0, 1, 0, 2));
+        final SearchResult result = mSearch.search(position, SearchLimits.NONE);
+        Assert.assertEquals(0, result.column());
+        Assert.assertTrue(result.score() > NegamaxSearch.MATE_THRESHOLD);
+        Assert.assertEquals(1, result.depth());
+        Assert.assertTrue(result.nodes() > 0);
+    }
+
+    @Test
+    public void testSearchRespectsNodeBudget() {
+        final Position position = new Position(GameRules.CONNECT_FOUR);
+        final LazySmpSearch search = new LazySmpSearch(GameRules.CONNECT_FOUR, new TranspositionTable(16), mHelpers, 1);
+        final SearchResult result = search.search(position, SearchLimits.nodes(5_000));
+        Assert.assertTrue(position.canPlay(result.column()));
+        Assert.assertTrue(result.depth() >= 1 && result.depth() < GameRules.CONNECT_FOUR.cells());
+        Assert.assertTrue(result.nodes() <= 5_000 + GameRules.CONNECT_FOUR.columns());
+        Assert.assertEquals(0, position.moveCount());
+    }
+
+    @Test
+    public void testSearchRespectsTimeBudget() {
+        final Position position = new Position(GameRules.CONNECT_FOUR);
+        final LazySmpSearch search =
+                new LazySmpSearch(GameRules.CONNECT_FOUR, new TranspositionTable(16), mHelpers, THREADS);
+        final SearchResult result = search.search(position, SearchLimits.time(50, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(position.canPlay(result.column()));
+        Assert.assertTrue(result.nanos() < TimeUnit.SECONDS.toNanos(1));
+        Assert.assertEquals(0, position.moveCount());
+    }
+
+    @Test
+    public void testSearchAlwaysHasMove() {
+        final Position position = new Position(GameRules.CONNECT_FOUR);
+        final SearchResult result = new LazySmpSearch(GameRules.CONNECT_FOUR, new TranspositionTable(16), mHelpers, 1)
+                .search(position, SearchLimits.nodes(1));
+        Assert.assertTrue(position.canPlay(result.column()));
+        Assert.assertEquals(1, result.depth());
+    }
+
+    @Test
+    public void testStoppedSearchReturnsNoMove() {
+        final NegamaxSearch search = new NegamaxSearch(GameRules.DEFAULT, new TranspositionTable(16));
+        search.stop();
+        Assert.assertTrue(search.isStopped());
+        Assert.assertEquals(-1, search.bestMove(new Position(GameRules.DEFAULT), GameRules.DEFAULT.cells()));
+    }
+
+    /**
+     * @return the exact score of the position from a single threaded search
+     */
+    private static int solve(final Position position, final int depth) {
+        final NegamaxSearch search = new NegamaxSearch(GameRules.DEFAULT, new TranspositionTable(16));
+        return TranspositionTable.score(
+                search.searchRoot(position, depth, -NegamaxSearch.INFINITY, NegamaxSearch.INFINITY));
+    }
+}
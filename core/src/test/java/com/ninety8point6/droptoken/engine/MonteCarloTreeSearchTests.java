@@ -0,0 +1,45 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A suite of tests to verify the {@link MonteCarloTreeSearch} has the expected behavior.
+ *
+ * @see MonteCarloTreeSearch
+ */
+public class MonteCarloTreeSearchTests {
+
+    private final MonteCarloTreeSearch mSearch = new MonteCarloTreeSearch(ForkJoinPool.commonPool(), 4, 42L);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchChecksWorkers() {
+        new MonteCarloTreeSearch(ForkJoinPool.commonPool(), 0, 42L);
+    }
+
+    @Test
+    public void testSearchTakesWin() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 0, 1, 0, 2));
+        Assert.assertEquals(0, mSearch.search(position, 20_000).column());
+    }
+
+    @Test
+    public void testSearchBlocksLoss() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 2, 1, 3, 1));
+        Assert.assertEquals(1, mSearch.search(position, 20_000).column());
+    }
+
+    @Test
+    public void testSearchReportsPlayouts() {
+        final Position position = new Position(GameRules.CONNECT_FOUR);
+        final MonteCarloTreeSearch.Result result = mSearch.search(position, 10_001);
+        Assert.assertEquals(10_001, result.playouts());
+        Assert.assertTrue(position.canPlay(result.column()));
+        Assert.assertEquals(0, position.moveCount());
+    }
+}
@@ -0,0 +1,60 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * A suite of tests to verify the {@link NegamaxSearch} has the expected behavior.
+ *
+ * @see NegamaxSearch
+ */
+public class NegamaxSearchTests {
+
+    private final NegamaxSearch mSearch = new NegamaxSearch(GameRules.DEFAULT, new TranspositionTable(16));
+
+    @Test
+    public void testSearchTakesWin() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 0, 1, 0, 2));
+        Assert.assertEquals(0, mSearch.bestMove(position, 4));
+    }
+
+    @Test
+    public void testSearchBlocksLoss() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 2, 1, 3, 1));
+        Assert.assertEquals(1, mSearch.bestMove(position, 4));
+    }
+
+    @Test
+    public void testSearchRestoresPosition() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 2));
+        final long hash = position.hash();
+        mSearch.bestMove(position, GameRules.DEFAULT.cells());
+        Assert.assertEquals(hash, position.hash());
+        Assert.assertEquals(3, position.moveCount());
+    }
+
+    @Test
+    public void testSearchSolvesEmptyBoard() {
+        final Position position = new Position(GameRules.DEFAULT);
+        final int column = mSearch.bestMove(position, GameRules.DEFAULT.cells());
+        Assert.assertTrue(position.canPlay(column));
+        Assert.assertTrue(mSearch.nodes() > 0);
+    }
+
+    @Test
+    public void testSearchConnectFourTakesWin() {
+        final Position position = new Position(GameRules.CONNECT_FOUR, MoveSequence.of(2, 2, 3, 3, 4, 4));
+        final NegamaxSearch search = new NegamaxSearch(GameRules.CONNECT_FOUR, new TranspositionTable(16));
+        final int column = search.bestMove(position, 6);
+        Assert.assertTrue(column == 1 || column == 5);
+    }
+
+    @Test
+    public void testCenterOutOrder() {
+        Assert.assertArrayEquals(new int[] { 1, 2, 0, 3 }, NegamaxSearch.centerOutOrder(4));
+        Assert.assertArrayEquals(new int[] { 3, 2, 4, 1, 5, 0, 6 }, NegamaxSearch.centerOutOrder(7));
+    }
+}
@@ -0,0 +1,119 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameState;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A suite of tests to verify the {@link Perft} has the expected behavior.
+ *
+ * @see Perft
+ */
+public class PerftTests {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRunChecksDepth() {
+        new Perft(GameRules.DEFAULT, ForkJoinPool.commonPool())
+                .run(new GameBoard(new GameState("key", GameState.PLAYER_1)), -1);
+    }
+
+    @Test
+    public void testRunMatchesKnownConnectFourCounts() {
+
+        final long[] positions = { 1, 7, 49, 343, 2401, 16807, 117649, 823536, 5673234 };
+        final long[] unique = { 1, 7, 49, 238, 1120, 4263, 16422, 54859, 184275 };
+
+        final List<Perft.Ply> plies = new Perft(GameRules.CONNECT_FOUR, ForkJoinPool.commonPool())
+                .run(new GameBoard(new GameState("key", GameState.PLAYER_1), GameRules.CONNECT_FOUR), 8);
+
+        Assert.assertEquals(positions.length, plies.size());
+        for (int i = 0; i < plies.size(); i++) {
+            Assert.assertEquals(i, plies.get(i).ply());
+            Assert.assertEquals(positions[i], plies.get(i).positions());
+            Assert.assertEquals(unique[i], plies.get(i).unique());
+        }
+    }
+
+    @Test
+    public void testRunMatchesGameBoard() {
+
+        final GameState start = new GameState("key", Arrays.asList(1, 2), GameState.PLAYER_2);
+        final int depth = 8;
+
+        final long[] positions = new long[depth + 1];
+        final long[] wins = new long[depth + 1];
+        final long[] draws = new long[depth + 1];
+        final List<Set<List<Integer>>> unique = new ArrayList<>();
+        for (int i = 0; i <= depth; i++) {
+            unique.add(new HashSet<>());
+        }
+        enumerate(new GameBoard(start), start.currentPlayer(), 0, depth, positions, wins, draws, unique);
+
+        final List<Perft.Ply> plies = new Perft(GameRules.DEFAULT, ForkJoinPool.commonPool())
+                .run(new GameBoard(start), depth);
+        for (int i = 0; i <= depth; i++) {
+            Assert.assertEquals(positions[i], plies.get(i).positions());
+            Assert.assertEquals(wins[i], plies.get(i).wins());
+            Assert.assertEquals(draws[i], plies.get(i).draws());
+            Assert.assertEquals(unique.get(i).size(), plies.get(i).unique());
+        }
+    }
+
+    @Test
+    public void testRunStopsAtFinishedGame() {
+        final GameState state = new GameState("key", Arrays.asList(0, 1, 0, 1, 0, 1, 0), GameState.PLAYER_1);
+        final List<Perft.Ply> plies = new Perft(GameRules.DEFAULT, ForkJoinPool.commonPool())
+                .run(new GameBoard(state), 4);
+        Assert.assertEquals(1, plies.size());
+        Assert.assertEquals(1, plies.get(0).wins());
+    }
+
+    /**
+     * A reference enumeration through {@link GameBoard}, without transpositions or threads.
+     */
+    private static void enumerate(final GameBoard board,
+                                  final int player,
+                                  final int ply,
+                                  final int depth,
+                                  final long[] positions,
+                                  final long[] wins,
+                                  final long[] draws,
+                                  final List<Set<List<Integer>>> unique) {
+
+        positions[ply]++;
+        unique.get(ply).add(Arrays.asList((int) board.tokens(0), (int) board.tokens(1)));
+
+        if (ply > 0) {
+            switch (board.isGameOver(player ^ 1)) {
+                case WIN:
+                    wins[ply]++;
+                    return;
+                case DRAW:
+                    draws[ply]++;
+                    return;
+                default:
+                    break;
+            }
+        }
+
+        if (ply == depth) {
+            return;
+        }
+
+        for (int column = 0; column < board.rules().columns(); column++) {
+            if (board.height(column) < board.rules().rows()) {
+                enumerate(board.withMove(column), player ^ 1, ply + 1, depth, positions, wins, draws, unique);
+            }
+        }
+    }
+}
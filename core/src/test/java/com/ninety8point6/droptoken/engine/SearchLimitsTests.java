@@ -0,0 +1,52 @@
+package com.ninety8point6.droptoken.engine;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A suite of tests to verify the {@link SearchLimits} has the expected behavior.
+ *
+ * @see SearchLimits
+ */
+public class SearchLimitsTests {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLimitsChecksDepth() {
+        SearchLimits.depth(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLimitsChecksNodes() {
+        SearchLimits.nodes(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLimitsChecksTime() {
+        SearchLimits.time(0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testLimitsNone() {
+        Assert.assertEquals(Integer.MAX_VALUE, SearchLimits.NONE.depth());
+        Assert.assertEquals(Long.MAX_VALUE, SearchLimits.NONE.nodes());
+        Assert.assertFalse(SearchLimits.NONE.isTimed());
+    }
+
+    @Test
+    public void testLimitsCombine() {
+        final SearchLimits limits = SearchLimits.depth(6).withNodes(100).withTime(2, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(6, limits.depth());
+        Assert.assertEquals(100, limits.nodes());
+        Assert.assertEquals(2_000_000, limits.nanos());
+        Assert.assertTrue(limits.isTimed());
+    }
+
+    @Test
+    public void testDifficultiesHaveLimits() {
+        for (final Difficulty difficulty : Difficulty.values()) {
+            Assert.assertNotNull(difficulty.limits());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ninety8point6.droptoken.engine;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * A suite of tests to verify the {@link Tablebase} and {@link TablebaseGenerator} have the expected
+ * behavior.
+ *
+ * @see Tablebase
+ * @see TablebaseGenerator
+ */
+public class TablebaseTests {
+
+    private static Tablebase sTablebase;
+
+    @BeforeClass
+    public static void setUpClass() {
+        sTablebase = new Tablebase(GameRules.DEFAULT, ByteBuffer.wrap(TablebaseGenerator.generate(GameRules.DEFAULT)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTablebaseChecksSize() {
+        new Tablebase(GameRules.DEFAULT, ByteBuffer.allocate(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTablebaseChecksRules() {
+        new Tablebase(new GameRules(4, 4, 3), ByteBuffer.wrap(TablebaseGenerator.generate(GameRules.DEFAULT)));
+    }
+
+    @Test
+    public void testTablebaseTakesWin() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 0, 1, 0, 2));
+        Assert.assertEquals(Tablebase.win(1), sTablebase.probe(position));
+        Assert.assertEquals(0, sTablebase.bestMove(position));
+    }
+
+    @Test
+    public void testTablebaseBlocksLoss() {
+        final Position position = new Position(GameRules.DEFAULT, MoveSequence.of(0, 1, 2, 1, 3, 1));
+        Assert.assertEquals(1, sTablebase.bestMove(position));
+    }
+
+    @Test
+    public void testTablebaseMatchesSearch() {
+
+        final Random random = new Random(42);
+        final NegamaxSearch search = new NegamaxSearch(GameRules.DEFAULT, new TranspositionTable(18));
+
+        for (int game = 0; game < 100; game++) {
+
+            final Position position = new Position(GameRules.DEFAULT);
+            while (!position.isFull() && !position.isLastMoveWin()) {
+
+                final int score = TranspositionTable.score(search.searchRoot(position,
+                        GameRules.DEFAULT.cells(),
+                        -NegamaxSearch.MATE - 1,
+                        NegamaxSearch.MATE + 1));
+                final int entry = sTablebase.probe(position);
+                Assert.assertEquals(score > 0, Tablebase.isWin(entry));
+                Assert.assertEquals(score < 0, Tablebase.isLoss(entry));
+                Assert.assertEquals(score == 0, entry == Tablebase.DRAW);
+
+                int column;
+                do {
+                    column = random.nextInt(GameRules.DEFAULT.columns());
+                } while (!position.canPlay(column));
+                position.play(column);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.ninety8point6.droptoken.game;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.concepts.TokenLocation;
+import com.ninety8point6.droptoken.store.InMemoryGameStore;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link HeadlessGameManager} has the expected behavior.
+ *
+ * @see HeadlessGameManager
+ */
+public class HeadlessGameManagerTests {
+
+    private static final String KEY = "headless";
+
+    @Mock
+    private HeadlessGameManager.Listener mockListener;
+
+    private InMemoryGameStore mStore;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mStore = new InMemoryGameStore();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testManagerChecksService() {
+        new HeadlessGameManager(GameRules.DEFAULT, null, mStore, mockListener, KEY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testManagerChecksInitialPlayer() {
+        manager(column(0)).setInitialPlayer(3);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPlayRequiresGame() {
+        manager(column(0)).play(new TokenLocation(0));
+    }
+
+    @Test
+    public void testNewGameHandsTurnToPlayerOne() {
+        final HeadlessGameManager manager = manager(column(0));
+        manager.newGame();
+        verify(mockListener).onTurn(any(GameState.class), any());
+        assertEquals(Collections.emptyList(), manager.state().moves());
+    }
+
+    @Test
+    public void testNewGameLetsServiceMoveFirst() {
+        final HeadlessGameManager manager = manager(column(2));
+        manager.setInitialPlayer(GameState.PLAYER_2);
+        manager.newGame();
+        verify(mockListener).onTurn(any(GameState.class), any());
+        assertEquals(Collections.singletonList(2), manager.state().moves());
+    }
+
+    @Test
+    public void testPlaySavesEachState() {
+        final HeadlessGameManager manager = manager(column(1));
+        manager.newGame();
+        manager.play(new TokenLocation(0));
+
+        final List<GameState> saved = new ArrayList<>();
+        mStore.get(KEY, new ResponseCallback<GameState, Throwable>() {
+            @Override
+            public void onSuccess(final GameState response) {
+                saved.add(response);
+            }
+
+            @Override
+            public void onError(final Throwable reason) {
+            }
+        });
+        assertEquals(Arrays.asList(0, 1), saved.get(0).moves());
+    }
+
+    @Test
+    public void testPlayReportsPlayerOneWin() {
+        final HeadlessGameManager manager = manager(column(1));
+        manager.newGame();
+        for (int i = 0; i < 4; i++) {
+            manager.play(new TokenLocation(0));
+        }
+        verify(mockListener).onGameOver(any(GameState.class), any(), eq(GameState.PLAYER_1));
+        assertEquals(Arrays.asList(0, 1, 0, 1, 0, 1, 0), manager.state().moves());
+    }
+
+    @Test
+    public void testPlayReportsServiceWin() {
+        final HeadlessGameManager manager = manager(column(1));
+        manager.newGame();
+        manager.play(new TokenLocation(0));
+        manager.play(new TokenLocation(2));
+        manager.play(new TokenLocation(3));
+        manager.play(new TokenLocation(0));
+        verify(mockListener).onGameOver(any(GameState.class), any(), eq(GameState.PLAYER_2));
+    }
+
+    @Test
+    public void testPlayRejectsInvalidLocation() {
+        final HeadlessGameManager manager = manager(column(1));
+        manager.newGame();
+        manager.play(new TokenLocation(7));
+        verify(mockListener).onError(anyString(), isNull());
+        verify(mockListener, never()).onGameOver(any(GameState.class), any(), anyInt());
+    }
+
+    @Test
+    public void testServiceInvalidReplyReportsError() {
+        final HeadlessGameManager manager = manager((move, callback) -> callback.onSuccess(Collections.emptyList()));
+        manager.newGame();
+        manager.play(new TokenLocation(0));
+        verify(mockListener).onError(anyString(), isNull());
+    }
+
+    @Test
+    public void testServiceRewrittenMovesReportsError() {
+        final HeadlessGameManager manager = manager((move, callback) -> callback.onSuccess(Arrays.asList(1, 2)));
+        manager.newGame();
+        manager.play(new TokenLocation(0));
+        verify(mockListener).onError(anyString(), isNull());
+        assertEquals(Collections.emptyList(), manager.state().moves());
+    }
+
+    @Test
+    public void testServiceNullMoveReportsError() {
+        final HeadlessGameManager manager = manager((move, callback) -> callback.onSuccess(Arrays.asList(0, null)));
+        manager.newGame();
+        manager.play(new TokenLocation(0));
+        verify(mockListener).onError(anyString(), isNull());
+        assertEquals(Collections.emptyList(), manager.state().moves());
+    }
+
+    @Test
+    public void testServiceErrorReportsError() {
+        final RuntimeException expected = new RuntimeException("Unavailable!");
+        final HeadlessGameManager manager = manager((move, callback) -> callback.onError(expected));
+        manager.newGame();
+        manager.play(new TokenLocation(0));
+        verify(mockListener).onError(anyString(), eq(expected));
+    }
+
+    @Test
+    public void testLoadGameResumesStoredGame() {
+        final HeadlessGameManager first = manager(column(1));
+        first.newGame();
+        first.play(new TokenLocation(0));
+
+        final HeadlessGameManager second = manager(column(1));
+        second.loadGame();
+        assertEquals(Arrays.asList(0, 1), second.state().moves());
+    }
+
+    private HeadlessGameManager manager(final GameService service) {
+        return new HeadlessGameManager(GameRules.DEFAULT, service, mStore, mockListener, KEY);
+    }
+
+    /**
+     * @return a {@link GameService} which always replies with the provided column
+     */
+    private static GameService column(final int column) {
+        return (move, callback) -> callback.onSuccess(move.sequence().append(column));
+    }
+}
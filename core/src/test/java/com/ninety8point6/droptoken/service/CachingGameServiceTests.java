@@ -0,0 +1,123 @@
+package com.ninety8point6.droptoken.service;
+
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link CachingGameService} has the expected behavior.
+ *
+ * @see CachingGameService
+ */
+public class CachingGameServiceTests {
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockCallback;
+
+    private final AtomicInteger mCalls = new AtomicInteger();
+
+    private MappedResponseCache mCache;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mCache = MappedResponseCache.open(mFolder.newFile(), 64);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mCache.close();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksDelegate() {
+        new CachingGameService(null, mCache);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksCache() {
+        new CachingGameService(replying(Arrays.asList(0, 1)), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksMove() {
+        new CachingGameService(replying(Arrays.asList(0, 1)), mCache).play(null, mockCallback);
+    }
+
+    @Test
+    public void testRepeatIsAnsweredFromCache() {
+        final CachingGameService service = new CachingGameService(replying(Arrays.asList(0, 1)), mCache);
+        service.play(new Move(Collections.singletonList(0)), mockCallback);
+        service.play(new Move(Collections.singletonList(0)), mockCallback);
+
+        verify(mockCallback, times(2)).onSuccess(Arrays.asList(0, 1));
+        assertEquals(1, mCalls.get());
+        assertEquals(1, service.hits());
+        assertEquals(1, service.misses());
+        assertEquals(0.5, service.hitRate(), 0);
+    }
+
+    @Test
+    public void testInvalidMovesAreCached() {
+        final CachingGameService service = new CachingGameService(replying(Collections.emptyList()), mCache);
+        service.play(new Move(Arrays.asList(0, 0, 0, 0, 0)), mockCallback);
+        service.play(new Move(Arrays.asList(0, 0, 0, 0, 0)), mockCallback);
+
+        verify(mockCallback, times(2)).onSuccess(Collections.emptyList());
+        assertEquals(1, mCalls.get());
+    }
+
+    @Test
+    public void testMalformedRepliesAreNotCached() {
+        final CachingGameService service = new CachingGameService(replying(Arrays.asList(3, 1)), mCache);
+        service.play(new Move(Collections.singletonList(0)), mockCallback);
+        service.play(new Move(Collections.singletonList(0)), mockCallback);
+
+        verify(mockCallback, times(2)).onSuccess(Arrays.asList(3, 1));
+        assertEquals(2, mCalls.get());
+        assertEquals(0, service.hits());
+    }
+
+    @Test
+    public void testErrorsAreNotCached() {
+        final RuntimeException expected = new RuntimeException("Unavailable!");
+        final CachingGameService service = new CachingGameService((move, callback) -> {
+            mCalls.incrementAndGet();
+            callback.onError(expected);
+        }, mCache);
+        service.play(new Move(Collections.emptyList()), mockCallback);
+        service.play(new Move(Collections.emptyList()), mockCallback);
+
+        verify(mockCallback, times(2)).onError(expected);
+        assertEquals(2, mCalls.get());
+    }
+
+    /**
+     * @return a {@link GameService} which always replies with the provided response
+     */
+    private GameService replying(final List<Integer> response) {
+        return (move, callback) -> {
+            mCalls.incrementAndGet();
+            callback.onSuccess(response);
+        };
+    }
+}
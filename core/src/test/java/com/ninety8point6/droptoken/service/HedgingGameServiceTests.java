@@ -0,0 +1,300 @@
+package com.ninety8point6.droptoken.service;
+
+import com.ninety8point6.droptoken.concepts.Cancellable;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link HedgingGameService} has the expected behavior.
+ *
+ * @see HedgingGameService
+ */
+public class HedgingGameServiceTests {
+
+    private static final long DEADLINE_MILLIS = 400;
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+
+    private static final Move MOVE = new Move(Collections.singletonList(0));
+    private static final List<Integer> REPLY = Arrays.asList(0, 1);
+    private static final List<Integer> FALLBACK_REPLY = Arrays.asList(0, 2);
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockCallback;
+
+    @Mock
+    private Cancellable mockPrimaryRequest;
+
+    @Mock
+    private Cancellable mockSecondaryRequest;
+
+    /**
+     * The callbacks handed to the services, which reply only when the test says so.
+     */
+    private final List<ResponseCallback<List<Integer>, Throwable>> mPrimary = new CopyOnWriteArrayList<>();
+    private final List<ResponseCallback<List<Integer>, Throwable>> mSecondary = new CopyOnWriteArrayList<>();
+
+    private GameService mPrimaryService;
+    private GameService mSecondaryService;
+    private ScheduledExecutorService mScheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mScheduler = Executors.newSingleThreadScheduledExecutor();
+        mPrimaryService = pending(mPrimary, mockPrimaryRequest);
+        mSecondaryService = pending(mSecondary, mockSecondaryRequest);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mScheduler.shutdownNow();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksPrimary() {
+        new HedgingGameService(null, mSecondaryService, mScheduler, 1, TimeUnit.SECONDS, true);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksSecondary() {
+        new HedgingGameService(mPrimaryService, null, mScheduler, 1, TimeUnit.SECONDS, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServiceChecksDeadline() {
+        new HedgingGameService(mPrimaryService, mSecondaryService, mScheduler, 0, TimeUnit.SECONDS, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksMove() {
+        service(true).play(null, mockCallback);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksCallback() {
+        service(true).play(MOVE, null);
+    }
+
+    @Test
+    public void testPromptReplyIsPassedOn() throws Exception {
+        final HedgingGameService service = service(true);
+        service.play(MOVE, mockCallback);
+        mPrimary.get(0).onSuccess(REPLY);
+
+        verify(mockCallback).onSuccess(REPLY);
+        Thread.sleep(DEADLINE_MILLIS + 100);
+        assertEquals(1, mPrimary.size());
+        assertEquals(0, mSecondary.size());
+        assertEquals(0, service.hedges());
+        assertEquals(0, service.timeouts());
+        verifyNoMoreInteractions(mockCallback);
+    }
+
+    @Test
+    public void testSlowReplyIsHedged() throws Exception {
+        final HedgingGameService service = service(true);
+        service.play(MOVE, mockCallback);
+
+        awaitSize(mPrimary, 2);
+        assertEquals(1, service.hedges());
+
+        mPrimary.get(1).onSuccess(REPLY);
+        verify(mockCallback).onSuccess(REPLY);
+        verify(mockPrimaryRequest, atLeastOnce()).cancel();
+        assertEquals(1, service.hedgeWins());
+
+        // The original's late reply is dropped
+        mPrimary.get(0).onSuccess(REPLY);
+        verify(mockCallback, times(1)).onSuccess(any());
+    }
+
+    @Test
+    public void testHedgingIsOptional() throws Exception {
+        final HedgingGameService service = service(false);
+        service.play(MOVE, mockCallback);
+
+        Thread.sleep(DEADLINE_MILLIS * 3 / 4);
+        assertEquals(1, mPrimary.size());
+        assertEquals(0, service.hedges());
+    }
+
+    @Test
+    public void testDeadlineFallsBackToSecondary() throws Exception {
+        final HedgingGameService service = service(true);
+        service.play(MOVE, mockCallback);
+
+        awaitSize(mSecondary, 1);
+        verify(mockPrimaryRequest, times(2)).cancel();
+        assertEquals(1, service.timeouts());
+        assertEquals(1, service.fallbacks());
+
+        mSecondary.get(0).onSuccess(FALLBACK_REPLY);
+        verify(mockCallback).onSuccess(FALLBACK_REPLY);
+
+        // The primary's late reply is dropped
+        mPrimary.get(0).onSuccess(REPLY);
+        verify(mockCallback, never()).onSuccess(REPLY);
+    }
+
+    @Test
+    public void testPrimaryErrorFallsBackImmediately() {
+        final HedgingGameService service = service(true);
+        service.play(MOVE, mockCallback);
+        mPrimary.get(0).onError(new RuntimeException("Unavailable!"));
+
+        assertEquals(1, mSecondary.size());
+        assertEquals(0, service.timeouts());
+        assertEquals(1, service.fallbacks());
+
+        mSecondary.get(0).onSuccess(FALLBACK_REPLY);
+        verify(mockCallback).onSuccess(FALLBACK_REPLY);
+        verify(mockCallback, never()).onError(any());
+    }
+
+    @Test
+    public void testSecondaryErrorIsPassedOn() {
+        final RuntimeException expected = new RuntimeException("No engine!");
+        service(true).play(MOVE, mockCallback);
+        mPrimary.get(0).onError(new RuntimeException("Unavailable!"));
+        mSecondary.get(0).onError(expected);
+
+        verify(mockCallback).onError(expected);
+    }
+
+    @Test
+    public void testCancelStopsEverything() throws Exception {
+        service(true).request(MOVE, mockCallback).cancel();
+
+        verify(mockPrimaryRequest).cancel();
+        Thread.sleep(DEADLINE_MILLIS + 100);
+        assertEquals(1, mPrimary.size());
+        assertEquals(0, mSecondary.size());
+        verifyNoMoreInteractions(mockCallback);
+    }
+
+    @Test
+    public void testHedgeDelayTracksPrimaryLatency() throws Exception {
+        final ExecutorService replies = Executors.newSingleThreadExecutor();
+        final HedgingGameService service = new HedgingGameService(
+                (move, callback) -> replies.execute(() -> callback.onSuccess(REPLY)),
+                mSecondaryService,
+                mScheduler,
+                DEADLINE_MILLIS,
+                TimeUnit.MILLISECONDS,
+                true);
+        try {
+            assertEquals(DEADLINE_MILLIS / 2, service.hedgeDelay(TimeUnit.MILLISECONDS));
+            for (int i = 0; i < HedgingGameService.LATENCY_WINDOW * 3; i++) {
+                service.play(MOVE, mockCallback);
+            }
+            verify(mockCallback, timeout(5 * DEADLINE_MILLIS).times(HedgingGameService.LATENCY_WINDOW * 3)).onSuccess(REPLY);
+
+            // Prompt replies put the 95th percentile well under the deadline
+            assertTrue(service.hedgeDelay(TimeUnit.MILLISECONDS) < DEADLINE_MILLIS / 2);
+        } finally {
+            replies.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSynchronousRepliesAreNotSampled() {
+        final HedgingGameService service = new HedgingGameService((move, callback) -> callback.onSuccess(REPLY),
+                mSecondaryService,
+                mScheduler,
+                DEADLINE_MILLIS,
+                TimeUnit.MILLISECONDS,
+                true);
+
+        for (int i = 0; i < HedgingGameService.LATENCY_WINDOW; i++) {
+            service.play(MOVE, mockCallback);
+        }
+        assertEquals(DEADLINE_MILLIS / 2, service.hedgeDelay(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testFallbackRepliesAreNotCached() throws Exception {
+        try (MappedResponseCache cache = MappedResponseCache.open(mFolder.newFile(), 64)) {
+            final HedgingGameService service = new HedgingGameService(new CachingGameService(mPrimaryService, cache),
+                    mSecondaryService,
+                    mScheduler,
+                    DEADLINE_MILLIS,
+                    TimeUnit.MILLISECONDS,
+                    true);
+
+            // A timeout and a failure both fall back, and neither reply is recorded
+            service.play(MOVE, mockCallback);
+            awaitSize(mSecondary, 1);
+            mSecondary.get(0).onSuccess(FALLBACK_REPLY);
+
+            service.play(MOVE, mockCallback);
+            mPrimary.get(mPrimary.size() - 1).onError(new RuntimeException("Unavailable!"));
+            mSecondary.get(1).onSuccess(FALLBACK_REPLY);
+
+            verify(mockCallback, times(2)).onSuccess(FALLBACK_REPLY);
+            assertEquals(MappedResponseCache.ABSENT, cache.get(MOVE.sequence()));
+
+            // Whereas the primary's replies are
+            service.play(MOVE, mockCallback);
+            mPrimary.get(mPrimary.size() - 1).onSuccess(REPLY);
+            assertEquals(1, cache.get(MOVE.sequence()));
+        }
+    }
+
+    private HedgingGameService service(final boolean hedge) {
+        return new HedgingGameService(mPrimaryService,
+                mSecondaryService,
+                mScheduler,
+                DEADLINE_MILLIS,
+                TimeUnit.MILLISECONDS,
+                hedge);
+    }
+
+    private static GameService pending(final List<ResponseCallback<List<Integer>, Throwable>> callbacks,
+                                       final Cancellable cancellable) {
+        return new GameService() {
+
+            @Override
+            public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+                callbacks.add(callback);
+            }
+
+            @Override
+            public Cancellable request(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+                play(move, callback);
+                return cancellable;
+            }
+        };
+    }
+
+    private static void awaitSize(final List<?> list, final int size) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5 * DEADLINE_MILLIS;
+        while (list.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(size, list.size());
+    }
+}
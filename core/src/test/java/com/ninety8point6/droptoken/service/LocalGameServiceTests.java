@@ -0,0 +1,102 @@
+package com.ninety8point6.droptoken.service;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link LocalGameService} has the expected behavior.
+ *
+ * @see LocalGameService
+ */
+public class LocalGameServiceTests {
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockCallback;
+
+    private LocalGameService mService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mService = new LocalGameService(GameRules.DEFAULT, Runnable::run);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksRules() {
+        new LocalGameService(null, Runnable::run);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksExecutor() {
+        new LocalGameService(GameRules.DEFAULT, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServiceChecksThreads() {
+        new LocalGameService(GameRules.DEFAULT, Runnable::run, GameRules.DEFAULT.cells(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksMove() {
+        mService.play(null, mockCallback);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksCallback() {
+        mService.play(new Move(Collections.emptyList()), null);
+    }
+
+    @Test
+    public void testServiceHandlesRejectedExecution() {
+        final RuntimeException expected = new RuntimeException("Rejected!");
+        final Executor executor = command -> {
+            throw expected;
+        };
+        new LocalGameService(GameRules.DEFAULT, executor).play(new Move(Collections.emptyList()), mockCallback);
+        verify(mockCallback).onError(expected);
+    }
+
+    @Test
+    public void testServicePlaysFirstMove() {
+        mService.play(new Move(Collections.emptyList()), mockCallback);
+        verify(mockCallback).onSuccess(argThat(l -> l.size() == 1));
+    }
+
+    @Test
+    public void testServiceExtendsMoves() {
+        mService.play(new Move(Arrays.asList(0, 1, 0, 1, 0)), mockCallback);
+        verify(mockCallback).onSuccess(Arrays.asList(0, 1, 0, 1, 0, 0));
+    }
+
+    @Test
+    public void testServiceExtendsMovesWithHelpers() {
+        new LocalGameService(GameRules.DEFAULT, Runnable::run, GameRules.DEFAULT.cells(), 4)
+                .play(new Move(Arrays.asList(0, 1, 0, 1, 0)), mockCallback);
+        verify(mockCallback).onSuccess(Arrays.asList(0, 1, 0, 1, 0, 0));
+    }
+
+    @Test
+    public void testServiceRejectsFullColumn() {
+        mService.play(new Move(Arrays.asList(0, 0, 0, 0, 0)), mockCallback);
+        verify(mockCallback).onSuccess(argThat(List::isEmpty));
+    }
+
+    @Test
+    public void testServiceRejectsFinishedGame() {
+        mService.play(new Move(Arrays.asList(0, 1, 0, 1, 0, 1, 0)), mockCallback);
+        verify(mockCallback).onSuccess(argThat(List::isEmpty));
+    }
+}
@@ -0,0 +1,190 @@
+package com.ninety8point6.droptoken.service;
+
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A suite of tests to verify the {@link MappedResponseCache} has the expected behavior.
+ *
+ * @see MappedResponseCache
+ */
+public class MappedResponseCacheTests {
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mFile;
+    private MappedResponseCache mCache;
+
+    @Before
+    public void setUp() throws Exception {
+        mFile = mFolder.newFile("responses.cache");
+        mCache = MappedResponseCache.open(mFile, 64);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mCache.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOpenChecksCapacity() throws Exception {
+        MappedResponseCache.open(mFile, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutChecksReply() {
+        mCache.put(MoveSequence.EMPTY, MoveSequence.COLUMN_LIMIT);
+    }
+
+    @Test
+    public void testCapacityIsRoundedUp() throws Exception {
+        assertEquals(64, mCache.capacity());
+        try (final MappedResponseCache cache = MappedResponseCache.open(mFolder.newFile(), 100)) {
+            assertEquals(128, cache.capacity());
+        }
+    }
+
+    @Test
+    public void testPutThenGet() {
+        assertEquals(MappedResponseCache.ABSENT, mCache.get(MoveSequence.of(0, 1)));
+
+        mCache.put(MoveSequence.of(0, 1), 3);
+        mCache.put(MoveSequence.of(0, 0, 0, 0, 0), MappedResponseCache.INVALID);
+        mCache.put(MoveSequence.EMPTY, 0);
+
+        assertEquals(3, mCache.get(MoveSequence.of(0, 1)));
+        assertEquals(MappedResponseCache.INVALID, mCache.get(MoveSequence.of(0, 0, 0, 0, 0)));
+        assertEquals(0, mCache.get(MoveSequence.EMPTY));
+
+        // Sequences differing only by trailing zero columns are distinct keys
+        assertEquals(MappedResponseCache.ABSENT, mCache.get(MoveSequence.of(0, 1, 0)));
+        assertEquals(MappedResponseCache.ABSENT, mCache.get(MoveSequence.of(0)));
+    }
+
+    @Test
+    public void testPutReplacesReply() {
+        mCache.put(MoveSequence.of(2), 1);
+        mCache.put(MoveSequence.of(2), 2);
+        assertEquals(2, mCache.get(MoveSequence.of(2)));
+    }
+
+    @Test
+    public void testLongSequencesAreKeyedExactly() {
+        final int[] long1 = new int[MappedResponseCache.MAX_MOVES];
+        final int[] long2 = new int[MappedResponseCache.MAX_MOVES];
+        long2[MappedResponseCache.MAX_MOVES - 1] = 5;
+
+        mCache.put(MoveSequence.of(long1), 1);
+        mCache.put(MoveSequence.of(long2), 2);
+        mCache.put(MoveSequence.of(long1).append(0), 3);
+
+        assertEquals(1, mCache.get(MoveSequence.of(long1)));
+        assertEquals(2, mCache.get(MoveSequence.of(long2)));
+        assertEquals(MappedResponseCache.ABSENT, mCache.get(MoveSequence.of(long1).append(0)));
+    }
+
+    @Test
+    public void testEntriesSurviveReopening() throws Exception {
+        mCache.put(MoveSequence.of(1, 2, 3), 0);
+        mCache.close();
+
+        mCache = MappedResponseCache.open(mFile, 64);
+        assertEquals(0, mCache.get(MoveSequence.of(1, 2, 3)));
+    }
+
+    @Test
+    public void testCapacityChangeResetsFile() throws Exception {
+        mCache.put(MoveSequence.of(1, 2, 3), 0);
+        mCache.close();
+
+        mCache = MappedResponseCache.open(mFile, 256);
+        assertEquals(MappedResponseCache.ABSENT, mCache.get(MoveSequence.of(1, 2, 3)));
+    }
+
+    @Test
+    public void testEvictionBoundsEntries() {
+        int stored = 0;
+        for (int a = 0; a < 16; a++) {
+            for (int b = 0; b < 16; b++) {
+                mCache.put(MoveSequence.of(a, b), (a + b) % 4);
+            }
+        }
+        for (int a = 0; a < 16; a++) {
+            for (int b = 0; b < 16; b++) {
+                final int reply = mCache.get(MoveSequence.of(a, b));
+                if (reply != MappedResponseCache.ABSENT) {
+                    assertEquals((a + b) % 4, reply);
+                    stored++;
+                }
+            }
+        }
+        assertTrue(stored <= mCache.capacity());
+        assertTrue(mCache.evictions() >= 256 - mCache.capacity());
+    }
+
+    @Test
+    public void testEvictionResumesFromTheHand() throws Exception {
+        try (final MappedResponseCache cache = MappedResponseCache.open(mFolder.newFile(), 1)) {
+            // A single set: fill it, then insert two more without reading anything
+            for (int column = 0; column < MappedResponseCache.WAYS; column++) {
+                cache.put(MoveSequence.of(column), column);
+            }
+            cache.put(MoveSequence.of(8), 8);
+            cache.put(MoveSequence.of(9), 9);
+
+            // The two oldest entries make way, not the first of the new ones
+            assertEquals(MappedResponseCache.ABSENT, cache.get(MoveSequence.of(0)));
+            assertEquals(MappedResponseCache.ABSENT, cache.get(MoveSequence.of(1)));
+            assertEquals(2, cache.get(MoveSequence.of(2)));
+            assertEquals(3, cache.get(MoveSequence.of(3)));
+            assertEquals(8, cache.get(MoveSequence.of(8)));
+            assertEquals(9, cache.get(MoveSequence.of(9)));
+            assertEquals(2, cache.evictions());
+        }
+    }
+
+    @Test
+    public void testHandSurvivesReopening() throws Exception {
+        final File file = mFolder.newFile();
+        try (final MappedResponseCache cache = MappedResponseCache.open(file, 1)) {
+            for (int column = 0; column < MappedResponseCache.WAYS; column++) {
+                cache.put(MoveSequence.of(column), column);
+            }
+            cache.put(MoveSequence.of(8), 8);
+        }
+        try (final MappedResponseCache cache = MappedResponseCache.open(file, 1)) {
+            cache.put(MoveSequence.of(9), 9);
+
+            assertEquals(MappedResponseCache.ABSENT, cache.get(MoveSequence.of(1)));
+            assertEquals(8, cache.get(MoveSequence.of(8)));
+            assertEquals(9, cache.get(MoveSequence.of(9)));
+        }
+    }
+
+    @Test
+    public void testReferencedEntriesSurviveEviction() throws Exception {
+        try (final MappedResponseCache cache = MappedResponseCache.open(mFolder.newFile(), 1)) {
+            // A single set: fill it, read one entry, then insert another
+            for (int column = 0; column < MappedResponseCache.WAYS; column++) {
+                cache.put(MoveSequence.of(column), column);
+            }
+            assertEquals(2, cache.get(MoveSequence.of(2)));
+            cache.put(MoveSequence.of(9), 9);
+
+            assertEquals(2, cache.get(MoveSequence.of(2)));
+            assertEquals(9, cache.get(MoveSequence.of(9)));
+            assertEquals(1, cache.evictions());
+        }
+    }
+}
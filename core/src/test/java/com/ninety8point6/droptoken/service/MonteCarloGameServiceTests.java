@@ -0,0 +1,99 @@
+package com.ninety8point6.droptoken.service;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.engine.MonteCarloTreeSearch;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link MonteCarloGameService} has the expected behavior.
+ *
+ * @see MonteCarloGameService
+ */
+public class MonteCarloGameServiceTests {
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockCallback;
+
+    private final MonteCarloTreeSearch mSearch = new MonteCarloTreeSearch(ForkJoinPool.commonPool(), 2, 42L);
+
+    private MonteCarloGameService mService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mService = new MonteCarloGameService(GameRules.DEFAULT, Runnable::run, mSearch, 2_000);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksRules() {
+        new MonteCarloGameService(null, Runnable::run, mSearch, 2_000);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksExecutor() {
+        new MonteCarloGameService(GameRules.DEFAULT, null, mSearch, 2_000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServiceChecksPlayouts() {
+        new MonteCarloGameService(GameRules.DEFAULT, Runnable::run, mSearch, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksMove() {
+        mService.play(null, mockCallback);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksCallback() {
+        mService.play(new Move(Collections.emptyList()), null);
+    }
+
+    @Test
+    public void testServiceHandlesRejectedExecution() {
+        final RuntimeException expected = new RuntimeException("Rejected!");
+        final Executor executor = command -> {
+            throw expected;
+        };
+        new MonteCarloGameService(GameRules.DEFAULT, executor, mSearch, 2_000).play(new Move(Collections.emptyList()), mockCallback);
+        verify(mockCallback).onError(expected);
+    }
+
+    @Test
+    public void testServicePlaysFirstMove() {
+        mService.play(new Move(Collections.emptyList()), mockCallback);
+        verify(mockCallback).onSuccess(argThat(l -> l.size() == 1));
+    }
+
+    @Test
+    public void testServiceExtendsMoves() {
+        mService.play(new Move(Arrays.asList(0, 1, 0, 1, 0)), mockCallback);
+        verify(mockCallback).onSuccess(Arrays.asList(0, 1, 0, 1, 0, 0));
+    }
+
+    @Test
+    public void testServiceRejectsFullColumn() {
+        mService.play(new Move(Arrays.asList(0, 0, 0, 0, 0)), mockCallback);
+        verify(mockCallback).onSuccess(argThat(List::isEmpty));
+    }
+
+    @Test
+    public void testServiceRejectsFinishedGame() {
+        mService.play(new Move(Arrays.asList(0, 1, 0, 1, 0, 1, 0)), mockCallback);
+        verify(mockCallback).onSuccess(argThat(List::isEmpty));
+    }
+}
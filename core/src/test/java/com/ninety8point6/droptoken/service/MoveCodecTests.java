@@ -0,0 +1,98 @@
+package com.ninety8point6.droptoken.service;
+
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A suite of tests to verify the {@link MoveCodec} has the expected behavior.
+ *
+ * @see MoveCodec
+ */
+public class MoveCodecTests {
+
+    @Test
+    public void testEncodeEmpty() {
+        assertEquals("%5B%5D", MoveCodec.encodeQueryValue(MoveSequence.EMPTY));
+    }
+
+    @Test
+    public void testEncodeMoves() {
+        assertEquals("%5B0%2C3%2C15%5D", MoveCodec.encodeQueryValue(MoveSequence.of(0, 3, 15)));
+    }
+
+    @Test
+    public void testDecodeEmpty() throws IOException {
+        assertEquals(MoveSequence.EMPTY, decode("[]"));
+        assertEquals(MoveSequence.EMPTY, decode(" [ ] \n"));
+    }
+
+    @Test
+    public void testDecodeMoves() throws IOException {
+        assertEquals(MoveSequence.of(0, 3, 1), decode("[0,3,1]"));
+        assertEquals(MoveSequence.of(0, 3, 1), decode("[ 0 ,\t3,\r\n1 ]"));
+    }
+
+    @Test
+    public void testDecodeLongGame() throws IOException {
+        final int[] columns = new int[42];
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = i % 7;
+            json.append(i == 0 ? "" : ",").append(columns[i]);
+        }
+        assertEquals(MoveSequence.of(columns), decode(json.append(']').toString()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeRejectsEmptyBody() throws IOException {
+        decode("");
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeRejectsNull() throws IOException {
+        decode("null");
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeRejectsTruncatedArray() throws IOException {
+        decode("[1,2");
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeRejectsNullColumn() throws IOException {
+        decode("[1,null]");
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeRejectsNegativeColumn() throws IOException {
+        decode("[-1]");
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeRejectsOutOfRangeColumn() throws IOException {
+        decode("[16]");
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeRejectsTrailingContent() throws IOException {
+        decode("[1] [2]");
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final MoveSequence moves = MoveSequence.of(1, 2, 2, 1, 0, 3, 3);
+        final String json = java.net.URLDecoder.decode(MoveCodec.encodeQueryValue(moves), "UTF-8");
+        assertEquals(moves, decode(json));
+    }
+
+    private static MoveSequence decode(final String json) throws IOException {
+        return MoveCodec.decode(new Buffer().writeUtf8(json));
+    }
+}
@@ -0,0 +1,75 @@
+package com.ninety8point6.droptoken.service;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link RandomGameService} has the expected behavior.
+ *
+ * @see RandomGameService
+ */
+public class RandomGameServiceTests {
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockCallback;
+
+    private RandomGameService mService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mService = new RandomGameService(GameRules.DEFAULT, 42L);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksRules() {
+        new RandomGameService(null, 42L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksMove() {
+        mService.play(null, mockCallback);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksCallback() {
+        mService.play(new Move(Collections.emptyList()), null);
+    }
+
+    @Test
+    public void testServicePlaysFirstMove() {
+        mService.play(new Move(Collections.emptyList()), mockCallback);
+        verify(mockCallback).onSuccess(argThat(l -> l.size() == 1 && l.get(0) >= 0 && l.get(0) < 4));
+    }
+
+    @Test
+    public void testServicePlaysOnlyOpenColumn() {
+        // Columns 0, 1 and 3 are full and nobody has four in a row.
+        mService.play(new Move(Arrays.asList(0, 1, 0, 1, 1, 0, 1, 0, 3, 3, 3, 3)), mockCallback);
+        verify(mockCallback).onSuccess(Arrays.asList(0, 1, 0, 1, 1, 0, 1, 0, 3, 3, 3, 3, 2));
+    }
+
+    @Test
+    public void testServiceRepliesEmptyForFinishedGame() {
+        mService.play(new Move(Arrays.asList(0, 1, 0, 1, 0, 1, 0)), mockCallback);
+        verify(mockCallback).onSuccess(Collections.emptyList());
+    }
+
+    @Test
+    public void testServiceRepliesEmptyForInvalidMoves() {
+        mService.play(new Move(Arrays.asList(0, 0, 0, 0, 0)), mockCallback);
+        verify(mockCallback).onSuccess(Collections.emptyList());
+    }
+}
@@ -1,33 +1,29 @@
 package com.ninety8point6.droptoken.service;
 
-import com.ninety8point6.droptoken.BuildConfig;
 import com.ninety8point6.droptoken.concepts.Move;
 import com.ninety8point6.droptoken.concepts.ResponseCallback;
 
 import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
 
 import java.io.IOException;
 import java.net.URL;
-import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
-import okio.BufferedSource;
 
 import static org.mockito.Mockito.*;
 
@@ -36,8 +32,6 @@ import static org.mockito.Mockito.*;
  *
  * @see SimpleGameService
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(constants = BuildConfig.class, sdk = 25)
 public class SimpleGameServiceTests {
 
     private static final String TEST_ENDPOINT_URL = "https://www.foo.bar/bash";
@@ -135,18 +129,88 @@ public class SimpleGameServiceTests {
         final Call call = mock(Call.class);
         doReturn(call).when(mockHttpClient).newCall(any(Request.class));
 
-        final BufferedSource source = mock(BufferedSource.class);
-        final ResponseBody body = mock(ResponseBody.class);
-        doReturn(source).when(body).source();
-        doReturn("[1]").when(source).readString(any(Charset.class));
+        respondWith(call, 200, "[1]");
+
+        mService.play(mMove, mockCallback);
+
+        verify(mockCallback).onSuccess(Collections.singletonList(1));
+    }
+
+    @Test
+    public void testServiceHandlesMalformedResponse() throws Exception {
+
+        final Call call = mock(Call.class);
+        doReturn(call).when(mockHttpClient).newCall(any(Request.class));
+        respondWith(call, 200, "[1,");
+
+        mService.play(mMove, mockCallback);
+
+        verify(mockCallback).onError(any(IOException.class));
+        verify(mockCallback, never()).onSuccess(any());
+    }
+
+    @Test
+    public void testServiceEncodesMoves() {
+
+        final Call call = mock(Call.class);
+        doReturn(call).when(mockHttpClient).newCall(any(Request.class));
+
+        mService.play(new Move(Arrays.asList(0, 3, 1)), mockCallback);
+
+        verify(mockHttpClient).newCall(argThat(request -> "[0,3,1]".equals(request.url().queryParameter("moves"))));
+    }
+
+    @Test
+    public void testServiceRequestCancelsCall() {
+
+        final Call call = mock(Call.class);
+        doReturn(call).when(mockHttpClient).newCall(any(Request.class));
+
+        mService.request(mMove, mockCallback).cancel();
+
+        verify(call).enqueue(any(Callback.class));
+        verify(call).cancel();
+    }
+
+    @Test
+    public void testServiceRequestDropsResponseAfterCancel() throws Exception {
+
+        final Call call = mock(Call.class);
+        doReturn(call).when(mockHttpClient).newCall(any(Request.class));
+
+        final Callback[] enqueued = new Callback[1];
+        doAnswer(invocation -> {
+            enqueued[0] = invocation.getArgument(0);
+            return null;
+        }).when(call).enqueue(any(Callback.class));
+
+        mService.request(mMove, mockCallback).cancel();
+        enqueued[0].onFailure(call, new IOException("Canceled"));
+
+        verify(mockCallback, never()).onError(any());
+        verify(mockCallback, never()).onSuccess(any());
+    }
+
+    @Test
+    public void testServiceRequestHandlesException() {
+        final Exception expected = new RuntimeException("Boom!");
+        doThrow(expected).when(mockHttpClient).newCall(any(Request.class));
+        mService.request(mMove, mockCallback).cancel();
+        verify(mockCallback).onError(expected);
+    }
+
+    /**
+     * Answer the call with the provided code and body. Response and ResponseBody are real instances,
+     * as Response cannot be mocked and the body is read from its source.
+     */
+    private void respondWith(final Call call, final int code, final String body) throws IOException {
 
-        // Required as Response cannot be mocked
         final Response response = new Response.Builder()
                 .request(new Request.Builder().url(TEST_ENDPOINT_URL).build())
                 .protocol(Protocol.HTTP_1_1)
                 .message("")
-                .code(200)
-                .body(body)
+                .code(code)
+                .body(ResponseBody.create(MediaType.parse("application/json"), body))
                 .build();
 
         doAnswer(invocation -> {
@@ -154,9 +218,5 @@ public class SimpleGameServiceTests {
             callback.onResponse(call, response);
             return null;
         }).when(call).enqueue(any(Callback.class));
-
-        mService.play(mMove, mockCallback);
-
-        verify(mockCallback).onSuccess(argThat(l -> l.size() == 1));
     }
 }
@@ -0,0 +1,198 @@
+package com.ninety8point6.droptoken.service;
+
+import com.ninety8point6.droptoken.concepts.Cancellable;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link SingleFlightGameService} has the expected behavior.
+ *
+ * @see SingleFlightGameService
+ */
+public class SingleFlightGameServiceTests {
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockCallback;
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockOtherCallback;
+
+    @Mock
+    private Cancellable mockCancellable;
+
+    /**
+     * The callbacks handed to the delegate, which replies only when the test says so.
+     */
+    private final List<ResponseCallback<List<Integer>, Throwable>> mPending = new ArrayList<>();
+
+    private SingleFlightGameService mService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mService = new SingleFlightGameService(new GameService() {
+
+            @Override
+            public void play(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+                mPending.add(callback);
+            }
+
+            @Override
+            public Cancellable request(final Move move, final ResponseCallback<List<Integer>, Throwable> callback) {
+                play(move, callback);
+                return mockCancellable;
+            }
+        });
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksDelegate() {
+        new SingleFlightGameService(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksMove() {
+        mService.play(null, mockCallback);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksCallback() {
+        mService.play(new Move(Collections.emptyList()), null);
+    }
+
+    @Test
+    public void testIdenticalRequestsShareOneCall() {
+        mService.play(new Move(Arrays.asList(0, 1)), mockCallback);
+        mService.play(new Move(Arrays.asList(0, 1)), mockOtherCallback);
+
+        assertEquals(1, mPending.size());
+        assertEquals(1, mService.requests());
+        assertEquals(1, mService.deduplicated());
+        assertEquals(1, mService.inFlight());
+
+        mPending.get(0).onSuccess(Arrays.asList(0, 1, 2));
+        verify(mockCallback).onSuccess(Arrays.asList(0, 1, 2));
+        verify(mockOtherCallback).onSuccess(Arrays.asList(0, 1, 2));
+        assertEquals(0, mService.inFlight());
+    }
+
+    @Test
+    public void testDifferentRequestsAreNotShared() {
+        mService.play(new Move(Arrays.asList(0, 1)), mockCallback);
+        mService.play(new Move(Arrays.asList(1, 0)), mockOtherCallback);
+
+        assertEquals(2, mPending.size());
+        assertEquals(0, mService.deduplicated());
+    }
+
+    @Test
+    public void testFinishedRequestIsNotReused() {
+        mService.play(new Move(Collections.emptyList()), mockCallback);
+        mPending.get(0).onSuccess(Collections.singletonList(0));
+        mService.play(new Move(Collections.emptyList()), mockOtherCallback);
+
+        assertEquals(2, mPending.size());
+        assertEquals(2, mService.requests());
+        verify(mockOtherCallback, never()).onSuccess(any());
+    }
+
+    @Test
+    public void testErrorIsShared() {
+        final RuntimeException expected = new RuntimeException("Unavailable!");
+        mService.play(new Move(Collections.emptyList()), mockCallback);
+        mService.play(new Move(Collections.emptyList()), mockOtherCallback);
+        mPending.get(0).onError(expected);
+
+        verify(mockCallback).onError(expected);
+        verify(mockOtherCallback).onError(expected);
+    }
+
+    @Test
+    public void testCancelledCallerIsDropped() {
+        final Cancellable cancellable = mService.request(new Move(Collections.emptyList()), mockCallback);
+        mService.play(new Move(Collections.emptyList()), mockOtherCallback);
+        cancellable.cancel();
+        mPending.get(0).onSuccess(Collections.singletonList(0));
+
+        verify(mockCallback, never()).onSuccess(any());
+        verify(mockOtherCallback).onSuccess(Collections.singletonList(0));
+        verify(mockCancellable, never()).cancel();
+    }
+
+    @Test
+    public void testLastCancelCancelsDelegate() {
+        final Cancellable first = mService.request(new Move(Collections.emptyList()), mockCallback);
+        final Cancellable second = mService.request(new Move(Collections.emptyList()), mockOtherCallback);
+        first.cancel();
+        second.cancel();
+
+        verify(mockCancellable).cancel();
+        assertEquals(0, mService.inFlight());
+
+        // A new caller starts a new request rather than joining the cancelled one
+        mService.play(new Move(Collections.emptyList()), mockCallback);
+        assertEquals(2, mPending.size());
+    }
+
+    @Test
+    public void testConcurrentCallersAreAllAnswered() throws Exception {
+        final int threads = 4;
+        final int calls = 2_000;
+        final ExecutorService replies = Executors.newSingleThreadExecutor();
+        final SingleFlightGameService service = new SingleFlightGameService((move, callback) ->
+                replies.execute(() -> callback.onSuccess(move.sequence().append(0))));
+
+        final AtomicInteger answered = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(threads * calls);
+        final ExecutorService callers = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                callers.execute(() -> {
+                    for (int i = 0; i < calls; i++) {
+                        final Move move = new Move(Collections.singletonList(i % 4));
+                        service.play(move, new ResponseCallback<List<Integer>, Throwable>() {
+                            @Override
+                            public void onSuccess(final List<Integer> response) {
+                                if (response.equals(move.sequence().append(0))) {
+                                    answered.incrementAndGet();
+                                }
+                                done.countDown();
+                            }
+
+                            @Override
+                            public void onError(final Throwable reason) {
+                                done.countDown();
+                            }
+                        });
+                    }
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(threads * calls, answered.get());
+            assertEquals(threads * calls, service.requests() + service.deduplicated());
+        } finally {
+            callers.shutdownNow();
+            replies.shutdownNow();
+        }
+    }
+}
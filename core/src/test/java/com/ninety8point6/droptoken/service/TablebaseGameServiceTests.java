@@ -0,0 +1,79 @@
+package com.ninety8point6.droptoken.service;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.engine.Tablebase;
+import com.ninety8point6.droptoken.engine.TablebaseGenerator;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link TablebaseGameService} has the expected behavior.
+ *
+ * @see TablebaseGameService
+ */
+public class TablebaseGameServiceTests {
+
+    private static Tablebase sTablebase;
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockCallback;
+
+    private TablebaseGameService mService;
+
+    @BeforeClass
+    public static void setUpClass() {
+        sTablebase = new Tablebase(GameRules.DEFAULT, ByteBuffer.wrap(TablebaseGenerator.generate(GameRules.DEFAULT)));
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mService = new TablebaseGameService(sTablebase);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServiceChecksTablebase() {
+        new TablebaseGameService(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksMove() {
+        mService.play(null, mockCallback);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServicePlayChecksCallback() {
+        mService.play(new Move(Collections.emptyList()), null);
+    }
+
+    @Test
+    public void testServicePlaysFirstMove() {
+        mService.play(new Move(Collections.emptyList()), mockCallback);
+        verify(mockCallback).onSuccess(argThat(l -> l.size() == 1));
+    }
+
+    @Test
+    public void testServiceExtendsMoves() {
+        mService.play(new Move(Arrays.asList(0, 1, 0, 1, 0)), mockCallback);
+        verify(mockCallback).onSuccess(Arrays.asList(0, 1, 0, 1, 0, 0));
+    }
+
+    @Test
+    public void testServiceRejectsInvalidMoves() {
+        mService.play(new Move(Arrays.asList(0, 0, 0, 0, 0)), mockCallback);
+        verify(mockCallback).onSuccess(argThat(List::isEmpty));
+    }
+}
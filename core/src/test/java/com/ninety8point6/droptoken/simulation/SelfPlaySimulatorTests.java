@@ -0,0 +1,64 @@
+package com.ninety8point6.droptoken.simulation;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.service.LocalGameService;
+import com.ninety8point6.droptoken.service.RandomGameService;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A suite of tests to verify the {@link SelfPlaySimulator} has the expected behavior.
+ *
+ * @see SelfPlaySimulator
+ */
+public class SelfPlaySimulatorTests {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSimulatorChecksThreads() {
+        new SelfPlaySimulator(GameRules.DEFAULT,
+                worker -> new RandomGameService(GameRules.DEFAULT, worker),
+                worker -> new RandomGameService(GameRules.DEFAULT, worker),
+                0);
+    }
+
+    @Test
+    public void testRandomGamesAreAllCounted() throws Exception {
+        final SelfPlaySimulator.Report report = new SelfPlaySimulator(GameRules.DEFAULT,
+                worker -> new RandomGameService(GameRules.DEFAULT, worker),
+                worker -> new RandomGameService(GameRules.DEFAULT, ~worker),
+                3).run(2_000);
+
+        assertEquals(2_000, report.games());
+        assertEquals(0, report.errors());
+        assertEquals(report.games(), report.playerWins() + report.opponentWins() + report.draws());
+
+        long lengths = 0;
+        long moves = 0;
+        for (int length = 0; length <= GameRules.DEFAULT.cells(); length++) {
+            lengths += report.lengthCount(length);
+            moves += length * report.lengthCount(length);
+        }
+        assertEquals(report.games(), lengths);
+        assertEquals(report.moves(), moves);
+
+        // No game ends before seven moves, and none lasts longer than the board.
+        assertTrue(report.lengthPercentile(0.0) >= 7);
+        assertTrue(report.lengthPercentile(1.0) <= GameRules.DEFAULT.cells());
+        assertTrue(report.meanLength() >= 7);
+    }
+
+    @Test
+    public void testSearchNeverLosesToRandom() throws Exception {
+        final SelfPlaySimulator.Report report = new SelfPlaySimulator(GameRules.DEFAULT,
+                worker -> new RandomGameService(GameRules.DEFAULT, worker),
+                worker -> new LocalGameService(GameRules.DEFAULT, Runnable::run),
+                2).run(20);
+
+        assertEquals(20, report.games());
+        assertEquals(0, report.errors());
+        assertEquals(0, report.playerWins());
+    }
+}
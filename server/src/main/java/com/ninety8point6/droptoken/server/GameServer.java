@@ -0,0 +1,212 @@
+package com.ninety8point6.droptoken.server;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.engine.SearchLimits;
+import com.ninety8point6.droptoken.service.LocalGameService;
+import com.ninety8point6.droptoken.service.SingleFlightGameService;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A self-hosted server speaking the 9dt protocol (see {@link MovesHandler}), so the app and client
+ * tests can point a {@link com.ninety8point6.droptoken.service.SimpleGameService} at it instead of
+ * the hosted service:
+ * <pre>
+ *     GameServer [--port n] [--rules rows,columns,winLength] [--depth n] [--time millis]
+ *                [--threads n] [--search-threads n]
+ * </pre>
+ * Connections are accepted and read by the JDK {@link HttpServer}'s selector thread; requests are
+ * dispatched to a fixed pool of worker threads, which parse them and hand them to the service.
+ * Searches run on a separate pool, so a slow search never holds up a worker thread, and every search
+ * shares one transposition table, so common openings are answered from the table after warm-up.
+ * <p/>
+ * Boards no larger than 4 x 4 are solved outright; larger boards would take far too long to solve
+ * per request, so by default each search is given {@link #DEFAULT_SEARCH_MILLIS} instead.
+ */
+public final class GameServer {
+
+    /**
+     * The number of pending connections the listening socket queues before refusing new ones.
+     */
+    private static final int BACKLOG = 1024;
+
+    /**
+     * The default time budget of a search on a board larger than 4 x 4.
+     */
+    private static final long DEFAULT_SEARCH_MILLIS = 500;
+
+    /**
+     * The JDK server writes a reply's headers and body separately, so without TCP_NODELAY every
+     * reply waits out the client's delayed ACK (~40ms). Read once, when the first server is created.
+     */
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    static {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+    }
+
+    private final HttpServer mServer;
+    private final ExecutorService mExecutor;
+
+    /**
+     * Builds a {@link GameServer}; call {@link #start()} to begin serving.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param service the {@link GameService} which plays the replies
+     * @param threads the number of threads handling requests
+     */
+    public GameServer(final InetSocketAddress address, final GameService service, final int threads) throws IOException {
+
+        Preconditions.checkNotNull(address);
+        Preconditions.checkNotNull(service);
+        Preconditions.checkArgument(threads > 0);
+
+        mExecutor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat("game-server-%d")
+                .setDaemon(true)
+                .build());
+        mServer = HttpServer.create(address, BACKLOG);
+        mServer.createContext("/", new MovesHandler(service));
+        mServer.setExecutor(mExecutor);
+    }
+
+    public static void main(final String[] args) throws IOException {
+
+        int port = 8080;
+        GameRules rules = GameRules.DEFAULT;
+        Integer depth = null;
+        Long millis = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int searchThreads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--rules":
+                    final String[] dimensions = args[++i].split(",");
+                    Preconditions.checkArgument(dimensions.length == 3, "Expected rows,columns,winLength.");
+                    rules = new GameRules(Integer.parseInt(dimensions[0]),
+                            Integer.parseInt(dimensions[1]),
+                            Integer.parseInt(dimensions[2]));
+                    break;
+                case "--depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "--time":
+                    millis = Long.parseLong(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--search-threads":
+                    searchThreads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        final ExecutorService searches = searchExecutor(searchThreads);
+        final GameServer server = new GameServer(new InetSocketAddress(port),
+                service(rules, depth, millis, searches),
+                threads);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            searches.shutdownNow();
+        }));
+        System.out.printf("Serving %dx%d (%d in a row) at %s with %d request threads and %d search threads%n",
+                rules.rows(), rules.columns(), rules.winLength(), server.endpoint(), threads, searchThreads);
+    }
+
+    /**
+     * Build the service a {@link GameServer} is run with: the search pool bounds the concurrent
+     * searches, and concurrent requests for the same position share a single search.
+     *
+     * @param rules the {@link GameRules} to play
+     * @param depth the depth to search to, or null to solve the game
+     * @param millis the time budget of a search, or null for {@link #DEFAULT_SEARCH_MILLIS} on
+     *               boards larger than 4 x 4 and no budget otherwise
+     * @param searches the {@link ExecutorService} searches run on, such as a
+     *                 {@link #searchExecutor}
+     *
+     * @return the {@link GameService}
+     */
+    static GameService service(final GameRules rules,
+                               final Integer depth,
+                               final Long millis,
+                               final ExecutorService searches) {
+
+        SearchLimits limits = SearchLimits.depth(depth == null ? rules.cells() : depth);
+        if (millis != null || rules.cells() > GameRules.DEFAULT.cells()) {
+            limits = limits.withTime(millis == null ? DEFAULT_SEARCH_MILLIS : millis, TimeUnit.MILLISECONDS);
+        }
+        return new SingleFlightGameService(new LocalGameService(rules, searches, limits, 1));
+    }
+
+    /**
+     * @param threads the number of searches to run at once
+     *
+     * @return a pool of daemon threads to run searches on, kept apart from the request threads
+     */
+    static ExecutorService searchExecutor(final int threads) {
+        return Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat("game-search-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Start accepting requests.
+     */
+    public void start() {
+        mServer.start();
+    }
+
+    /**
+     * Stop accepting requests, give in-flight exchanges up to a second to finish, and release the
+     * request threads.
+     */
+    public void stop() {
+        mServer.stop(1);
+        mExecutor.shutdown();
+        try {
+            mExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the address the server is listening on, with the actual port if 0 was requested
+     */
+    public InetSocketAddress address() {
+        return mServer.getAddress();
+    }
+
+    /**
+     * @return the base {@link URL} for a {@link com.ninety8point6.droptoken.service.SimpleGameService}
+     */
+    public URL endpoint() {
+        final InetSocketAddress address = address();
+        try {
+            return new URL("http", address.getHostString(), address.getPort(), "/");
+        } catch (final MalformedURLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
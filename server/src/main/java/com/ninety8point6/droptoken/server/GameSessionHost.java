@@ -0,0 +1,456 @@
+package com.ninety8point6.droptoken.server;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.concepts.TokenLocation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.ninety8point6.droptoken.concepts.GameState.PLAYER_1;
+import static com.ninety8point6.droptoken.concepts.GameState.PLAYER_2;
+
+/**
+ * Hosts many concurrent single player games, keyed by {@link GameState#key()}: the caller plays
+ * {@link GameState#PLAYER_1}'s moves and the {@link GameService} replies as
+ * {@link GameState#PLAYER_2}, with the same turn flow as the app's single player manager.
+ * <p/>
+ * Games are sharded by key over single-threaded executors. Each shard owns its games outright, so
+ * operations on games in different shards never contend, operations on the same game run one at a
+ * time in the order they were submitted, and no caller ever blocks: every operation is queued and
+ * answers through its {@link ResponseCallback}. While the service is choosing a reply the game is
+ * the service's turn, and moves submitted in the meantime are rejected rather than queued.
+ * <p/>
+ * Errors are delivered as {@link IllegalArgumentException} for an invalid column and
+ * {@link IllegalStateException} for an unknown game, a game that has ended, a move out of turn, or a
+ * malformed reply from the service. Anything else thrown by an operation is delivered to its
+ * callback too, rather than dying with the shard's task.
+ */
+@ThreadSafe
+public class GameSessionHost {
+
+    private final GameRules mRules;
+    private final GameService mService;
+    private final Shard[] mShards;
+    private final long mStart;
+
+    private final LongAdder mSessions = new LongAdder();
+    private final LongAdder mMoves = new LongAdder();
+    private final LongAdder mGamesFinished = new LongAdder();
+    private final LongAdder mErrors = new LongAdder();
+    private final LongAccumulator mMaxQueueDepth = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Builds a {@link GameSessionHost}.
+     *
+     * @param rules the {@link GameRules} of the hosted games
+     * @param service the {@link GameService} which plays player two's moves
+     * @param shards the number of shards, each with its own thread
+     */
+    public GameSessionHost(final GameRules rules, final GameService service, final int shards) {
+
+        Preconditions.checkArgument(shards > 0);
+        mRules = Preconditions.checkNotNull(rules);
+        mService = Preconditions.checkNotNull(service);
+
+        mShards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            mShards[i] = new Shard(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("session-shard-" + i)
+                            .setDaemon(true)
+                            .build()));
+        }
+        mStart = System.nanoTime();
+    }
+
+    /**
+     * Start a new game under the provided key, replacing any game already stored under it. If the
+     * service moves first, the callback receives the state after its move.
+     *
+     * @param key the key of the game
+     * @param initialPlayer {@link GameState#PLAYER_1} or {@link GameState#PLAYER_2}
+     * @param callback receives the state once it is the caller's turn
+     */
+    public void newGame(final String key, final int initialPlayer, final ResponseCallback<GameState, Throwable> callback) {
+
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
+        Preconditions.checkArgument(initialPlayer == PLAYER_1 || initialPlayer == PLAYER_2);
+        Preconditions.checkArgument(callback != null);
+
+        final Shard shard = shard(key);
+        shard.submit(callback, () -> {
+            final GameState state = new GameState(key, initialPlayer);
+            final Session session = new Session(state, new GameBoard(state, mRules));
+            if (shard.mSessions.put(key, session) == null) {
+                mSessions.increment();
+            }
+            if (initialPlayer == PLAYER_2) {
+                requestReply(shard, session, callback);
+            } else {
+                callback.onSuccess(state);
+            }
+        });
+    }
+
+    /**
+     * Play the caller's move in the provided game. The callback receives the state after the
+     * service's reply, or after the caller's move if it ended the game.
+     *
+     * @param key the key of the game
+     * @param column the column to play
+     * @param callback receives the state once it is the caller's turn again or the game has ended
+     */
+    public void play(final String key, final int column, final ResponseCallback<GameState, Throwable> callback) {
+
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
+        Preconditions.checkArgument(callback != null);
+
+        final Shard shard = shard(key);
+        shard.submit(callback, () -> {
+
+            final Session session = shard.mSessions.get(key);
+            if (session == null) {
+                fail(callback, new IllegalStateException("No game under " + key));
+                return;
+            }
+            if (session.mFinished || session.mAwaitingReply) {
+                fail(callback, new IllegalStateException("It is not the player's turn in " + key));
+                return;
+            }
+            if (column < 0 || !session.mBoard.isLocationValid(new TokenLocation(column))) {
+                fail(callback, new IllegalArgumentException("Invalid column " + column));
+                return;
+            }
+
+            apply(session, column);
+            if (session.mFinished) {
+                callback.onSuccess(session.mState);
+            } else {
+                requestReply(shard, session, callback);
+            }
+        });
+    }
+
+    /**
+     * Get the current state of the provided game.
+     *
+     * @param key the key of the game
+     * @param callback receives the state, or null if there is no game under the key
+     */
+    public void get(final String key, final ResponseCallback<GameState, Throwable> callback) {
+
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
+        Preconditions.checkArgument(callback != null);
+
+        final Shard shard = shard(key);
+        shard.submit(callback, () -> {
+            final Session session = shard.mSessions.get(key);
+            callback.onSuccess(session == null ? null : session.mState);
+        });
+    }
+
+    /**
+     * Discard the provided game; a reply the service is still working on is dropped.
+     *
+     * @param key the key of the game
+     */
+    public void remove(final String key) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
+        final Shard shard = shard(key);
+        shard.submit(null, () -> {
+            if (shard.mSessions.remove(key) != null) {
+                mSessions.decrement();
+            }
+        });
+    }
+
+    /**
+     * @return a snapshot of the host's {@link Metrics}
+     */
+    public Metrics metrics() {
+        final int[] depths = new int[mShards.length];
+        for (int i = 0; i < mShards.length; i++) {
+            depths[i] = mShards[i].mExecutor.getQueue().size();
+        }
+        return new Metrics(depths,
+                mMaxQueueDepth.get(),
+                mSessions.sum(),
+                mMoves.sum(),
+                mGamesFinished.sum(),
+                mErrors.sum(),
+                System.nanoTime() - mStart);
+    }
+
+    /**
+     * Stop the shard threads once the operations already queued have run.
+     */
+    public void shutdown() {
+        for (final Shard shard : mShards) {
+            shard.mExecutor.shutdown();
+        }
+    }
+
+    private Shard shard(final String key) {
+        // Spread the hash so keys differing only in their high bits still land on different shards
+        final int hash = key.hashCode() * 0x9E3779B9;
+        return mShards[Math.floorMod(hash ^ (hash >>> 16), mShards.length)];
+    }
+
+    /**
+     * Ask the service for its reply; it may answer on any thread, so the reply is applied back on
+     * the game's shard. Runs on the shard.
+     */
+    private void requestReply(final Shard shard,
+                              final Session session,
+                              final ResponseCallback<GameState, Throwable> callback) {
+
+        session.mAwaitingReply = true;
+        final GameState state = session.mState;
+        try {
+            mService.play(new Move(state.sequence()), new ResponseCallback<List<Integer>, Throwable>() {
+
+                @Override
+                public void onSuccess(final List<Integer> response) {
+                    shard.submit(callback, () -> handleReply(shard, session, state, response, callback));
+                }
+
+                @Override
+                public void onError(final Throwable reason) {
+                    shard.submit(callback, () -> {
+                        session.mAwaitingReply = false;
+                        fail(callback, reason);
+                    });
+                }
+            });
+        } catch (final RuntimeException ex) {
+            // The service will never reply, so the game must not keep waiting for it
+            session.mAwaitingReply = false;
+            throw ex;
+        }
+    }
+
+    /**
+     * Apply the service's reply if the game is still the one it was asked about. Runs on the shard.
+     */
+    private void handleReply(final Shard shard,
+                             final Session session,
+                             final GameState asked,
+                             final List<Integer> response,
+                             final ResponseCallback<GameState, Throwable> callback) {
+
+        if (shard.mSessions.get(asked.key()) != session || session.mState != asked) {
+            fail(callback, new IllegalStateException("The game changed while the service was replying."));
+            return;
+        }
+
+        session.mAwaitingReply = false;
+        final int size = asked.moves().size();
+        if (response == null || response.size() != size + 1 || !response.subList(0, size).equals(asked.moves())) {
+            fail(callback, new IllegalStateException("The service replied with an unexpected move list."));
+            return;
+        }
+
+        final Integer column = response.get(size);
+        if (column == null || column < 0 || !session.mBoard.isLocationValid(new TokenLocation(column))) {
+            fail(callback, new IllegalStateException("The service replied with an invalid move."));
+            return;
+        }
+
+        apply(session, column);
+        callback.onSuccess(session.mState);
+    }
+
+    /**
+     * Play a column in the session and check whether it ended the game. Runs on the shard.
+     */
+    private void apply(final Session session, final int column) {
+        final int player = session.mState.currentPlayer();
+        session.mState = session.mState.withMove(column);
+        session.mBoard = session.mBoard.withMove(column);
+        session.mFinished = session.mBoard.isGameOver(player) != GameBoard.GameOverType.NONE;
+        mMoves.increment();
+        if (session.mFinished) {
+            mGamesFinished.increment();
+        }
+    }
+
+    private void fail(final ResponseCallback<GameState, Throwable> callback, final Throwable reason) {
+        mErrors.increment();
+        callback.onError(reason);
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * A snapshot of a {@link GameSessionHost}'s activity since it was built.
+     */
+    public static final class Metrics {
+
+        private final int[] mQueueDepths;
+        private final long mMaxQueueDepth;
+        private final long mSessions;
+        private final long mMoves;
+        private final long mGamesFinished;
+        private final long mErrors;
+        private final long mNanos;
+
+        Metrics(final int[] queueDepths,
+                final long maxQueueDepth,
+                final long sessions,
+                final long moves,
+                final long gamesFinished,
+                final long errors,
+                final long nanos) {
+            mQueueDepths = queueDepths;
+            mMaxQueueDepth = maxQueueDepth;
+            mSessions = sessions;
+            mMoves = moves;
+            mGamesFinished = gamesFinished;
+            mErrors = errors;
+            mNanos = nanos;
+        }
+
+        /**
+         * @return the number of shards
+         */
+        public int shards() {
+            return mQueueDepths.length;
+        }
+
+        /**
+         * @param shard the index of a shard
+         *
+         * @return the number of operations waiting on that shard
+         */
+        public int queueDepth(final int shard) {
+            return mQueueDepths[shard];
+        }
+
+        /**
+         * @return the number of operations waiting across every shard
+         */
+        public int totalQueueDepth() {
+            int total = 0;
+            for (final int depth : mQueueDepths) {
+                total += depth;
+            }
+            return total;
+        }
+
+        /**
+         * @return the most operations seen waiting on a single shard
+         */
+        public long maxQueueDepth() {
+            return mMaxQueueDepth;
+        }
+
+        /**
+         * @return the number of games being hosted, finished or not
+         */
+        public long sessions() {
+            return mSessions;
+        }
+
+        /**
+         * @return the number of moves played by either side
+         */
+        public long moves() {
+            return mMoves;
+        }
+
+        /**
+         * @return the number of games which have ended
+         */
+        public long gamesFinished() {
+            return mGamesFinished;
+        }
+
+        /**
+         * @return the number of operations answered with an error
+         */
+        public long errors() {
+            return mErrors;
+        }
+
+        /**
+         * @return the moves played per second since the host was built
+         */
+        public double movesPerSecond() {
+            return mNanos == 0 ? 0 : mMoves * 1e9 / mNanos;
+        }
+    }
+
+    /**
+     * A single-writer partition of the games, owned by one thread.
+     */
+    private final class Shard {
+
+        private final ThreadPoolExecutor mExecutor;
+
+        // Only touched on the shard's thread
+        private final Map<String, Session> mSessions = new HashMap<>();
+
+        Shard(final ThreadPoolExecutor executor) {
+            mExecutor = executor;
+        }
+
+        /**
+         * Queue an operation, reporting a rejection (after {@link #shutdown()}) or anything the
+         * operation throws to the callback.
+         */
+        void submit(final ResponseCallback<GameState, Throwable> callback, final Runnable operation) {
+            try {
+                mExecutor.execute(() -> {
+                    try {
+                        operation.run();
+                    } catch (final RuntimeException ex) {
+                        if (callback != null) {
+                            fail(callback, ex);
+                        }
+                    }
+                });
+                mMaxQueueDepth.accumulate(mExecutor.getQueue().size());
+            } catch (final RejectedExecutionException ex) {
+                if (callback != null) {
+                    fail(callback, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * A hosted game. Only touched on its shard's thread.
+     */
+    private static final class Session {
+
+        private GameState mState;
+        private GameBoard mBoard;
+        private boolean mAwaitingReply;
+        private boolean mFinished;
+
+        Session(final GameState state, final GameBoard board) {
+            mState = state;
+            mBoard = board;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.ninety8point6.droptoken.server;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.engine.Position;
+import com.ninety8point6.droptoken.service.SimpleGameService;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * Drives {@link SimpleGameService#play} at a fixed request rate with a cap on requests in flight,
+ * and reports latency percentiles, throughput, errors and {@link Dispatcher} queueing:
+ * <pre>
+ *     LoadGenerator [--endpoint url] [--rate requests/s] [--concurrency n] [--duration seconds]
+ *                   [--max-requests-per-host n] [--server-threads n] [--search-threads n]
+ * </pre>
+ * Without an endpoint an in-process {@link GameServer} on the loopback interface is the stand-in,
+ * built with the same service and separate search pool as {@link GameServer#main}.
+ * <p/>
+ * Requests follow an open-loop schedule: request {@code i} is due at {@code start + i / rate}. When
+ * the cap on requests in flight (or a slow server) holds the schedule up, the requests still count
+ * their latency from when they were due, so the corrected histogram does not suffer from
+ * coordinated omission; the uncorrected histogram, measured from when each request was actually
+ * sent, is reported next to it for comparison.
+ */
+public final class LoadGenerator {
+
+    /**
+     * Latencies are tracked up to a minute with 3 significant digits.
+     */
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * The number of distinct positions requests are drawn from.
+     */
+    static final int POSITIONS = 1024;
+
+    /**
+     * The number of random games tried per position wanted, before settling for fewer positions on
+     * boards too small to have enough.
+     */
+    private static final int ATTEMPTS_PER_POSITION = 64;
+
+    /**
+     * How often the {@link Dispatcher} queues are sampled.
+     */
+    private static final long SAMPLE_PERIOD_MILLIS = 10;
+
+    private final OkHttpClient mClient;
+    private final SimpleGameService mService;
+    private final List<Move> mMoves;
+
+    /**
+     * Builds a {@link LoadGenerator}.
+     *
+     * @param client the {@link OkHttpClient} under test, whose {@link Dispatcher} is sampled
+     * @param endpoint the base {@link URL} of the 9dt service
+     * @param rules the {@link GameRules} the service plays, used to generate valid positions
+     * @param seed the seed for the generated positions
+     */
+    public LoadGenerator(final OkHttpClient client, final URL endpoint, final GameRules rules, final long seed) {
+        mClient = Preconditions.checkNotNull(client);
+        mService = new SimpleGameService(client, endpoint);
+        mMoves = positions(Preconditions.checkNotNull(rules), seed);
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+
+        URL endpoint = null;
+        double rate = 1_000;
+        int concurrency = 64;
+        long seconds = 10;
+        int maxRequestsPerHost = new Dispatcher().getMaxRequestsPerHost();
+        int serverThreads = Runtime.getRuntime().availableProcessors();
+        int searchThreads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--endpoint":
+                    endpoint = new URL(args[++i]);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(args[++i]);
+                    break;
+                case "--concurrency":
+                    concurrency = Integer.parseInt(args[++i]);
+                    break;
+                case "--duration":
+                    seconds = Long.parseLong(args[++i]);
+                    break;
+                case "--max-requests-per-host":
+                    maxRequestsPerHost = Integer.parseInt(args[++i]);
+                    break;
+                case "--server-threads":
+                    serverThreads = Integer.parseInt(args[++i]);
+                    break;
+                case "--search-threads":
+                    searchThreads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        GameServer server = null;
+        ExecutorService searches = null;
+        if (endpoint == null) {
+            searches = GameServer.searchExecutor(searchThreads);
+            server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                    GameServer.service(GameRules.DEFAULT, null, null, searches),
+                    serverThreads);
+            server.start();
+            endpoint = server.endpoint();
+        }
+
+        final OkHttpClient client = new OkHttpClient();
+        client.dispatcher().setMaxRequests(Math.max(concurrency, client.dispatcher().getMaxRequests()));
+        client.dispatcher().setMaxRequestsPerHost(maxRequestsPerHost);
+
+        try {
+            final Report report = new LoadGenerator(client, endpoint, GameRules.DEFAULT, 42)
+                    .run(rate, concurrency, seconds, TimeUnit.SECONDS);
+
+            System.out.printf("%s at %.0f requests/s, %d in flight, %d per host, for %ds%n",
+                    endpoint, rate, concurrency, maxRequestsPerHost, seconds);
+            System.out.printf("Sent %d, completed %d (%.0f/s), errors %d (%.2f%%), rejected %d%n",
+                    report.sent(),
+                    report.completed(),
+                    report.throughput(),
+                    report.errors(),
+                    100.0 * report.errors() / Math.max(1, report.sent()),
+                    report.rejected());
+            print("Corrected", report.latency());
+            print("Uncorrected", report.uncorrectedLatency());
+            System.out.printf("Dispatcher: queued mean %.1f max %d, running mean %.1f max %d%n",
+                    report.meanQueued(), report.maxQueued(), report.meanRunning(), report.maxRunning());
+        } finally {
+            client.dispatcher().executorService().shutdown();
+            if (server != null) {
+                server.stop();
+                searches.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Send requests for the provided duration and wait for the outstanding ones to finish.
+     *
+     * @param rate the number of requests per second
+     * @param concurrency the maximum number of requests in flight
+     * @param duration how long to send requests for
+     * @param unit the {@link TimeUnit} of the duration
+     *
+     * @return the {@link Report} of the run
+     */
+    public Report run(final double rate, final int concurrency, final long duration, final TimeUnit unit)
+            throws InterruptedException {
+
+        Preconditions.checkArgument(rate > 0);
+        Preconditions.checkArgument(concurrency > 0);
+        Preconditions.checkArgument(duration > 0);
+        Preconditions.checkNotNull(unit);
+
+        final Report report = new Report();
+        final Semaphore inFlight = new Semaphore(concurrency);
+        final double interval = 1e9 / rate;
+
+        final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("load-sampler-%d")
+                .setDaemon(true)
+                .build());
+        sampler.scheduleAtFixedRate(() -> report.sample(mClient.dispatcher()),
+                0,
+                SAMPLE_PERIOD_MILLIS,
+                TimeUnit.MILLISECONDS);
+
+        final long start = System.nanoTime();
+        final long end = start + unit.toNanos(duration);
+        try {
+            for (long i = 0; ; i++) {
+
+                final long due = start + (long) (i * interval);
+                if (due >= end) {
+                    break;
+                }
+
+                long now;
+                while ((now = System.nanoTime()) < due) {
+                    LockSupport.parkNanos(due - now);
+                }
+
+                inFlight.acquire();
+                report.mSent.incrementAndGet();
+                mService.play(mMoves.get((int) (i % mMoves.size())), new Timed(report, inFlight, due, System.nanoTime()));
+            }
+
+            // Drain the requests still in flight
+            inFlight.acquire(concurrency);
+            report.mNanos = System.nanoTime() - start;
+        } finally {
+            sampler.shutdownNow();
+        }
+        return report;
+    }
+
+    private static void print(final String label, final Histogram histogram) {
+        System.out.printf("%-12s p50 %8.2fms  p99 %8.2fms  p999 %8.2fms  max %8.2fms%n",
+                label,
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getMaxValue() / 1e6);
+    }
+
+    /**
+     * @return distinct positions from random games which have not ended, so every request is valid
+     */
+    static List<Move> positions(final GameRules rules, final long seed) {
+
+        final Random random = new Random(seed);
+        final Set<MoveSequence> seen = new HashSet<>();
+        final List<Move> moves = new ArrayList<>(POSITIONS);
+        for (int attempt = 0; moves.size() < POSITIONS && attempt < POSITIONS * ATTEMPTS_PER_POSITION; attempt++) {
+
+            final Position position = new Position(rules);
+            final List<Integer> columns = new ArrayList<>();
+            final int length = random.nextInt(rules.cells());
+            while (columns.size() < length) {
+                final int column = random.nextInt(rules.columns());
+                if (!position.canPlay(column) || position.isWinningMove(column)) {
+                    if (!hasQuietMove(position)) {
+                        break;
+                    }
+                    continue;
+                }
+                position.play(column);
+                columns.add(column);
+            }
+            final Move move = new Move(columns);
+            if (seen.add(move.sequence())) {
+                moves.add(move);
+            }
+        }
+        return moves;
+    }
+
+    private static boolean hasQuietMove(final Position position) {
+        for (int column = 0; column < position.rules().columns(); column++) {
+            if (position.canPlay(column) && !position.isWinningMove(column)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------------------------------
+    //          NESTED CLASSES
+    // ---------------------------------
+
+    /**
+     * The results of a run. Latencies are in nanoseconds.
+     */
+    public static final class Report {
+
+        private final Histogram mLatency = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private final Histogram mUncorrectedLatency = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private final AtomicLong mSent = new AtomicLong();
+        private final AtomicLong mErrors = new AtomicLong();
+        private final AtomicLong mRejected = new AtomicLong();
+
+        // Written by the sampler thread only, read after it has been shut down
+        private volatile long mSamples;
+        private volatile long mQueuedTotal;
+        private volatile long mRunningTotal;
+        private volatile int mMaxQueued;
+        private volatile int mMaxRunning;
+
+        private long mNanos;
+
+        Report() {
+        }
+
+        /**
+         * @return the number of requests sent
+         */
+        public long sent() {
+            return mSent.get();
+        }
+
+        /**
+         * @return the number of requests answered with a move
+         */
+        public long completed() {
+            return mLatency.getTotalCount() - mErrors.get() - mRejected.get();
+        }
+
+        /**
+         * @return the number of requests which failed (connection errors or unexpected status codes)
+         */
+        public long errors() {
+            return mErrors.get();
+        }
+
+        /**
+         * @return the number of requests answered as invalid moves
+         */
+        public long rejected() {
+            return mRejected.get();
+        }
+
+        /**
+         * @return the completed requests per second over the whole run, including the drain
+         */
+        public double throughput() {
+            return mNanos == 0 ? 0 : completed() * 1e9 / mNanos;
+        }
+
+        /**
+         * @return the latency of every request, measured from when it was due to be sent
+         */
+        public Histogram latency() {
+            return mLatency;
+        }
+
+        /**
+         * @return the latency of every request, measured from when it was actually sent
+         */
+        public Histogram uncorrectedLatency() {
+            return mUncorrectedLatency;
+        }
+
+        /**
+         * @return the mean number of calls waiting in the {@link Dispatcher}'s queue
+         */
+        public double meanQueued() {
+            return mSamples == 0 ? 0 : (double) mQueuedTotal / mSamples;
+        }
+
+        /**
+         * @return the most calls seen waiting in the {@link Dispatcher}'s queue
+         */
+        public int maxQueued() {
+            return mMaxQueued;
+        }
+
+        /**
+         * @return the mean number of calls the {@link Dispatcher} was running
+         */
+        public double meanRunning() {
+            return mSamples == 0 ? 0 : (double) mRunningTotal / mSamples;
+        }
+
+        /**
+         * @return the most calls seen running in the {@link Dispatcher}
+         */
+        public int maxRunning() {
+            return mMaxRunning;
+        }
+
+        private void sample(final Dispatcher dispatcher) {
+            final int queued = dispatcher.queuedCallsCount();
+            final int running = dispatcher.runningCallsCount();
+            mSamples++;
+            mQueuedTotal += queued;
+            mRunningTotal += running;
+            mMaxQueued = Math.max(mMaxQueued, queued);
+            mMaxRunning = Math.max(mMaxRunning, running);
+        }
+
+        private void record(final long due, final long sent, final long now) {
+            mLatency.recordValue(Math.min(now - due, HIGHEST_TRACKABLE_NANOS));
+            mUncorrectedLatency.recordValue(Math.min(now - sent, HIGHEST_TRACKABLE_NANOS));
+        }
+    }
+
+    /**
+     * A {@link ResponseCallback} recording the latency of a single request and releasing its slot.
+     */
+    private static final class Timed implements ResponseCallback<List<Integer>, Throwable> {
+
+        private final Report mReport;
+        private final Semaphore mInFlight;
+        private final long mDue;
+        private final long mSent;
+
+        Timed(final Report report, final Semaphore inFlight, final long due, final long sent) {
+            mReport = report;
+            mInFlight = inFlight;
+            mDue = due;
+            mSent = sent;
+        }
+
+        @Override
+        public void onSuccess(final List<Integer> response) {
+            if (response.isEmpty()) {
+                mReport.mRejected.incrementAndGet();
+            }
+            finish();
+        }
+
+        @Override
+        public void onError(final Throwable reason) {
+            mReport.mErrors.incrementAndGet();
+            finish();
+        }
+
+        private void finish() {
+            mReport.record(mDue, mSent, System.nanoTime());
+            mInFlight.release();
+        }
+    }
+}
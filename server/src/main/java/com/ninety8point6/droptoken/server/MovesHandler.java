@@ -0,0 +1,126 @@
+package com.ninety8point6.droptoken.server;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.Gson;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link HttpHandler} implementing the 9dt protocol: a GET with the moves so far as a JSON array
+ * in the {@code moves} query parameter is answered with 200 and the moves extended by the
+ * {@link GameService}'s move, or with 400 if the moves are invalid (including moves after the game
+ * has ended).
+ * <p/>
+ * The exchange is completed from the {@link GameService}'s callback, so a service which replies on
+ * its own threads, such as the {@link com.ninety8point6.droptoken.service.LocalGameService} on the
+ * search pool {@link GameServer#main} sets up, never holds up the server's threads. A service which
+ * replies on the calling thread holds the server's thread for the whole reply.
+ */
+final class MovesHandler implements HttpHandler {
+
+    /**
+     * The query parameter carrying the array of moves, as sent by the
+     * {@link com.ninety8point6.droptoken.service.SimpleGameService}.
+     */
+    static final String MOVES_KEY = "moves";
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Gson mGson;
+    private final GameService mService;
+
+    MovesHandler(final GameService service) {
+        mGson = new Gson();
+        mService = Preconditions.checkNotNull(service);
+    }
+
+    @Override
+    public void handle(final HttpExchange exchange) throws IOException {
+
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, EMPTY);
+            return;
+        }
+
+        final Move move;
+        try {
+            final Integer[] moves = mGson.fromJson(movesParameter(exchange.getRequestURI().getRawQuery()), Integer[].class);
+            move = new Move(Arrays.asList(Preconditions.checkNotNull(moves)));
+        } catch (final RuntimeException ex) {
+            // Missing, malformed or out of range moves are all invalid moves
+            respond(exchange, 400, EMPTY);
+            return;
+        }
+
+        mService.play(move, new ResponseCallback<List<Integer>, Throwable>() {
+
+            @Override
+            public void onSuccess(final List<Integer> response) {
+                if (response.isEmpty()) {
+                    respond(exchange, 400, EMPTY);
+                } else {
+                    respond(exchange, 200, mGson.toJson(response).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            @Override
+            public void onError(final Throwable reason) {
+                respond(exchange, 500, EMPTY);
+            }
+        });
+    }
+
+    /**
+     * @return the decoded value of the {@code moves} query parameter, or null if absent
+     */
+    private static String movesParameter(final String query) {
+
+        if (query == null) {
+            return null;
+        }
+
+        for (final String parameter : query.split("&")) {
+            final int split = parameter.indexOf('=');
+            if (split == MOVES_KEY.length() && parameter.startsWith(MOVES_KEY)) {
+                try {
+                    return URLDecoder.decode(parameter.substring(split + 1), StandardCharsets.UTF_8.name());
+                } catch (final IOException ex) {
+                    throw new IllegalArgumentException(ex);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Send the response and complete the exchange. Failures here mean the client has gone away, so
+     * there is no one left to report them to.
+     */
+    private static void respond(final HttpExchange exchange, final int code, final byte[] body) {
+        try {
+            if (body.length > 0) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+            }
+            exchange.sendResponseHeaders(code, body.length > 0 ? body.length : -1);
+            if (body.length > 0) {
+                try (final OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            }
+        } catch (final IOException ignored) {
+            // Dropped connection
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ninety8point6.droptoken.server;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.service.LocalGameService;
+import com.ninety8point6.droptoken.service.SimpleGameService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link GameServer} speaks the 9dt protocol, using the app's own
+ * {@link SimpleGameService} as the client.
+ *
+ * @see GameServer
+ */
+public class GameServerTests {
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Mock
+    private ResponseCallback<List<Integer>, Throwable> mockCallback;
+
+    private final OkHttpClient mClient = new OkHttpClient();
+
+    private GameServer mServer;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mServer = start(new LocalGameService(GameRules.DEFAULT, Runnable::run));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mServer.stop();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testServerChecksService() throws IOException {
+        new GameServer(new InetSocketAddress(0), null, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServerChecksThreads() throws IOException {
+        new GameServer(new InetSocketAddress(0), (move, callback) -> { }, 0);
+    }
+
+    @Test
+    public void testServerPlaysFirstMove() {
+        client().play(new Move(Collections.emptyList()), mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(argThat(l -> l.size() == 1));
+    }
+
+    @Test
+    public void testServerBlocksImmediateWin() {
+        client().play(new Move(Arrays.asList(0, 1, 0, 1, 0)), mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(Arrays.asList(0, 1, 0, 1, 0, 0));
+    }
+
+    @Test
+    public void testServerRejectsFinishedGame() {
+        client().play(new Move(Arrays.asList(0, 1, 0, 1, 0, 1, 0)), mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(Collections.emptyList());
+    }
+
+    @Test
+    public void testServerRejectsFullColumn() {
+        client().play(new Move(Arrays.asList(0, 0, 0, 0, 0)), mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(Collections.emptyList());
+    }
+
+    @Test
+    public void testServerRejectsMissingMoves() throws IOException {
+        assertEquals(400, get(HttpUrl.get(mServer.endpoint())));
+    }
+
+    @Test
+    public void testServerRejectsMalformedMoves() throws IOException {
+        assertEquals(400, get(HttpUrl.get(mServer.endpoint()).newBuilder().addQueryParameter("moves", "[0,").build()));
+        assertEquals(400, get(HttpUrl.get(mServer.endpoint()).newBuilder().addQueryParameter("moves", "[null]").build()));
+        assertEquals(400, get(HttpUrl.get(mServer.endpoint()).newBuilder().addQueryParameter("moves", "[-1]").build()));
+    }
+
+    @Test
+    public void testServerRejectsPost() throws IOException {
+        final Request request = new Request.Builder()
+                .url(mServer.endpoint())
+                .post(RequestBody.create(null, new byte[0]))
+                .build();
+        try (final Response response = mClient.newCall(request).execute()) {
+            assertEquals(405, response.code());
+        }
+    }
+
+    @Test
+    public void testServerReportsServiceError() throws IOException {
+        final GameServer server = start((move, callback) -> callback.onError(new RuntimeException("Unavailable!")));
+        try {
+            new SimpleGameService(mClient, server.endpoint()).play(new Move(Collections.emptyList()), mockCallback);
+            verify(mockCallback, timeout(TIMEOUT_MILLIS)).onError(any(Exception.class));
+        } finally {
+            server.stop();
+        }
+    }
+
+    private SimpleGameService client() {
+        return new SimpleGameService(mClient, mServer.endpoint());
+    }
+
+    private int get(final HttpUrl url) throws IOException {
+        try (final Response response = mClient.newCall(new Request.Builder().url(url).build()).execute()) {
+            return response.code();
+        }
+    }
+
+    private static GameServer start(final GameService service) throws IOException {
+        final GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), service, 2);
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,273 @@
+package com.ninety8point6.droptoken.server;
+
+import com.ninety8point6.droptoken.concepts.GameBoard;
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.GameState;
+import com.ninety8point6.droptoken.concepts.ResponseCallback;
+import com.ninety8point6.droptoken.service.LocalGameService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * A suite of tests to verify the {@link GameSessionHost} has the expected behavior.
+ *
+ * @see GameSessionHost
+ */
+public class GameSessionHostTests {
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Mock
+    private ResponseCallback<GameState, Throwable> mockCallback;
+
+    private GameSessionHost mHost;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mHost = new GameSessionHost(GameRules.DEFAULT, column(1), 4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mHost.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHostChecksShards() {
+        new GameSessionHost(GameRules.DEFAULT, column(1), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewGameChecksKey() {
+        mHost.newGame("", GameState.PLAYER_1, mockCallback);
+    }
+
+    @Test
+    public void testNewGameStartsEmpty() {
+        mHost.newGame("a", GameState.PLAYER_1, mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(argThat(s -> s.moves().isEmpty()));
+    }
+
+    @Test
+    public void testNewGameLetsServiceMoveFirst() {
+        mHost.newGame("a", GameState.PLAYER_2, mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(argThat(s -> s.moves().equals(Collections.singletonList(1))));
+    }
+
+    @Test
+    public void testPlayIncludesServiceReply() {
+        mHost.newGame("a", GameState.PLAYER_1, mockCallback);
+        mHost.play("a", 0, mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(argThat(s -> s.moves().equals(Arrays.asList(0, 1))));
+    }
+
+    @Test
+    public void testPlayEndsGameWithoutReply() {
+        mHost.newGame("a", GameState.PLAYER_1, mockCallback);
+        for (int i = 0; i < 4; i++) {
+            // Wait for each reply, as moves submitted while the service replies are rejected
+            final int moves = 2 * i + 1;
+            mHost.play("a", 0, mockCallback);
+            verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(argThat(s -> s.moves().size() >= moves));
+        }
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(argThat(s -> s.moves().equals(Arrays.asList(0, 1, 0, 1, 0, 1, 0))));
+
+        mHost.play("a", 2, mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onError(isA(IllegalStateException.class));
+        assertEquals(1, mHost.metrics().gamesFinished());
+    }
+
+    @Test
+    public void testPlayRejectsUnknownGame() {
+        mHost.play("missing", 0, mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onError(isA(IllegalStateException.class));
+    }
+
+    @Test
+    public void testPlayRejectsInvalidColumn() {
+        mHost.newGame("a", GameState.PLAYER_1, mockCallback);
+        mHost.play("a", 4, mockCallback);
+        verify(mockCallback, timeout(TIMEOUT_MILLIS)).onError(isA(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void testPlayRejectsMoveWhileServiceReplies() throws Exception {
+        final AtomicReference<Runnable> pending = new AtomicReference<>();
+        final GameSessionHost host = new GameSessionHost(GameRules.DEFAULT,
+                (move, callback) -> pending.set(() -> callback.onSuccess(move.sequence().append(1))),
+                1);
+        try {
+            host.newGame("a", GameState.PLAYER_1, mockCallback);
+            host.play("a", 0, mockCallback);
+            host.play("a", 2, mockCallback);
+            verify(mockCallback, timeout(TIMEOUT_MILLIS)).onError(isA(IllegalStateException.class));
+
+            pending.get().run();
+            verify(mockCallback, timeout(TIMEOUT_MILLIS)).onSuccess(argThat(s -> s.moves().equals(Arrays.asList(0, 1))));
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testServiceRewrittenMovesAreRejected() {
+        final GameSessionHost host = new GameSessionHost(GameRules.DEFAULT, (move, callback) -> callback.onSuccess(Arrays.asList(1, 2)), 1);
+        try {
+            host.newGame("a", GameState.PLAYER_1, mockCallback);
+            host.play("a", 0, mockCallback);
+            verify(mockCallback, timeout(TIMEOUT_MILLIS)).onError(isA(IllegalStateException.class));
+            verify(mockCallback, never()).onSuccess(argThat(s -> !s.moves().isEmpty()));
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testServiceNullMoveIsRejected() {
+        final GameSessionHost host = new GameSessionHost(GameRules.DEFAULT, (move, callback) -> callback.onSuccess(Arrays.asList(0, null)), 1);
+        try {
+            host.newGame("a", GameState.PLAYER_1, mockCallback);
+            host.play("a", 0, mockCallback);
+            verify(mockCallback, timeout(TIMEOUT_MILLIS)).onError(isA(IllegalStateException.class));
+            verify(mockCallback, never()).onSuccess(argThat(s -> !s.moves().isEmpty()));
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testServiceThrowingIsDelivered() {
+        final RuntimeException expected = new RuntimeException("Unavailable!");
+        final GameSessionHost host = new GameSessionHost(GameRules.DEFAULT, (move, callback) -> {
+            throw expected;
+        }, 1);
+        try {
+            host.newGame("a", GameState.PLAYER_1, mockCallback);
+            host.play("a", 0, mockCallback);
+            verify(mockCallback, timeout(TIMEOUT_MILLIS)).onError(expected);
+
+            // The game is not left waiting on a reply that will never come
+            host.play("a", 1, mockCallback);
+            verify(mockCallback, timeout(TIMEOUT_MILLIS).times(2)).onError(expected);
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testServiceErrorIsDelivered() {
+        final RuntimeException expected = new RuntimeException("Unavailable!");
+        final GameSessionHost host = new GameSessionHost(GameRules.DEFAULT, (move, callback) -> callback.onError(expected), 1);
+        try {
+            host.newGame("a", GameState.PLAYER_1, mockCallback);
+            host.play("a", 0, mockCallback);
+            verify(mockCallback, timeout(TIMEOUT_MILLIS)).onError(expected);
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testRemoveDiscardsGame() throws Exception {
+        mHost.newGame("a", GameState.PLAYER_1, mockCallback);
+        mHost.remove("a");
+        final AtomicReference<GameState> state = new AtomicReference<>(new GameState("b", GameState.PLAYER_1));
+        final CountDownLatch latch = new CountDownLatch(1);
+        mHost.get("a", new ResponseCallback<GameState, Throwable>() {
+            @Override
+            public void onSuccess(final GameState response) {
+                state.set(response);
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(final Throwable reason) {
+            }
+        });
+        assertTrue(latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        assertNull(state.get());
+        assertEquals(0, mHost.metrics().sessions());
+    }
+
+    @Test
+    public void testConcurrentGamesAllFinish() throws Exception {
+        final int games = 2_000;
+        final GameSessionHost host = new GameSessionHost(GameRules.DEFAULT, new LocalGameService(GameRules.DEFAULT, Runnable::run, 2), 4);
+        final CountDownLatch finished = new CountDownLatch(games);
+        try {
+            for (int i = 0; i < games; i++) {
+                host.newGame("game-" + i, i % 2 == 0 ? GameState.PLAYER_1 : GameState.PLAYER_2, new Player(host, finished));
+            }
+            assertTrue(finished.await(30, TimeUnit.SECONDS));
+
+            final GameSessionHost.Metrics metrics = host.metrics();
+            assertEquals(games, metrics.sessions());
+            assertEquals(games, metrics.gamesFinished());
+            assertEquals(0, metrics.errors());
+            assertTrue(metrics.moves() >= 7 * games);
+            assertEquals(4, metrics.shards());
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    /**
+     * @return a {@link GameService} which always replies with the provided column
+     */
+    private static GameService column(final int column) {
+        return (move, callback) -> callback.onSuccess(move.sequence().append(column));
+    }
+
+    /**
+     * Plays the leftmost open column until the game ends.
+     */
+    private static final class Player implements ResponseCallback<GameState, Throwable> {
+
+        private final GameSessionHost mHost;
+        private final CountDownLatch mFinished;
+
+        Player(final GameSessionHost host, final CountDownLatch finished) {
+            mHost = host;
+            mFinished = finished;
+        }
+
+        @Override
+        public void onSuccess(final GameState response) {
+            final GameBoard board = new GameBoard(response, GameRules.DEFAULT);
+            final List<Integer> moves = response.moves();
+            if (moves.size() == GameRules.DEFAULT.cells()
+                    || (!moves.isEmpty() && board.isGameOver(response.lastPlayer()) != GameBoard.GameOverType.NONE)) {
+                mFinished.countDown();
+                return;
+            }
+            for (int column = 0; ; column++) {
+                if (board.height(column) < GameRules.DEFAULT.rows()) {
+                    mHost.play(response.key(), column, this);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onError(final Throwable reason) {
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ninety8point6.droptoken.server;
+
+import com.ninety8point6.droptoken.concepts.GameRules;
+import com.ninety8point6.droptoken.concepts.GameService;
+import com.ninety8point6.droptoken.concepts.Move;
+import com.ninety8point6.droptoken.concepts.MoveSequence;
+import com.ninety8point6.droptoken.service.LocalGameService;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A suite of tests to verify the {@link LoadGenerator} has the expected behavior.
+ *
+ * @see LoadGenerator
+ */
+public class LoadGeneratorTests {
+
+    private final OkHttpClient mClient = new OkHttpClient();
+
+    private GameServer mServer;
+
+    @After
+    public void tearDown() throws Exception {
+        if (mServer != null) {
+            mServer.stop();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRunChecksRate() throws Exception {
+        generator(new LocalGameService(GameRules.DEFAULT, Runnable::run)).run(0, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testPositionsAreDistinct() {
+        final List<Move> moves = LoadGenerator.positions(GameRules.DEFAULT, 42);
+        final Set<MoveSequence> sequences = new HashSet<>();
+        for (final Move move : moves) {
+            sequences.add(move.sequence());
+        }
+
+        assertEquals(LoadGenerator.POSITIONS, moves.size());
+        assertEquals(moves.size(), sequences.size());
+    }
+
+    @Test
+    public void testEveryRequestIsRecorded() throws Exception {
+        final LoadGenerator.Report report = generator(new LocalGameService(GameRules.DEFAULT, Runnable::run))
+                .run(200, 8, 500, TimeUnit.MILLISECONDS);
+
+        assertTrue(report.sent() > 0);
+        assertEquals(report.sent(), report.completed());
+        assertEquals(0, report.errors());
+        assertEquals(0, report.rejected());
+        assertEquals(report.sent(), report.latency().getTotalCount());
+        assertEquals(report.sent(), report.uncorrectedLatency().getTotalCount());
+        assertTrue(report.throughput() > 0);
+    }
+
+    @Test
+    public void testErrorsAreCounted() throws Exception {
+        final LoadGenerator.Report report = generator((move, callback) -> callback.onError(new RuntimeException("Unavailable!")))
+                .run(100, 4, 200, TimeUnit.MILLISECONDS);
+
+        assertEquals(report.sent(), report.errors());
+        assertEquals(0, report.completed());
+    }
+
+    @Test
+    public void testStalledScheduleIsCorrected() throws Exception {
+        // One request at a time to a server taking 50ms per reply, asked for one every 10ms: every
+        // request after the first is sent late, which only the corrected latency shows.
+        final LoadGenerator.Report report = generator((move, callback) -> {
+            try {
+                Thread.sleep(50);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            callback.onSuccess(move.sequence().append(0));
+        }).run(100, 1, 300, TimeUnit.MILLISECONDS);
+
+        assertTrue(report.uncorrectedLatency().getMaxValue() < TimeUnit.MILLISECONDS.toNanos(150));
+        assertTrue(report.latency().getMaxValue() > TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    private LoadGenerator generator(final GameService service) throws IOException {
+        mServer = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), service, 2);
+        mServer.start();
+        return new LoadGenerator(mClient, mServer.endpoint(), GameRules.DEFAULT, 42);
+    }
+}